@@ -0,0 +1,25 @@
+package com.effecti.licitacoes.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record BackfillDTO(
+        Long id,
+        LocalDate dataInicio,
+        LocalDate dataFim,
+        List<Integer> codigosUasg,
+        String status,
+        long unidades,
+        long unidadesConcluidas,
+        long unidadesComFalha,
+        long paginas,
+        long licitacoesGravadas,
+        double paginasPorMinuto,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime criadoEm,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime concluidoEm
+) {
+}
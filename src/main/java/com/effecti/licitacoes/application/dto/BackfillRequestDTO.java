@@ -0,0 +1,15 @@
+package com.effecti.licitacoes.application.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Período e/ou UASGs a capturar. Sem datas, o período padrão termina hoje; sem UASGs, o período é
+ * capturado para todas.
+ */
+public record BackfillRequestDTO(
+        LocalDate dataInicio,
+        LocalDate dataFim,
+        List<Integer> codigosUasg
+) {
+}
@@ -0,0 +1,18 @@
+package com.effecti.licitacoes.application.dto;
+
+import java.util.List;
+
+/**
+ * Variante de {@link PageResponseDTO} para a paginação por cursor: sem número de página nem total,
+ * apenas o cursor opaco da próxima página ({@code null} na última).
+ */
+public record CursorPageResponseDTO<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {
+    public static <T> CursorPageResponseDTO<T> of(List<T> content, int size, String nextCursor) {
+        return new CursorPageResponseDTO<>(content, size, nextCursor, nextCursor != null);
+    }
+}
@@ -0,0 +1,34 @@
+package com.effecti.licitacoes.application.dto;
+
+import com.effecti.licitacoes.domain.model.ItemResumo;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDate;
+
+public record ItemResumoDTO(
+        Long id,
+        Integer numeroItem,
+        String descricao,
+        Integer quantidade,
+        String unidadeFornecimento,
+        Long licitacaoId,
+        Integer codigoUasg,
+        String numeroPregao,
+        String modalidade,
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        LocalDate dataAbertura
+) {
+    public static ItemResumoDTO from(ItemResumo item) {
+        return new ItemResumoDTO(
+                item.id(),
+                item.numeroItem(),
+                item.descricao(),
+                item.quantidade(),
+                item.unidadeFornecimento(),
+                item.licitacaoId(),
+                item.codigoUasg(),
+                item.numeroPregao(),
+                item.modalidade(),
+                item.dataAbertura()
+        );
+    }
+}
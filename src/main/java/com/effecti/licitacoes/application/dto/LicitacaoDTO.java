@@ -2,6 +2,7 @@ package com.effecti.licitacoes.application.dto;
 
 import com.effecti.licitacoes.domain.entity.Licitacao;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -11,7 +12,8 @@ public record LicitacaoDTO(
         Integer codigoUasg,
         String numeroPregao,
         String objeto,
-        String dataAbertura,
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        LocalDate dataAbertura,
         String modalidade,
         String endereco,
         List<ItemLicitacaoDTO> itens,
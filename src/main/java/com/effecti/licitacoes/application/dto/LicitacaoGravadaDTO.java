@@ -0,0 +1,33 @@
+package com.effecti.licitacoes.application.dto;
+
+import com.effecti.licitacoes.domain.entity.EventoLicitacao;
+import com.effecti.licitacoes.domain.model.LicitacaoGravada;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record LicitacaoGravadaDTO(
+        EventoLicitacao.Tipo tipo,
+        Long id,
+        Integer codigoUasg,
+        String numeroPregao,
+        String objeto,
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        LocalDate dataAbertura,
+        String modalidade,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime atualizadoEm
+) {
+    public static LicitacaoGravadaDTO from(LicitacaoGravada gravada) {
+        return new LicitacaoGravadaDTO(
+                gravada.tipo(),
+                gravada.id(),
+                gravada.codigoUasg(),
+                gravada.numeroPregao(),
+                gravada.objeto(),
+                gravada.dataAbertura(),
+                gravada.modalidade(),
+                gravada.atualizadoEm()
+        );
+    }
+}
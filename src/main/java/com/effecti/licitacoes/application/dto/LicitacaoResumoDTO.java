@@ -0,0 +1,35 @@
+package com.effecti.licitacoes.application.dto;
+
+import com.effecti.licitacoes.domain.model.LicitacaoResumo;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record LicitacaoResumoDTO(
+        Long id,
+        Integer codigoUasg,
+        String numeroPregao,
+        String objeto,
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        LocalDate dataAbertura,
+        String modalidade,
+        String endereco,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime criadoEm,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime atualizadoEm
+) {
+    public static LicitacaoResumoDTO from(LicitacaoResumo resumo) {
+        return new LicitacaoResumoDTO(
+                resumo.id(),
+                resumo.codigoUasg(),
+                resumo.numeroPregao(),
+                resumo.objeto(),
+                resumo.dataAbertura(),
+                resumo.modalidade(),
+                resumo.endereco(),
+                resumo.criadoEm(),
+                resumo.atualizadoEm()
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package com.effecti.licitacoes.application.dto;
+
+import com.effecti.licitacoes.domain.model.TotalPorUnidade;
+
+public record TotalPorUnidadeDTO(
+        String unidadeFornecimento,
+        long itens,
+        long licitacoes,
+        long quantidadeTotal
+) {
+    public static TotalPorUnidadeDTO from(TotalPorUnidade total) {
+        return new TotalPorUnidadeDTO(
+                total.unidadeFornecimento(),
+                total.itens(),
+                total.licitacoes(),
+                total.quantidadeTotal()
+        );
+    }
+}
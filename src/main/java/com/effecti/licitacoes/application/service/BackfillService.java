@@ -0,0 +1,147 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.application.dto.BackfillDTO;
+import com.effecti.licitacoes.application.dto.BackfillRequestDTO;
+import com.effecti.licitacoes.domain.entity.Backfill;
+import com.effecti.licitacoes.domain.entity.UnidadeBackfill;
+import com.effecti.licitacoes.domain.model.ProgressoBackfill;
+import com.effecti.licitacoes.domain.repository.BackfillRepository;
+import com.effecti.licitacoes.domain.repository.UnidadeBackfillRepository;
+import com.effecti.licitacoes.infrastructure.config.BackfillProperties;
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
+import com.effecti.licitacoes.infrastructure.exception.ResourceNotFoundException;
+import com.effecti.licitacoes.infrastructure.service.ComprasNetBackfillWorker;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class BackfillService {
+
+    /** Período capturado quando só as UASGs são informadas. */
+    static final int DIAS_PADRAO = 30;
+
+    private final BackfillRepository backfillRepository;
+    private final UnidadeBackfillRepository unidadeRepository;
+    private final ComprasNetBackfillWorker worker;
+    private final int maxDias;
+
+    public BackfillService(BackfillRepository backfillRepository,
+                           UnidadeBackfillRepository unidadeRepository,
+                           ComprasNetBackfillWorker worker,
+                           BackfillProperties properties) {
+        this.backfillRepository = backfillRepository;
+        this.unidadeRepository = unidadeRepository;
+        this.worker = worker;
+        this.maxDias = properties.maxDias();
+    }
+
+    /**
+     * Cria o backfill com uma unidade por dia e UASG e começa a processá-lo em segundo plano.
+     */
+    public BackfillDTO criar(BackfillRequestDTO request) {
+        List<Integer> uasgs = request.codigosUasg() == null ? List.of() : request.codigosUasg().stream().distinct().toList();
+        LocalDate fim = request.dataFim() != null ? request.dataFim() : LocalDate.now();
+        LocalDate inicio = request.dataInicio();
+        if (inicio == null) {
+            if (request.dataFim() == null && uasgs.isEmpty()) {
+                throw new BadRequestException("Informe o período ou as UASGs do backfill");
+            }
+            inicio = fim.minusDays(DIAS_PADRAO - 1);
+        }
+        if (inicio.isAfter(fim)) {
+            throw new BadRequestException("A data inicial deve ser anterior ou igual à final");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) + 1 > maxDias) {
+            throw new BadRequestException("O período do backfill deve ter no máximo " + maxDias + " dias");
+        }
+
+        Backfill backfill = backfillRepository.save(new Backfill(inicio, fim, uasgs.isEmpty() ? null
+                : uasgs.stream().map(String::valueOf).collect(Collectors.joining(","))));
+
+        List<UnidadeBackfill> unidades = new ArrayList<>();
+        for (LocalDate data = inicio; !data.isAfter(fim); data = data.plusDays(1)) {
+            if (uasgs.isEmpty()) {
+                unidades.add(new UnidadeBackfill(backfill, data, null));
+            } else {
+                for (Integer uasg : uasgs) {
+                    unidades.add(new UnidadeBackfill(backfill, data, uasg));
+                }
+            }
+        }
+        unidadeRepository.saveAll(unidades);
+
+        worker.iniciar(backfill.getId());
+        return consultar(backfill.getId());
+    }
+
+    public BackfillDTO consultar(Long id) {
+        Backfill backfill = backfillRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Backfill não encontrado"));
+        Map<UnidadeBackfill.Status, ProgressoBackfill> progresso = unidadeRepository.findProgresso(id).stream()
+                .collect(Collectors.toMap(ProgressoBackfill::status, Function.identity()));
+
+        long unidades = progresso.values().stream().mapToLong(ProgressoBackfill::unidades).sum();
+        long paginas = progresso.values().stream().mapToLong(ProgressoBackfill::paginas).sum();
+        long gravadas = progresso.values().stream().mapToLong(ProgressoBackfill::licitacoesGravadas).sum();
+        long concluidas = unidades(progresso, UnidadeBackfill.Status.CONCLUIDA);
+        long comFalha = unidades(progresso, UnidadeBackfill.Status.FALHA);
+
+        String status;
+        if (backfill.getConcluidoEm() == null) {
+            status = "EM_ANDAMENTO";
+        } else {
+            status = comFalha > 0 ? "CONCLUIDO_COM_FALHAS" : "CONCLUIDO";
+        }
+
+        LocalDateTime ate = backfill.getConcluidoEm() != null ? backfill.getConcluidoEm() : LocalDateTime.now();
+        double minutos = Math.max(Duration.between(backfill.getCriadoEm(), ate).toMillis(), 1) / 60_000.0;
+
+        return new BackfillDTO(
+                backfill.getId(),
+                backfill.getDataInicio(),
+                backfill.getDataFim(),
+                backfill.getCodigosUasg() == null ? List.of() : Arrays.stream(backfill.getCodigosUasg().split(","))
+                        .map(Integer::valueOf)
+                        .toList(),
+                status,
+                unidades,
+                concluidas,
+                comFalha,
+                paginas,
+                gravadas,
+                paginas / minutos,
+                backfill.getCriadoEm(),
+                backfill.getConcluidoEm()
+        );
+    }
+
+    /**
+     * Devolve para a fila as unidades que esgotaram as tentativas e volta a processar o backfill.
+     */
+    public BackfillDTO retomar(Long id) {
+        Backfill backfill = backfillRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Backfill não encontrado"));
+        int reabertas = unidadeRepository.trocarStatusDoBackfill(id, UnidadeBackfill.Status.FALHA, UnidadeBackfill.Status.PENDENTE);
+        if (reabertas > 0) {
+            backfill.reabrir();
+            backfillRepository.save(backfill);
+        }
+        worker.iniciar(id);
+        return consultar(id);
+    }
+
+    private static long unidades(Map<UnidadeBackfill.Status, ProgressoBackfill> progresso, UnidadeBackfill.Status status) {
+        ProgressoBackfill doStatus = progresso.get(status);
+        return doStatus != null ? doStatus.unidades() : 0;
+    }
+}
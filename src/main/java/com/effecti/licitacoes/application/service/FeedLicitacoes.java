@@ -0,0 +1,226 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.application.dto.LicitacaoGravadaDTO;
+import com.effecti.licitacoes.domain.model.LicitacaoGravada;
+import com.effecti.licitacoes.domain.repository.EventoLicitacaoRepository;
+import com.effecti.licitacoes.infrastructure.config.FeedProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega as licitações gravadas aos inscritos em {@code /api/licitacoes/stream}.
+ * <p>
+ * Os eventos saem de {@code eventos_licitacao}, lidos uma vez por réplica e enviados a todos os
+ * inscritos, então o número de clientes não muda o número de consultas. A leitura acontece quando
+ * esta réplica grava um lote ({@link LoteGravado}) e a cada {@link FeedProperties#intervaloReleitura()},
+ * para acompanhar os lotes gravados pelas outras; sem inscritos, nada é lido. O id de cada evento é a
+ * sequência da última licitação que ele contém, e quem reconecta com {@code Last-Event-ID} recebe
+ * antes o que perdeu. Quando o que perdeu já saiu da retenção ou passa de
+ * {@link FeedProperties#maximoReenvio()}, recebe um evento {@value #EVENTO_REINICIO} no lugar e deve
+ * recarregar a listagem.
+ */
+@Component
+public class FeedLicitacoes {
+
+    static final String EVENTO = "licitacoes";
+    static final String EVENTO_REINICIO = "reinicio";
+    /** Licitações por evento; lotes maiores, como numa retomada longa, viram vários eventos. */
+    static final int LOTE_LEITURA = 200;
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedLicitacoes.class);
+
+    private final EventoLicitacaoRepository repository;
+    private final ObjectMapper objectMapper;
+    private final FeedProperties properties;
+    private final ScheduledExecutorService distribuidor;
+    private final List<SseEmitter> inscritos = new CopyOnWriteArrayList<>();
+    private final Object trava = new Object();
+
+    /** Última sequência entregue aos inscritos; nula enquanto não há inscritos. Protegida por {@code trava}. */
+    private Long ultimaSequencia;
+
+    @Autowired
+    public FeedLicitacoes(EventoLicitacaoRepository repository, ObjectMapper objectMapper, FeedProperties properties) {
+        // uma thread: os envios não disputam os inscritos e um cliente lento não segura a captura
+        this(repository, objectMapper, properties, Executors.newSingleThreadScheduledExecutor(threadFactory()));
+    }
+
+    FeedLicitacoes(EventoLicitacaoRepository repository, ObjectMapper objectMapper, FeedProperties properties,
+                   ScheduledExecutorService distribuidor) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.distribuidor = distribuidor;
+    }
+
+    private static CustomizableThreadFactory threadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("feed-licitacoes-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        long intervalo = properties.intervaloReleitura().toMillis();
+        distribuidor.scheduleWithFixedDelay(this::reler, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        distribuidor.shutdownNow();
+        inscritos.forEach(SseEmitter::complete);
+    }
+
+    /**
+     * Inscreve um cliente. Com {@code ultimoEventoRecebido}, reenvia primeiro o que foi gravado depois
+     * dele; sem, o cliente recebe só o que for gravado a partir de agora. A retomada roda no
+     * distribuidor, e não na requisição, para não segurar os envios aos outros inscritos.
+     */
+    public SseEmitter inscrever(Long ultimoEventoRecebido) {
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        emitter.onCompletion(() -> inscritos.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(erro -> inscritos.remove(emitter));
+        distribuidor.execute(() -> retomar(emitter, ultimoEventoRecebido));
+        return emitter;
+    }
+
+    @EventListener
+    public void loteGravado(LoteGravado lote) {
+        distribuidor.execute(this::distribuirSemFalhar);
+    }
+
+    int quantidadeInscritos() {
+        return inscritos.size();
+    }
+
+    /**
+     * Lê os eventos gravados desde a última entrega e os envia a todos os inscritos.
+     */
+    void distribuirNovas() {
+        synchronized (trava) {
+            if (inscritos.isEmpty()) {
+                // sem inscritos a posição não é mantida; o próximo parte da última sequência gravada
+                ultimaSequencia = null;
+                return;
+            }
+            ultimaSequencia = enviarGravadas(inscritos, ultimaSequencia(), Long.MAX_VALUE);
+        }
+    }
+
+    private void retomar(SseEmitter emitter, Long ultimoEventoRecebido) {
+        try {
+            synchronized (trava) {
+                long atual = ultimaSequencia();
+                if (ultimoEventoRecebido != null && ultimoEventoRecebido > atual) {
+                    // o cliente veio de uma réplica mais adiantada que esta
+                    distribuirNovas();
+                    atual = ultimaSequencia();
+                }
+                if (ultimoEventoRecebido != null && ultimoEventoRecebido < atual) {
+                    if (perdidasForaDoReenvio(ultimoEventoRecebido, atual)) {
+                        String id = String.valueOf(atual);
+                        enviar(emitter, SseEmitter.event().id(id).name(EVENTO_REINICIO).data(id));
+                    } else {
+                        enviarGravadas(List.of(emitter), ultimoEventoRecebido, atual);
+                    }
+                }
+                inscritos.add(emitter);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Erro ao retomar inscrito do feed a partir de {}", ultimoEventoRecebido, e);
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Se as sequências em {@code (ultimoEventoRecebido, atual]} passam do limite de reenvio ou se parte
+     * delas já foi apagada pela retenção.
+     */
+    private boolean perdidasForaDoReenvio(long ultimoEventoRecebido, long atual) {
+        if (atual - ultimoEventoRecebido > properties.maximoReenvio()) {
+            return true;
+        }
+        Long primeira = repository.findPrimeiraSequencia();
+        return primeira != null && ultimoEventoRecebido < primeira - 1;
+    }
+
+    private void reler() {
+        distribuirSemFalhar();
+        // comentário SSE: mantém a conexão aberta em proxies e revela os clientes que já saíram
+        inscritos.forEach(emitter -> enviar(emitter, SseEmitter.event().comment("")));
+    }
+
+    private void distribuirSemFalhar() {
+        try {
+            distribuirNovas();
+        } catch (RuntimeException e) {
+            logger.warn("Erro ao distribuir licitações gravadas aos inscritos do feed", e);
+        }
+    }
+
+    private long ultimaSequencia() {
+        if (ultimaSequencia == null) {
+            Long gravada = repository.findUltimaSequencia();
+            ultimaSequencia = gravada == null ? 0L : gravada;
+        }
+        return ultimaSequencia;
+    }
+
+    /**
+     * Envia os eventos com sequência em {@code (depoisDe, ate]} e devolve a última sequência enviada.
+     * O JSON de cada evento é gerado uma vez para todos os destinos.
+     */
+    private long enviarGravadas(Collection<SseEmitter> destinos, long depoisDe, long ate) {
+        long ultima = depoisDe;
+        List<LicitacaoGravada> gravadas;
+        do {
+            gravadas = repository.findGravadasEntre(ultima, ate, PageRequest.of(0, LOTE_LEITURA));
+            if (gravadas.isEmpty()) {
+                break;
+            }
+            ultima = gravadas.get(gravadas.size() - 1).sequencia();
+            String id = String.valueOf(ultima);
+            String dados = json(gravadas.stream().map(LicitacaoGravadaDTO::from).toList());
+            destinos.forEach(emitter -> enviar(emitter, SseEmitter.event().id(id).name(EVENTO).data(dados)));
+        } while (gravadas.size() == LOTE_LEITURA);
+        return ultima;
+    }
+
+    private void enviar(SseEmitter emitter, SseEmitter.SseEventBuilder evento) {
+        try {
+            emitter.send(evento);
+        } catch (IOException | IllegalStateException e) {
+            // o contêiner encerra a requisição; aqui só deixa de enviar
+            inscritos.remove(emitter);
+            logger.debug("Inscrito do feed desconectado: {}", e.getMessage());
+        }
+    }
+
+    private String json(List<LicitacaoGravadaDTO> licitacoes) {
+        try {
+            return objectMapper.writeValueAsString(licitacoes);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição na busca de itens: o id do último item entregue, serializado em Base64 URL-safe como
+ * {@link LicitacaoCursor}.
+ */
+record ItemCursor(Long id) {
+
+    static ItemCursor decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new ItemCursor(Long.parseLong(texto));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    String codificar() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
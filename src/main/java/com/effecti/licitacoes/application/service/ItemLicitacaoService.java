@@ -0,0 +1,60 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.application.dto.CursorPageResponseDTO;
+import com.effecti.licitacoes.application.dto.ItemResumoDTO;
+import com.effecti.licitacoes.application.dto.TotalPorUnidadeDTO;
+import com.effecti.licitacoes.domain.model.FiltroItem;
+import com.effecti.licitacoes.domain.model.ItemResumo;
+import com.effecti.licitacoes.domain.repository.ItemLicitacaoRepository;
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Busca e totais sobre os itens de todas as licitações, sem carregar as licitações com os itens.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ItemLicitacaoService {
+
+    private final ItemLicitacaoRepository repository;
+
+    public ItemLicitacaoService(ItemLicitacaoRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Paginação por cursor em ordem de id do item. Não executa contagem e cada página custa o mesmo,
+     * independente da profundidade. O tamanho é limitado a {@link TamanhoPagina#MAXIMO}.
+     */
+    public CursorPageResponseDTO<ItemResumoDTO> buscar(FiltroItem filtro, String cursor, int size) {
+        validar(filtro);
+        size = TamanhoPagina.validar(size);
+        Long depoisDe = cursor == null || cursor.isBlank() ? null : ItemCursor.decodificar(cursor).id();
+        // um registro a mais indica se existe próxima página
+        List<ItemResumo> itens = repository.findResumos(filtro, depoisDe, size + 1);
+
+        boolean temProxima = itens.size() > size;
+        List<ItemResumo> pagina = temProxima ? itens.subList(0, size) : itens;
+        String proximoCursor = temProxima && !pagina.isEmpty()
+                ? new ItemCursor(pagina.get(pagina.size() - 1).id()).codificar()
+                : null;
+        return CursorPageResponseDTO.of(pagina.stream().map(ItemResumoDTO::from).toList(), size, proximoCursor);
+    }
+
+    public List<TotalPorUnidadeDTO> totalizarPorUnidade(FiltroItem filtro) {
+        validar(filtro);
+        return repository.totalizarPorUnidade(filtro).stream()
+                .map(TotalPorUnidadeDTO::from)
+                .toList();
+    }
+
+    private static void validar(FiltroItem filtro) {
+        if (filtro.dataAberturaDe() != null && filtro.dataAberturaAte() != null
+                && filtro.dataAberturaDe().isAfter(filtro.dataAberturaAte())) {
+            throw new BadRequestException("dataAberturaDe deve ser anterior ou igual a dataAberturaAte");
+        }
+    }
+}
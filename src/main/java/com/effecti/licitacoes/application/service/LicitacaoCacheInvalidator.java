@@ -0,0 +1,40 @@
+package com.effecti.licitacoes.application.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Remove dos caches de leitura o que uma gravação tornou obsoleto e avança a marca de atualização
+ * usada pelos validadores HTTP. Deve ser chamado depois do commit, para que uma leitura concorrente
+ * não volte a guardar a versão anterior.
+ */
+@Component
+public class LicitacaoCacheInvalidator {
+
+    public static final String LICITACOES = "licitacoes";
+    public static final String PAGINAS_LICITACOES = "paginasLicitacoes";
+
+    private final CacheManager cacheManager;
+    private final MarcaAtualizacaoLicitacoes marcaAtualizacao;
+
+    public LicitacaoCacheInvalidator(CacheManager cacheManager, MarcaAtualizacaoLicitacoes marcaAtualizacao) {
+        this.cacheManager = cacheManager;
+        this.marcaAtualizacao = marcaAtualizacao;
+    }
+
+    public void licitacoesGravadas(Collection<Long> ids) {
+        Cache licitacoes = cacheManager.getCache(LICITACOES);
+        if (licitacoes != null) {
+            ids.forEach(licitacoes::evict);
+        }
+        // novas licitações deslocam todas as páginas da listagem
+        Cache paginas = cacheManager.getCache(PAGINAS_LICITACOES);
+        if (paginas != null) {
+            paginas.clear();
+        }
+        marcaAtualizacao.registrarGravacao();
+    }
+}
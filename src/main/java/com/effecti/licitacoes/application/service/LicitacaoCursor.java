@@ -0,0 +1,38 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Posição na paginação por cursor: o par (criadoEm, id) do último registro entregue, serializado
+ * em Base64 URL-safe para que o cliente o trate como opaco.
+ */
+record LicitacaoCursor(LocalDateTime criadoEm, Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    static LicitacaoCursor decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.indexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("separador ausente");
+            }
+            return new LicitacaoCursor(LocalDateTime.parse(texto.substring(0, separador)),
+                    Long.parseLong(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    String codificar() {
+        // o banco guarda microssegundos; um cursor com nanossegundos repetiria o último registro
+        String texto = criadoEm.truncatedTo(ChronoUnit.MICROS) + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,50 +1,251 @@
 package com.effecti.licitacoes.application.service;
 
+import com.effecti.licitacoes.application.dto.CursorPageResponseDTO;
+import com.effecti.licitacoes.application.dto.ItemLicitacaoDTO;
 import com.effecti.licitacoes.application.dto.LicitacaoDTO;
+import com.effecti.licitacoes.application.dto.LicitacaoResumoDTO;
 import com.effecti.licitacoes.application.dto.PageResponseDTO;
 import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
 import com.effecti.licitacoes.domain.repository.LicitacaoRepository;
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
 import com.effecti.licitacoes.infrastructure.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 @Service
 @Transactional(readOnly = true)
 public class LicitacaoService {
 
+    /** Páginas iniciais da listagem guardadas em cache; as demais são consultadas sempre. */
+    public static final int PAGINAS_EM_CACHE = 3;
+
+    private static final String ITENS = "itens";
+    /** Campos aceitos em fields= e como obter cada um de uma licitação já carregada. */
+    private static final Map<String, Function<Licitacao, Object>> CAMPOS = Map.of(
+            "id", Licitacao::getId,
+            "codigoUasg", Licitacao::getCodigoUasg,
+            "numeroPregao", Licitacao::getNumeroPregao,
+            "objeto", Licitacao::getObjeto,
+            "dataAbertura", Licitacao::getDataAbertura,
+            "modalidade", Licitacao::getModalidade,
+            "endereco", Licitacao::getEndereco,
+            ITENS, licitacao -> licitacao.getItens().stream().map(ItemLicitacaoDTO::from).toList(),
+            "criadoEm", Licitacao::getCriadoEm,
+            "atualizadoEm", Licitacao::getAtualizadoEm
+    );
+    /** Mesmo formato das datas em {@link LicitacaoDTO}. */
+    private static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** Mesmo tamanho do fetch size do cursor de exportação. */
+    static final int LOTE_EXPORTACAO = 500;
+
     private final LicitacaoRepository repository;
+    private final EntityManager entityManager;
 
-    public LicitacaoService(LicitacaoRepository repository) {
+    public LicitacaoService(LicitacaoRepository repository, EntityManager entityManager) {
         this.repository = repository;
+        this.entityManager = entityManager;
     }
 
-    public PageResponseDTO<LicitacaoDTO> findAll(Integer codigoUasg, String numeroPregao,
-                                                 int page, int size, String sort) {
+    @Cacheable(cacheNames = LicitacaoCacheInvalidator.PAGINAS_LICITACOES,
+            condition = "#page < T(com.effecti.licitacoes.application.service.LicitacaoService).PAGINAS_EM_CACHE")
+    public PageResponseDTO<LicitacaoDTO> findAll(FiltroLicitacao filtro, int page, int size, String sort) {
+        validar(filtro);
         Pageable pageable = createPageable(page, size, sort);
-        Page<Licitacao> licitacoes = repository.findByFilters(codigoUasg, numeroPregao, pageable);
-        Page<LicitacaoDTO> dtos = licitacoes.map(LicitacaoDTO::from);
-        return PageResponseDTO.from(dtos);
+        // ids paginados primeiro e itens da página inteira numa só consulta, em vez de uma por licitação
+        Page<Long> ids = repository.findIdsByFilters(filtro, pageable);
+
+        List<LicitacaoDTO> dtos = carregarComItens(ids.getContent()).stream()
+                .map(LicitacaoDTO::from)
+                .toList();
+        return PageResponseDTO.from(new PageImpl<>(dtos, ids.getPageable(), ids.getTotalElements()));
+    }
+
+    /**
+     * Listagem sem os itens, projetada direto das colunas da licitação.
+     */
+    public PageResponseDTO<LicitacaoResumoDTO> findAllSemItens(FiltroLicitacao filtro, int page, int size,
+                                                              String sort) {
+        validar(filtro);
+        return PageResponseDTO.from(repository.findResumosByFilters(filtro, createPageable(page, size, sort))
+                .map(LicitacaoResumoDTO::from));
+    }
+
+    /**
+     * Listagem só com os campos pedidos, na ordem em que foram pedidos. Sem {@code itens}, apenas
+     * as colunas correspondentes são consultadas; com {@code itens}, a página é carregada como em
+     * {@link #findAll} e reduzida aos campos pedidos.
+     */
+    public PageResponseDTO<Map<String, Object>> findAllComCampos(FiltroLicitacao filtro, int page, int size,
+                                                                String sort, Collection<String> campos) {
+        validar(filtro);
+        List<String> pedidos = campos.stream().distinct().toList();
+        if (pedidos.isEmpty()) {
+            throw new BadRequestException("Informe ao menos um campo");
+        }
+        pedidos.stream()
+                .filter(campo -> !CAMPOS.containsKey(campo))
+                .findFirst()
+                .ifPresent(campo -> {
+                    throw new BadRequestException("Campo inválido: " + campo);
+                });
+
+        Pageable pageable = createPageable(page, size, sort);
+        if (pedidos.contains(ITENS)) {
+            Page<Long> ids = repository.findIdsByFilters(filtro, pageable);
+            List<Map<String, Object>> linhas = carregarComItens(ids.getContent()).stream()
+                    .map(licitacao -> {
+                        Map<String, Object> linha = new LinkedHashMap<>();
+                        pedidos.forEach(campo -> linha.put(campo, CAMPOS.get(campo).apply(licitacao)));
+                        return formatarDatas(linha);
+                    })
+                    .toList();
+            return PageResponseDTO.from(new PageImpl<>(linhas, ids.getPageable(), ids.getTotalElements()));
+        }
+        return PageResponseDTO.from(repository.findCamposByFilters(filtro, pedidos, pageable)
+                .map(LicitacaoService::formatarDatas));
+    }
+
+    private static Map<String, Object> formatarDatas(Map<String, Object> linha) {
+        linha.replaceAll((campo, valor) -> valor instanceof LocalDateTime dataHora
+                ? FORMATO_DATA_HORA.format(dataHora)
+                : valor);
+        return linha;
+    }
+
+    /**
+     * Paginação por cursor, das licitações mais recentes para as mais antigas por (criadoEm, id).
+     * Não executa contagem e cada página custa o mesmo, independente da profundidade. O tamanho é
+     * limitado a {@link TamanhoPagina#MAXIMO}.
+     */
+    public CursorPageResponseDTO<LicitacaoDTO> findAllPorCursor(FiltroLicitacao filtro, String cursor, int size) {
+        validar(filtro);
+        size = TamanhoPagina.validar(size);
+        // um registro a mais indica se existe próxima página
+        List<Long> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = repository.findIdsMaisRecentes(filtro, null, null, size + 1);
+        } else {
+            LicitacaoCursor posicao = LicitacaoCursor.decodificar(cursor);
+            ids = repository.findIdsMaisRecentes(filtro, posicao.criadoEm(), posicao.id(), size + 1);
+        }
+
+        boolean temProxima = ids.size() > size;
+        List<Licitacao> licitacoes = carregarComItens(temProxima ? ids.subList(0, size) : ids);
+
+        String proximoCursor = null;
+        if (temProxima && !licitacoes.isEmpty()) {
+            Licitacao ultima = licitacoes.get(licitacoes.size() - 1);
+            proximoCursor = new LicitacaoCursor(ultima.getCriadoEm(), ultima.getId()).codificar();
+        }
+        return CursorPageResponseDTO.of(licitacoes.stream().map(LicitacaoDTO::from).toList(), size, proximoCursor);
     }
 
+    /**
+     * Busca textual no objeto e nos itens, da licitação mais relevante para a menos relevante.
+     */
+    public PageResponseDTO<LicitacaoDTO> buscarPorTexto(String termo, int page, int size) {
+        if (termo == null || termo.isBlank()) {
+            throw new BadRequestException("Informe o termo da busca");
+        }
+        Page<Long> ids = repository.buscarIdsPorTexto(termo.trim(), PageRequest.of(page, size));
+
+        List<LicitacaoDTO> dtos = carregarComItens(ids.getContent()).stream()
+                .map(LicitacaoDTO::from)
+                .toList();
+        return PageResponseDTO.from(new PageImpl<>(dtos, ids.getPageable(), ids.getTotalElements()));
+    }
+
+    /**
+     * Entrega todas as licitações atualizadas a partir de {@code desde} (todas, se nulo), em ordem de id.
+     * Os ids vêm de um cursor do banco e as licitações são carregadas com os itens em lotes; o contexto
+     * de persistência é limpo a cada lote, então a memória usada não cresce com o volume exportado.
+     *
+     * @return quantidade de licitações entregues
+     */
+    public long exportar(LocalDateTime desde, Consumer<LicitacaoDTO> destino) {
+        long exportadas = 0;
+        List<Long> lote = new ArrayList<>(LOTE_EXPORTACAO);
+        try (Stream<Long> ids = desde == null ? repository.streamIds() : repository.streamIdsAtualizadosDesde(desde)) {
+            for (Long id : (Iterable<Long>) ids::iterator) {
+                lote.add(id);
+                if (lote.size() == LOTE_EXPORTACAO) {
+                    exportadas += exportarLote(lote, destino);
+                    lote.clear();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            exportadas += exportarLote(lote, destino);
+        }
+        return exportadas;
+    }
+
+    private int exportarLote(List<Long> ids, Consumer<LicitacaoDTO> destino) {
+        List<Licitacao> licitacoes = carregarComItens(ids);
+        licitacoes.forEach(licitacao -> destino.accept(LicitacaoDTO.from(licitacao)));
+        entityManager.clear();
+        return licitacoes.size();
+    }
+
+    @Cacheable(cacheNames = LicitacaoCacheInvalidator.LICITACOES)
     public LicitacaoDTO findById(Long id) {
         Licitacao licitacao = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Licitação não encontrada"));
         return LicitacaoDTO.from(licitacao);
     }
 
-    private Pageable createPageable(int page, int size, String sort) {
-        Sort sorting = Sort.by(Sort.Direction.DESC, "criadoEm");
-        if (sort != null && !sort.isBlank()) {
-            String[] sortParams = sort.split(",");
-            if (sortParams.length == 2) {
-                Sort.Direction direction = Sort.Direction.fromString(sortParams[1]);
-                sorting = Sort.by(direction, sortParams[0]);
-            }
+    private static void validar(FiltroLicitacao filtro) {
+        if (filtro.dataAberturaDe() != null && filtro.dataAberturaAte() != null
+                && filtro.dataAberturaDe().isAfter(filtro.dataAberturaAte())) {
+            throw new BadRequestException("dataAberturaDe deve ser anterior ou igual a dataAberturaAte");
+        }
+        if (filtro.criadoEmDe() != null && filtro.criadoEmAte() != null
+                && !filtro.criadoEmDe().isBefore(filtro.criadoEmAte())) {
+            throw new BadRequestException("criadoEmDe deve ser anterior a criadoEmAte");
+        }
+    }
+
+    /**
+     * Carrega as licitações com os itens numa única consulta, na ordem dos ids informados.
+     */
+    private List<Licitacao> carregarComItens(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
-        return PageRequest.of(page, size, sorting);
+        Map<Long, Licitacao> porId = repository.findAllComItensByIdIn(ids).stream()
+                .collect(Collectors.toMap(Licitacao::getId, Function.identity()));
+        return ids.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Só aceita os campos de {@link OrdenacaoLicitacao}, sempre com desempate, para que a página
+     * saia de um índice e não de uma ordenação da tabela inteira.
+     */
+    private Pageable createPageable(int page, int size, String sort) {
+        return PageRequest.of(page, size, OrdenacaoLicitacao.de(sort));
     }
 }
\ No newline at end of file
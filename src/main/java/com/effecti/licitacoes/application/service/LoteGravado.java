@@ -0,0 +1,13 @@
+package com.effecti.licitacoes.application.service;
+
+import java.util.List;
+
+/**
+ * Publicado depois do commit de cada lote da captura que inseriu ou alterou licitações.
+ */
+public record LoteGravado(List<Long> ids) {
+
+    public LoteGravado {
+        ids = List.copyOf(ids);
+    }
+}
@@ -0,0 +1,93 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.domain.repository.EventoLicitacaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Instante da última alteração no conjunto de licitações, usado como validador HTTP das listagens.
+ * Vem do último evento de {@code eventos_licitacao}, carimbado na ordem de commit, e não do maior
+ * {@code atualizadoEm}: lotes concorrentes confirmam fora da ordem em que carimbaram as licitações,
+ * e o máximo não avançaria. É relido do banco periodicamente e logo depois de cada gravação desta
+ * instância; entre as releituras nenhuma consulta é feita. Quando a
+ * releitura mostra uma gravação de outra réplica, os caches de leitura desta são esvaziados, para que
+ * a marca nova não seja servida com o conteúdo antigo.
+ */
+@Component
+public class MarcaAtualizacaoLicitacoes {
+
+    static final Duration INTERVALO_RELEITURA = Duration.ofSeconds(30);
+
+    private final EventoLicitacaoRepository repository;
+    private final CacheManager cacheManager;
+    private final Clock clock;
+
+    private volatile Leitura leitura;
+
+    @Autowired
+    public MarcaAtualizacaoLicitacoes(EventoLicitacaoRepository repository, CacheManager cacheManager) {
+        this(repository, cacheManager, Clock.systemDefaultZone());
+    }
+
+    MarcaAtualizacaoLicitacoes(EventoLicitacaoRepository repository, CacheManager cacheManager, Clock clock) {
+        this.repository = repository;
+        this.cacheManager = cacheManager;
+        this.clock = clock;
+    }
+
+    public Instant atual() {
+        Leitura atual = leitura;
+        Instant agora = clock.instant();
+        if (atual == null || atual.lidaEm().plus(INTERVALO_RELEITURA).isBefore(agora)) {
+            LocalDateTime ultimoRegistro = repository.findUltimoRegistro();
+            Instant doBanco = ultimoRegistro == null
+                    ? Instant.EPOCH
+                    : ultimoRegistro.atZone(ZoneId.systemDefault()).toInstant();
+            Leitura anterior = atual;
+            atual = new Leitura(maisRecente(doBanco, anterior), agora);
+            leitura = atual;
+            if (anterior != null && atual.marca().isAfter(anterior.marca())) {
+                limparCaches();
+            }
+        }
+        return atual.marca();
+    }
+
+    /**
+     * Chamado depois do commit de cada gravação, para que a próxima requisição já releia a marca nova
+     * do banco em vez de esperar o intervalo de releitura.
+     */
+    public void registrarGravacao() {
+        Leitura atual = leitura;
+        if (atual != null) {
+            leitura = new Leitura(atual.marca(), Instant.MIN);
+        }
+    }
+
+    private void limparCaches() {
+        for (String nome : List.of(LicitacaoCacheInvalidator.LICITACOES, LicitacaoCacheInvalidator.PAGINAS_LICITACOES)) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private static Instant maisRecente(Instant marca, Leitura anterior) {
+        Instant truncada = marca.truncatedTo(ChronoUnit.MILLIS);
+        return anterior != null && anterior.marca().isAfter(truncada) ? anterior.marca() : truncada;
+    }
+
+    private record Leitura(Instant marca, Instant lidaEm) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Campos aceitos em {@code sort=campo,direção} na listagem. Cada um tem um índice que já entrega as
+ * linhas na ordem pedida, incluindo o desempate, então a página sai de uma leitura do índice em vez de
+ * uma ordenação da tabela inteira. O desempate torna a ordem estável entre páginas. Os {@link Sort}s
+ * das duas direções são montados uma vez.
+ */
+enum OrdenacaoLicitacao {
+
+    /** {@code idx_licitacao_criado_em_id}. */
+    CRIADO_EM("criadoEm", "id"),
+    /** {@code idx_licitacao_atualizado_em_id}. */
+    ATUALIZADO_EM("atualizadoEm", "id"),
+    /** {@code idx_licitacao_data_abertura_id}. */
+    DATA_ABERTURA("dataAbertura", "id"),
+    /** {@code uk_licitacao_uasg_pregao}; o par já é único. */
+    CODIGO_UASG("codigoUasg", "numeroPregao"),
+    /** {@code idx_pregao}. */
+    NUMERO_PREGAO("numeroPregao", "id"),
+    /** Chave primária. */
+    ID("id");
+
+    private static final Map<String, OrdenacaoLicitacao> POR_CAMPO = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(ordenacao -> ordenacao.campo, Function.identity()));
+
+    /** Ordem usada quando o cliente não informa {@code sort}: mais recentes primeiro. */
+    static final Sort PADRAO = CRIADO_EM.descendente;
+
+    private final String campo;
+    private final Sort ascendente;
+    private final Sort descendente;
+
+    OrdenacaoLicitacao(String... propriedades) {
+        this.campo = propriedades[0];
+        this.ascendente = Sort.by(Sort.Direction.ASC, propriedades);
+        this.descendente = Sort.by(Sort.Direction.DESC, propriedades);
+    }
+
+    /**
+     * Converte {@code campo} ou {@code campo,direção} na ordenação correspondente; sem direção, é ascendente.
+     *
+     * @throws BadRequestException se o campo não for ordenável ou a direção não for asc/desc
+     */
+    static Sort de(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return PADRAO;
+        }
+        String[] partes = sort.split(",");
+        if (partes.length > 2) {
+            throw new BadRequestException("Ordenação inválida: " + sort);
+        }
+        OrdenacaoLicitacao ordenacao = POR_CAMPO.get(partes[0].trim());
+        if (ordenacao == null) {
+            throw new BadRequestException("Campo de ordenação inválido: " + partes[0].trim()
+                    + ". Use um de " + String.join(", ", campos()));
+        }
+        if (partes.length == 1) {
+            return ordenacao.ascendente;
+        }
+        String direcao = partes[1].trim().toLowerCase(Locale.ROOT);
+        return switch (direcao) {
+            case "asc" -> ordenacao.ascendente;
+            case "desc" -> ordenacao.descendente;
+            default -> throw new BadRequestException("Direção de ordenação inválida: " + partes[1].trim());
+        };
+    }
+
+    static String[] campos() {
+        return Arrays.stream(values()).map(ordenacao -> ordenacao.campo).toArray(String[]::new);
+    }
+}
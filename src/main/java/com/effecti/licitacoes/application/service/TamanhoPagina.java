@@ -0,0 +1,22 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
+
+/**
+ * Tamanho de página das listagens por cursor. Valores menores que 1 são rejeitados; acima do máximo,
+ * a página é limitada a {@link #MAXIMO} registros.
+ */
+final class TamanhoPagina {
+
+    static final int MAXIMO = 100;
+
+    private TamanhoPagina() {
+    }
+
+    static int validar(int size) {
+        if (size < 1) {
+            throw new BadRequestException("size deve ser maior que zero");
+        }
+        return Math.min(size, MAXIMO);
+    }
+}
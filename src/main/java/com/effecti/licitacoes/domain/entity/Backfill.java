@@ -0,0 +1,78 @@
+package com.effecti.licitacoes.domain.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Captura retroativa de um período do ComprasNet, dividida em {@link UnidadeBackfill unidades}
+ * de um dia (e uma UASG, quando informadas). O progresso fica nas unidades.
+ */
+@Entity
+@Table(name = "backfills")
+public class Backfill {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "backfills_seq")
+    @SequenceGenerator(name = "backfills_seq", sequenceName = "backfills_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate dataInicio;
+
+    @Column(nullable = false)
+    private LocalDate dataFim;
+
+    /** Códigos UASG separados por vírgula; nulo quando o período é capturado para todas. */
+    @Column(length = 4000)
+    private String codigosUasg;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @Column
+    private LocalDateTime concluidoEm;
+
+    protected Backfill() {
+    }
+
+    public Backfill(LocalDate dataInicio, LocalDate dataFim, String codigosUasg) {
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.codigosUasg = codigosUasg;
+        this.criadoEm = LocalDateTime.now();
+    }
+
+    public void concluir() {
+        if (concluidoEm == null) {
+            concluidoEm = LocalDateTime.now();
+        }
+    }
+
+    public void reabrir() {
+        concluidoEm = null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public String getCodigosUasg() {
+        return codigosUasg;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public LocalDateTime getConcluidoEm() {
+        return concluidoEm;
+    }
+}
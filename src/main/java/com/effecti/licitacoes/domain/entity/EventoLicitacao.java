@@ -0,0 +1,67 @@
+package com.effecti.licitacoes.domain.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de uma licitação inserida ou alterada pela captura, na ordem em que as gravações foram
+ * confirmadas. A sequência é o id dos eventos do feed, que o cliente devolve em {@code Last-Event-ID}
+ * para retomar de onde parou. As linhas são escritas por {@code LicitacaoBatchWriter} na mesma
+ * transação do lote.
+ */
+@Entity
+@Table(name = "eventos_licitacao",
+        indexes = @Index(name = "idx_evento_licitacao_criado_em", columnList = "criadoEm"))
+public class EventoLicitacao {
+
+    public enum Tipo {
+        INSERIDA,
+        ALTERADA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "eventos_licitacao_seq")
+    @SequenceGenerator(name = "eventos_licitacao_seq", sequenceName = "eventos_licitacao_seq", allocationSize = 1)
+    private Long sequencia;
+
+    private Long licitacaoId;
+
+    @Enumerated(EnumType.STRING)
+    private Tipo tipo;
+
+    private LocalDateTime criadoEm;
+
+    protected EventoLicitacao() {
+    }
+
+    public EventoLicitacao(Long licitacaoId, Tipo tipo) {
+        this.licitacaoId = licitacaoId;
+        this.tipo = tipo;
+        this.criadoEm = LocalDateTime.now();
+    }
+
+    public Long getSequencia() {
+        return sequencia;
+    }
+
+    public Long getLicitacaoId() {
+        return licitacaoId;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+}
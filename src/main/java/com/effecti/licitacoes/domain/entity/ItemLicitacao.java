@@ -6,12 +6,21 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
+@Table(uniqueConstraints = {
+        // chave do upsert dos itens na captura; também serve à junção com as licitações filtradas, que o
+        // PostgreSQL não indexaria sozinho por ser chave estrangeira
+        @UniqueConstraint(name = "uk_item_licitacao_numero", columnNames = {"licitacao_id", "numeroItem"})
+})
 public class ItemLicitacao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_licitacao_seq")
+    @SequenceGenerator(name = "item_licitacao_seq", sequenceName = "item_licitacao_seq", allocationSize = 50)
     private Long id;
 
     private Integer numeroItem;
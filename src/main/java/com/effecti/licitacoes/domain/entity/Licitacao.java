@@ -2,20 +2,35 @@ package com.effecti.licitacoes.domain.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "licitacoes", indexes = {
-        @Index(name = "idx_uasg", columnList = "codigoUasg"),
-        @Index(name = "idx_pregao", columnList = "numeroPregao")
-})
+@Table(name = "licitacoes",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_licitacao_uasg_pregao", columnNames = {"codigoUasg", "numeroPregao"})
+        },
+        indexes = {
+                @Index(name = "idx_pregao", columnList = "numeroPregao, id"),
+                @Index(name = "idx_licitacao_criado_em_id", columnList = "criadoEm, id"),
+                @Index(name = "idx_licitacao_atualizado_em_id", columnList = "atualizadoEm, id"),
+                @Index(name = "idx_licitacao_data_abertura_id", columnList = "dataAbertura, id"),
+                // filtros combinados da listagem: igualdade na primeira coluna e intervalo na segunda
+                @Index(name = "idx_licitacao_uasg_data_abertura", columnList = "codigoUasg, dataAbertura"),
+                @Index(name = "idx_licitacao_modalidade_data_abertura", columnList = "modalidade, dataAbertura")
+        })
 public class Licitacao {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "licitacoes_seq")
+    @SequenceGenerator(name = "licitacoes_seq", sequenceName = "licitacoes_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -30,7 +45,7 @@ public class Licitacao {
     private String objeto;
 
     @Column
-    private String dataAbertura;
+    private LocalDate dataAbertura;
 
     @NotBlank
     @Column(nullable = false)
@@ -42,6 +57,10 @@ public class Licitacao {
     @OneToMany(mappedBy = "licitacao", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ItemLicitacao> itens = new ArrayList<>();
 
+    /** SHA-256 do conteúdo capturado; ver {@link #calcularHashConteudo()}. */
+    @Column(length = 64)
+    private String hashConteudo;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime criadoEm;
 
@@ -54,7 +73,7 @@ public class Licitacao {
     }
 
     public Licitacao(Integer codigoUasg, String numeroPregao, String objeto,
-                     String dataAbertura, String modalidade, String endereco) {
+                     LocalDate dataAbertura, String modalidade, String endereco) {
         this();
         this.codigoUasg = codigoUasg;
         this.numeroPregao = numeroPregao;
@@ -101,11 +120,11 @@ public class Licitacao {
         this.objeto = objeto;
     }
 
-    public String getDataAbertura() {
+    public LocalDate getDataAbertura() {
         return dataAbertura;
     }
 
-    public void setDataAbertura(String dataAbertura) {
+    public void setDataAbertura(LocalDate dataAbertura) {
         this.dataAbertura = dataAbertura;
     }
 
@@ -146,6 +165,41 @@ public class Licitacao {
         }
     }
 
+    public String getHashConteudo() {
+        return hashConteudo;
+    }
+
+    public void setHashConteudo(String hashConteudo) {
+        this.hashConteudo = hashConteudo;
+    }
+
+    /**
+     * Hash do cabeçalho e dos itens, na ordem em que aparecem no ComprasNet. Duas capturas com o
+     * mesmo hash trouxeram o mesmo conteúdo, então a gravação pode decidir se atualiza a linha
+     * comparando só esse valor, sem carregar a licitação.
+     */
+    public String calcularHashConteudo() {
+        StringBuilder conteudo = new StringBuilder();
+        campos(conteudo, codigoUasg, numeroPregao, objeto, dataAbertura, modalidade, endereco);
+        for (ItemLicitacao item : itens) {
+            campos(conteudo, item.getNumeroItem(), item.getDescricao(), item.getQuantidade(), item.getUnidadeFornecimento());
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(conteudo.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static void campos(StringBuilder conteudo, Object... valores) {
+        // separadores de controle: "a" + "bc" e "ab" + "c" geram hashes diferentes, e nulo difere de vazio
+        for (Object valor : valores) {
+            conteudo.append(valor == null ? "\u0000" : valor.toString()).append('\u001f');
+        }
+        conteudo.append('\u001e');
+    }
+
     public LocalDateTime getCriadoEm() {
         return criadoEm;
     }
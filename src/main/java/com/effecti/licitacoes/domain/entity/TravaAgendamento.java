@@ -0,0 +1,45 @@
+package com.effecti.licitacoes.domain.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Trava de uma tarefa agendada, compartilhada pelas réplicas da aplicação. Quem grava a linha com
+ * {@code expiraEm} no futuro é o dono da tarefa até esse instante; a linha nunca é apagada, só
+ * tomada de novo depois que expira.
+ */
+@Entity
+@Table(name = "travas_agendamento")
+public class TravaAgendamento {
+    @Id
+    @Column(length = 100)
+    private String nome;
+
+    @Column(nullable = false)
+    private String dono;
+
+    @Column(nullable = false)
+    private LocalDateTime adquiridaEm;
+
+    @Column(nullable = false)
+    private LocalDateTime expiraEm;
+
+    protected TravaAgendamento() {
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getDono() {
+        return dono;
+    }
+
+    public LocalDateTime getAdquiridaEm() {
+        return adquiridaEm;
+    }
+
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+}
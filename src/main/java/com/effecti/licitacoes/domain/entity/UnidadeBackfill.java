@@ -0,0 +1,139 @@
+package com.effecti.licitacoes.domain.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Unidade de trabalho de um backfill: as páginas da consulta de um dia, para uma UASG ou para todas.
+ * {@code proximaPagina} é o checkpoint gravado a cada página processada, de onde a unidade continua
+ * se for interrompida.
+ */
+@Entity
+@Table(name = "unidades_backfill",
+        indexes = {
+                @Index(name = "idx_unidade_backfill_status", columnList = "backfill_id, status")
+        })
+public class UnidadeBackfill {
+
+    public enum Status {
+        PENDENTE, EM_ANDAMENTO, CONCLUIDA, FALHA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "unidades_backfill_seq")
+    @SequenceGenerator(name = "unidades_backfill_seq", sequenceName = "unidades_backfill_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "backfill_id")
+    private Backfill backfill;
+
+    @Column(nullable = false)
+    private LocalDate data;
+
+    @Column
+    private Integer codigoUasg;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDENTE;
+
+    @Column(nullable = false)
+    private int proximaPagina = 1;
+
+    @Column(nullable = false)
+    private int paginas;
+
+    @Column(nullable = false)
+    private int licitacoesGravadas;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(length = 1000)
+    private String erro;
+
+    @Column(nullable = false)
+    private LocalDateTime atualizadoEm;
+
+    protected UnidadeBackfill() {
+    }
+
+    public UnidadeBackfill(Backfill backfill, LocalDate data, Integer codigoUasg) {
+        this.backfill = backfill;
+        this.data = data;
+        this.codigoUasg = codigoUasg;
+        this.atualizadoEm = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.atualizadoEm = LocalDateTime.now();
+    }
+
+    /**
+     * Registra uma página processada e avança o checkpoint.
+     */
+    public void registrarPagina(int paginasBuscadas, int gravadas) {
+        this.paginas += paginasBuscadas;
+        this.licitacoesGravadas += gravadas;
+        this.proximaPagina++;
+    }
+
+    public void concluir() {
+        this.status = Status.CONCLUIDA;
+        this.erro = null;
+    }
+
+    /**
+     * Marca a falha e volta o checkpoint para {@code pagina}. Com tentativas restantes a unidade
+     * volta para a fila; senão fica em {@link Status#FALHA} até ser retomada.
+     */
+    public void falhar(int pagina, String erro, int maxTentativas) {
+        this.tentativas++;
+        this.proximaPagina = Math.min(proximaPagina, pagina);
+        this.erro = erro != null && erro.length() > 1000 ? erro.substring(0, 1000) : erro;
+        this.status = tentativas < maxTentativas ? Status.PENDENTE : Status.FALHA;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Backfill getBackfill() {
+        return backfill;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public Integer getCodigoUasg() {
+        return codigoUasg;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getProximaPagina() {
+        return proximaPagina;
+    }
+
+    public int getPaginas() {
+        return paginas;
+    }
+
+    public int getLicitacoesGravadas() {
+        return licitacoesGravadas;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+}
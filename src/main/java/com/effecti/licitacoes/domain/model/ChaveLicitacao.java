@@ -0,0 +1,10 @@
+package com.effecti.licitacoes.domain.model;
+
+/**
+ * Chave natural de uma licitação no ComprasNet: código da UASG + número do pregão.
+ */
+public record ChaveLicitacao(
+        Integer codigoUasg,
+        String numeroPregao
+) {
+}
@@ -0,0 +1,28 @@
+package com.effecti.licitacoes.domain.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Filtros opcionais da busca de itens; campos nulos ou vazios não filtram. O termo é procurado na
+ * descrição do item com a mesma sintaxe da busca textual de licitações; os demais filtros são da
+ * licitação a que o item pertence, e o intervalo de data de abertura inclui as duas pontas.
+ */
+public record FiltroItem(
+        String termo,
+        List<String> unidadesFornecimento,
+        List<Integer> codigosUasg,
+        String modalidade,
+        LocalDate dataAberturaDe,
+        LocalDate dataAberturaAte
+) {
+
+    public FiltroItem {
+        unidadesFornecimento = unidadesFornecimento == null ? List.of() : List.copyOf(unidadesFornecimento);
+        codigosUasg = codigosUasg == null ? List.of() : List.copyOf(codigosUasg);
+    }
+
+    public static FiltroItem vazio() {
+        return new FiltroItem(null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.effecti.licitacoes.domain.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filtros opcionais da listagem de licitações; campos nulos ou vazios não filtram. O intervalo de
+ * data de abertura inclui as duas pontas; a janela de {@code criadoEm} inclui o início e exclui o fim.
+ */
+public record FiltroLicitacao(
+        List<Integer> codigosUasg,
+        String numeroPregao,
+        String modalidade,
+        LocalDate dataAberturaDe,
+        LocalDate dataAberturaAte,
+        LocalDateTime criadoEmDe,
+        LocalDateTime criadoEmAte
+) {
+
+    public FiltroLicitacao {
+        // cópia imutável: o filtro também é chave do cache de páginas
+        codigosUasg = codigosUasg == null ? List.of() : List.copyOf(codigosUasg);
+    }
+
+    public static FiltroLicitacao vazio() {
+        return new FiltroLicitacao(null, null, null, null, null, null, null);
+    }
+}
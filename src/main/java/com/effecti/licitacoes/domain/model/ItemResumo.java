@@ -0,0 +1,21 @@
+package com.effecti.licitacoes.domain.model;
+
+import java.time.LocalDate;
+
+/**
+ * Colunas do item com a identificação da licitação a que pertence. Preenchido direto da consulta,
+ * sem carregar a licitação nem os demais itens.
+ */
+public record ItemResumo(
+        Long id,
+        Integer numeroItem,
+        String descricao,
+        Integer quantidade,
+        String unidadeFornecimento,
+        Long licitacaoId,
+        Integer codigoUasg,
+        String numeroPregao,
+        String modalidade,
+        LocalDate dataAbertura
+) {
+}
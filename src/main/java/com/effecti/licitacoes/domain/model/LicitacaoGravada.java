@@ -0,0 +1,23 @@
+package com.effecti.licitacoes.domain.model;
+
+import com.effecti.licitacoes.domain.entity.EventoLicitacao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Evento do feed com as colunas atuais da licitação, sem os itens. Preenchido por projeção direto
+ * da consulta.
+ */
+public record LicitacaoGravada(
+        Long sequencia,
+        EventoLicitacao.Tipo tipo,
+        Long id,
+        Integer codigoUasg,
+        String numeroPregao,
+        String objeto,
+        LocalDate dataAbertura,
+        String modalidade,
+        LocalDateTime atualizadoEm
+) {
+}
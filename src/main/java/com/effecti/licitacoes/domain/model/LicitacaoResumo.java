@@ -0,0 +1,20 @@
+package com.effecti.licitacoes.domain.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Colunas da própria licitação, sem os itens. Preenchido por projeção direto da consulta.
+ */
+public record LicitacaoResumo(
+        Long id,
+        Integer codigoUasg,
+        String numeroPregao,
+        String objeto,
+        LocalDate dataAbertura,
+        String modalidade,
+        String endereco,
+        LocalDateTime criadoEm,
+        LocalDateTime atualizadoEm
+) {
+}
@@ -0,0 +1,14 @@
+package com.effecti.licitacoes.domain.model;
+
+import com.effecti.licitacoes.domain.entity.UnidadeBackfill;
+
+/**
+ * Totais das unidades de um backfill em um mesmo status.
+ */
+public record ProgressoBackfill(
+        UnidadeBackfill.Status status,
+        long unidades,
+        long paginas,
+        long licitacoesGravadas
+) {
+}
@@ -0,0 +1,12 @@
+package com.effecti.licitacoes.domain.model;
+
+/**
+ * Totais dos itens de uma unidade de fornecimento, agregados no banco.
+ */
+public record TotalPorUnidade(
+        String unidadeFornecimento,
+        long itens,
+        long licitacoes,
+        long quantidadeTotal
+) {
+}
@@ -0,0 +1,9 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.Backfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BackfillRepository extends JpaRepository<Backfill, Long> {
+}
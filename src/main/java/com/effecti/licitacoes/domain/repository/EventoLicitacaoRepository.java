@@ -0,0 +1,50 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.EventoLicitacao;
+import com.effecti.licitacoes.domain.model.LicitacaoGravada;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventoLicitacaoRepository extends JpaRepository<EventoLicitacao, Long> {
+
+    @Query("SELECT MAX(e.sequencia) FROM EventoLicitacao e")
+    Long findUltimaSequencia();
+
+    @Query("SELECT MIN(e.sequencia) FROM EventoLicitacao e")
+    Long findPrimeiraSequencia();
+
+    /**
+     * Horário do último evento pela sequência, que segue a ordem de commit. Nulo sem eventos.
+     */
+    @Query("SELECT e.criadoEm FROM EventoLicitacao e ORDER BY e.sequencia DESC LIMIT 1")
+    LocalDateTime findUltimoRegistro();
+
+    /**
+     * Eventos com sequência em {@code (depoisDe, ate]}, em ordem de sequência, pela chave primária.
+     */
+    @Query("SELECT new com.effecti.licitacoes.domain.model.LicitacaoGravada(e.sequencia, e.tipo, l.id, " +
+            "l.codigoUasg, l.numeroPregao, l.objeto, l.dataAbertura, l.modalidade, l.atualizadoEm) " +
+            "FROM EventoLicitacao e JOIN Licitacao l ON l.id = e.licitacaoId " +
+            "WHERE e.sequencia > :depoisDe AND e.sequencia <= :ate ORDER BY e.sequencia")
+    List<LicitacaoGravada> findGravadasEntre(@Param("depoisDe") long depoisDe, @Param("ate") long ate,
+                                             Pageable pageable);
+
+    /**
+     * Apaga os eventos registrados antes de {@code limite}, menos o último, que guarda a sequência e a
+     * marca de atualização mesmo depois de um longo período sem gravações.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EventoLicitacao e WHERE e.criadoEm < :limite " +
+            "AND e.sequencia < (SELECT MAX(u.sequencia) FROM EventoLicitacao u)")
+    int apagarRegistradosAntesDe(@Param("limite") LocalDateTime limite);
+}
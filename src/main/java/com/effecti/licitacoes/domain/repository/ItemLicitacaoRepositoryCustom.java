@@ -0,0 +1,27 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.model.FiltroItem;
+import com.effecti.licitacoes.domain.model.ItemResumo;
+import com.effecti.licitacoes.domain.model.TotalPorUnidade;
+
+import java.util.List;
+
+/**
+ * Consultas de itens com a licitação juntada pelo {@code licitacao_id}, com apenas os filtros
+ * informados. O termo usa o índice GIN da descrição e só está disponível no PostgreSQL.
+ */
+public interface ItemLicitacaoRepositoryCustom {
+
+    /**
+     * Itens em ordem crescente de id, a partir do primeiro id maior que {@code depoisDe} (do início,
+     * se nulo), então o custo não depende de quantas páginas já foram lidas. Sem contagem: o chamador
+     * pede um registro a mais para saber se há próxima página.
+     */
+    List<ItemResumo> findResumos(FiltroItem filtro, Long depoisDe, int limite);
+
+    /**
+     * Quantidade de itens, de licitações e soma das quantidades por unidade de fornecimento, da maior
+     * quantidade total para a menor.
+     */
+    List<TotalPorUnidade> totalizarPorUnidade(FiltroItem filtro);
+}
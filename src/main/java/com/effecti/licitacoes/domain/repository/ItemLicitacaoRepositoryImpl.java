@@ -0,0 +1,105 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.model.FiltroItem;
+import com.effecti.licitacoes.domain.model.ItemResumo;
+import com.effecti.licitacoes.domain.model.TotalPorUnidade;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL nativo porque o termo é comparado com a coluna {@code busca}, que o Hibernate não mapeia.
+ * O WHERE é montado só com os filtros informados, como em {@link LicitacaoSpecifications}.
+ */
+class ItemLicitacaoRepositoryImpl implements ItemLicitacaoRepositoryCustom {
+
+    private static final String ORIGEM = " FROM item_licitacao i JOIN licitacoes l ON l.id = i.licitacao_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    ItemLicitacaoRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ItemResumo> findResumos(FiltroItem filtro, Long depoisDe, int limite) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource("limite", limite);
+        List<String> restricoes = filtros(filtro, parametros);
+        if (depoisDe != null) {
+            restricoes.add("i.id > :depoisDe");
+            parametros.addValue("depoisDe", depoisDe);
+        }
+        String sql = "SELECT i.id, i.numero_item, i.descricao, i.quantidade, i.unidade_fornecimento, "
+                + "l.id AS licitacao_id, l.codigo_uasg, l.numero_pregao, l.modalidade, l.data_abertura"
+                + ORIGEM + where(restricoes)
+                + " ORDER BY i.id LIMIT :limite";
+
+        return jdbcTemplate.query(sql, parametros, (rs, linha) -> new ItemResumo(
+                rs.getLong("id"),
+                rs.getObject("numero_item", Integer.class),
+                rs.getString("descricao"),
+                rs.getObject("quantidade", Integer.class),
+                rs.getString("unidade_fornecimento"),
+                rs.getLong("licitacao_id"),
+                rs.getObject("codigo_uasg", Integer.class),
+                rs.getString("numero_pregao"),
+                rs.getString("modalidade"),
+                rs.getObject("data_abertura", LocalDate.class)));
+    }
+
+    @Override
+    public List<TotalPorUnidade> totalizarPorUnidade(FiltroItem filtro) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource();
+        String sql = "SELECT i.unidade_fornecimento, count(*) AS itens, count(DISTINCT i.licitacao_id) AS licitacoes, "
+                + "coalesce(sum(i.quantidade), 0) AS quantidade_total"
+                + ORIGEM + where(filtros(filtro, parametros))
+                + " GROUP BY i.unidade_fornecimento"
+                + " ORDER BY quantidade_total DESC, i.unidade_fornecimento";
+
+        return jdbcTemplate.query(sql, parametros, (rs, linha) -> new TotalPorUnidade(
+                rs.getString("unidade_fornecimento"),
+                rs.getLong("itens"),
+                rs.getLong("licitacoes"),
+                rs.getLong("quantidade_total")));
+    }
+
+    /**
+     * Restrições dos filtros informados, registrando os valores em {@code parametros}; vazia quando
+     * nenhum foi informado.
+     */
+    private static List<String> filtros(FiltroItem filtro, MapSqlParameterSource parametros) {
+        List<String> restricoes = new ArrayList<>();
+        if (filtro.termo() != null && !filtro.termo().isBlank()) {
+            restricoes.add("i.busca @@ websearch_to_tsquery('portuguese', f_unaccent(:termo))");
+            parametros.addValue("termo", filtro.termo().trim());
+        }
+        if (!filtro.unidadesFornecimento().isEmpty()) {
+            restricoes.add("i.unidade_fornecimento IN (:unidades)");
+            parametros.addValue("unidades", filtro.unidadesFornecimento());
+        }
+        if (!filtro.codigosUasg().isEmpty()) {
+            restricoes.add("l.codigo_uasg IN (:codigosUasg)");
+            parametros.addValue("codigosUasg", filtro.codigosUasg());
+        }
+        if (filtro.modalidade() != null && !filtro.modalidade().isBlank()) {
+            restricoes.add("l.modalidade = :modalidade");
+            parametros.addValue("modalidade", filtro.modalidade());
+        }
+        if (filtro.dataAberturaDe() != null) {
+            restricoes.add("l.data_abertura >= :dataAberturaDe");
+            parametros.addValue("dataAberturaDe", filtro.dataAberturaDe());
+        }
+        if (filtro.dataAberturaAte() != null) {
+            restricoes.add("l.data_abertura <= :dataAberturaAte");
+            parametros.addValue("dataAberturaAte", filtro.dataAberturaAte());
+        }
+        return restricoes;
+    }
+
+    private static String where(List<String> restricoes) {
+        return restricoes.isEmpty() ? "" : " WHERE " + String.join(" AND ", restricoes);
+    }
+}
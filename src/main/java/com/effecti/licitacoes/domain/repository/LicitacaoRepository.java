@@ -4,19 +4,61 @@ import com.effecti.licitacoes.domain.entity.Licitacao;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface LicitacaoRepository extends JpaRepository<Licitacao, Long> {
+public interface LicitacaoRepository extends JpaRepository<Licitacao, Long>, LicitacaoRepositoryCustom {
+
+    /**
+     * Busca textual (PostgreSQL) no objeto das licitações e na descrição dos itens, ordenada pela soma
+     * da relevância de cada ocorrência. Os dois ramos usam os índices GIN criados por
+     * {@code db/busca-textual-postgresql.sql}; o termo aceita a sintaxe de {@code websearch_to_tsquery}.
+     */
+    @Query(value = "WITH consulta AS (SELECT websearch_to_tsquery('portuguese', f_unaccent(:termo)) AS q), " +
+            "ocorrencias AS (" +
+            "  SELECT l.id, ts_rank(l.busca, consulta.q) AS relevancia FROM licitacoes l, consulta WHERE l.busca @@ consulta.q " +
+            "  UNION ALL " +
+            "  SELECT i.licitacao_id, ts_rank(i.busca, consulta.q) FROM item_licitacao i, consulta WHERE i.busca @@ consulta.q" +
+            ") " +
+            "SELECT id FROM ocorrencias GROUP BY id ORDER BY sum(relevancia) DESC, id DESC",
+            countQuery = "WITH consulta AS (SELECT websearch_to_tsquery('portuguese', f_unaccent(:termo)) AS q) " +
+                    "SELECT count(*) FROM (" +
+                    "  SELECT l.id FROM licitacoes l, consulta WHERE l.busca @@ consulta.q " +
+                    "  UNION " +
+                    "  SELECT i.licitacao_id FROM item_licitacao i, consulta WHERE i.busca @@ consulta.q" +
+                    ") ids",
+            nativeQuery = true)
+    Page<Long> buscarIdsPorTexto(@Param("termo") String termo, Pageable pageable);
+
+    /**
+     * Segunda fase da listagem: carrega as licitações da página com os itens numa única consulta.
+     * A ordem do resultado não é garantida; o chamador reordena pelos ids da primeira fase.
+     */
+    @Query("SELECT DISTINCT l FROM Licitacao l LEFT JOIN FETCH l.itens WHERE l.id IN :ids")
+    List<Licitacao> findAllComItensByIdIn(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT l FROM Licitacao l WHERE " +
-            "(:codigoUasg IS NULL OR l.codigoUasg = :codigoUasg) AND " +
-            "(:numeroPregao IS NULL OR l.numeroPregao = :numeroPregao)")
-    Page<Licitacao> findByFilters(@Param("codigoUasg") Integer codigoUasg,
-                                  @Param("numeroPregao") String numeroPregao,
-                                  Pageable pageable);
+    /**
+     * Ids para exportação em ordem crescente, lidos por um cursor do banco em blocos do fetch size.
+     * O stream precisa ser consumido e fechado dentro de uma transação.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT l.id FROM Licitacao l ORDER BY l.id")
+    Stream<Long> streamIds();
 
-    boolean existsByCodigoUasgAndNumeroPregao(Integer codigoUasg, String numeroPregao);
-}
\ No newline at end of file
+    /**
+     * Como {@link #streamIds()}, só com as licitações atualizadas a partir de {@code desde}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT l.id FROM Licitacao l WHERE l.atualizadoEm >= :desde ORDER BY l.id")
+    Stream<Long> streamIdsAtualizadosDesde(@Param("desde") LocalDateTime desde);
+}
@@ -0,0 +1,43 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import com.effecti.licitacoes.domain.model.LicitacaoResumo;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas da listagem montadas a partir de {@link LicitacaoSpecifications}, com apenas os filtros
+ * informados.
+ */
+public interface LicitacaoRepositoryCustom {
+
+    /**
+     * Primeira fase da listagem: pagina só os ids, sem carregar entidades nem itens.
+     */
+    Page<Long> findIdsByFilters(FiltroLicitacao filtro, Pageable pageable);
+
+    /**
+     * Listagem sem itens: projeta só as colunas da licitação, sem instanciar entidades.
+     */
+    Page<LicitacaoResumo> findResumosByFilters(FiltroLicitacao filtro, Pageable pageable);
+
+    /**
+     * Listagem que seleciona apenas os atributos informados da licitação, cada linha como um mapa
+     * atributo → valor na ordem pedida. Os atributos precisam ser colunas da própria licitação.
+     */
+    Page<Map<String, Object>> findCamposByFilters(FiltroLicitacao filtro, Collection<String> atributos,
+                                                  Pageable pageable);
+
+    /**
+     * Paginação por cursor, das mais recentes para as mais antigas por (criadoEm, id). Sem posição,
+     * começa do início; com posição, continua a partir do par (criadoEm, id) do último registro
+     * entregue, então o custo não depende de quantas páginas já foram lidas. Sem contagem: o chamador
+     * pede um registro a mais para saber se há próxima página.
+     */
+    List<Long> findIdsMaisRecentes(FiltroLicitacao filtro, LocalDateTime criadoEm, Long id, int limite);
+}
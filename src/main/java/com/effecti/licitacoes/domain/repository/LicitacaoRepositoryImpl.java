@@ -0,0 +1,126 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import com.effecti.licitacoes.domain.model.LicitacaoResumo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class LicitacaoRepositoryImpl implements LicitacaoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> findIdsByFilters(FiltroLicitacao filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Licitacao> licitacao = query.from(Licitacao.class);
+        query.select(licitacao.get("id"))
+                .where(filtros(licitacao, query, cb, filtro))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), licitacao, cb));
+
+        List<Long> ids = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(ids, pageable, () -> contar(filtro));
+    }
+
+    @Override
+    public Page<LicitacaoResumo> findResumosByFilters(FiltroLicitacao filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LicitacaoResumo> query = cb.createQuery(LicitacaoResumo.class);
+        Root<Licitacao> licitacao = query.from(Licitacao.class);
+        query.select(cb.construct(LicitacaoResumo.class,
+                        licitacao.get("id"), licitacao.get("codigoUasg"), licitacao.get("numeroPregao"),
+                        licitacao.get("objeto"), licitacao.get("dataAbertura"), licitacao.get("modalidade"),
+                        licitacao.get("endereco"), licitacao.get("criadoEm"), licitacao.get("atualizadoEm")))
+                .where(filtros(licitacao, query, cb, filtro))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), licitacao, cb));
+
+        List<LicitacaoResumo> resumos = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(resumos, pageable, () -> contar(filtro));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findCamposByFilters(FiltroLicitacao filtro, Collection<String> atributos,
+                                                         Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Licitacao> licitacao = query.from(Licitacao.class);
+
+        List<Selection<?>> selecao = atributos.stream()
+                .<Selection<?>>map(atributo -> licitacao.get(atributo).alias(atributo))
+                .toList();
+        query.multiselect(selecao)
+                .where(filtros(licitacao, query, cb, filtro))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), licitacao, cb));
+
+        List<Map<String, Object>> linhas = new ArrayList<>();
+        for (Tuple tupla : entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList()) {
+            Map<String, Object> linha = new LinkedHashMap<>();
+            atributos.forEach(atributo -> linha.put(atributo, tupla.get(atributo)));
+            linhas.add(linha);
+        }
+        return PageableExecutionUtils.getPage(linhas, pageable, () -> contar(filtro));
+    }
+
+    @Override
+    public List<Long> findIdsMaisRecentes(FiltroLicitacao filtro, LocalDateTime criadoEm, Long id, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Licitacao> licitacao = query.from(Licitacao.class);
+
+        List<Predicate> restricoes = new ArrayList<>(List.of(filtros(licitacao, query, cb, filtro)));
+        if (criadoEm != null) {
+            restricoes.add(cb.or(
+                    cb.lessThan(licitacao.get("criadoEm"), criadoEm),
+                    cb.and(cb.equal(licitacao.get("criadoEm"), criadoEm), cb.lessThan(licitacao.get("id"), id))));
+        }
+        query.select(licitacao.get("id"))
+                .where(restricoes.toArray(Predicate[]::new))
+                .orderBy(cb.desc(licitacao.get("criadoEm")), cb.desc(licitacao.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limite).getResultList();
+    }
+
+    private long contar(FiltroLicitacao filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Licitacao> licitacao = query.from(Licitacao.class);
+        query.select(cb.count(licitacao)).where(filtros(licitacao, query, cb, filtro));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Predicados dos filtros informados; vazio quando nenhum foi informado.
+     */
+    private static Predicate[] filtros(Root<Licitacao> licitacao, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                       FiltroLicitacao filtro) {
+        Predicate predicado = LicitacaoSpecifications.porFiltro(filtro).toPredicate(licitacao, query, cb);
+        return predicado == null ? new Predicate[0] : new Predicate[]{predicado};
+    }
+}
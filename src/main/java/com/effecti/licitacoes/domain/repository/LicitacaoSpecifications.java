@@ -0,0 +1,79 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Filtros da listagem como {@link Specification}s. Só os filtros informados viram predicados, então a
+ * consulta não carrega condições do tipo {@code :param IS NULL OR ...}, que impedem o PostgreSQL de usar
+ * os índices num plano genérico. Cada combinação comum tem um índice em {@link Licitacao}.
+ */
+public final class LicitacaoSpecifications {
+
+    private LicitacaoSpecifications() {
+    }
+
+    public static Specification<Licitacao> porFiltro(FiltroLicitacao filtro) {
+        List<Specification<Licitacao>> specs = new ArrayList<>();
+        if (!filtro.codigosUasg().isEmpty()) {
+            specs.add(codigoUasgEm(filtro.codigosUasg()));
+        }
+        if (filtro.numeroPregao() != null) {
+            specs.add(igual("numeroPregao", filtro.numeroPregao()));
+        }
+        if (filtro.modalidade() != null) {
+            specs.add(igual("modalidade", filtro.modalidade()));
+        }
+        if (filtro.dataAberturaDe() != null || filtro.dataAberturaAte() != null) {
+            specs.add(dataAberturaEntre(filtro.dataAberturaDe(), filtro.dataAberturaAte()));
+        }
+        if (filtro.criadoEmDe() != null || filtro.criadoEmAte() != null) {
+            specs.add(criadoEntre(filtro.criadoEmDe(), filtro.criadoEmAte()));
+        }
+        return Specification.allOf(specs);
+    }
+
+    static Specification<Licitacao> codigoUasgEm(Collection<Integer> codigosUasg) {
+        // uma UASG só vira igualdade, que casa com o prefixo do índice único (codigoUasg, numeroPregao)
+        if (codigosUasg.size() == 1) {
+            return igual("codigoUasg", codigosUasg.iterator().next());
+        }
+        return (licitacao, query, cb) -> licitacao.get("codigoUasg").in(codigosUasg);
+    }
+
+    static Specification<Licitacao> dataAberturaEntre(LocalDate de, LocalDate ate) {
+        return (licitacao, query, cb) -> {
+            if (de == null) {
+                return cb.lessThanOrEqualTo(licitacao.get("dataAbertura"), ate);
+            }
+            if (ate == null) {
+                return cb.greaterThanOrEqualTo(licitacao.get("dataAbertura"), de);
+            }
+            return cb.between(licitacao.get("dataAbertura"), de, ate);
+        };
+    }
+
+    static Specification<Licitacao> criadoEntre(LocalDateTime de, LocalDateTime ate) {
+        return (licitacao, query, cb) -> {
+            if (de == null) {
+                return cb.lessThan(licitacao.get("criadoEm"), ate);
+            }
+            if (ate == null) {
+                return cb.greaterThanOrEqualTo(licitacao.get("criadoEm"), de);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(licitacao.get("criadoEm"), de),
+                    cb.lessThan(licitacao.get("criadoEm"), ate));
+        };
+    }
+
+    private static Specification<Licitacao> igual(String atributo, Object valor) {
+        return (licitacao, query, cb) -> cb.equal(licitacao.get(atributo), valor);
+    }
+}
@@ -0,0 +1,65 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.TravaAgendamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TravaAgendamentoRepository extends JpaRepository<TravaAgendamento, String> {
+
+    /**
+     * Toma a trava se ela já expirou. Retorna 0 quando outra réplica ainda é a dona.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE TravaAgendamento t SET t.dono = :dono, t.adquiridaEm = :agora, t.expiraEm = :expiraEm " +
+            "WHERE t.nome = :nome AND t.expiraEm <= :agora")
+    int tomarSeExpirada(@Param("nome") String nome,
+                        @Param("dono") String dono,
+                        @Param("agora") LocalDateTime agora,
+                        @Param("expiraEm") LocalDateTime expiraEm);
+
+    /**
+     * Cria a trava na primeira execução da tarefa. Retorna 0, sem erro, quando a linha já existe ou
+     * outra réplica acabou de criá-la.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO travas_agendamento (nome, dono, adquirida_em, expira_em) " +
+            "VALUES (:nome, :dono, :agora, :expiraEm) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int criar(@Param("nome") String nome,
+              @Param("dono") String dono,
+              @Param("agora") LocalDateTime agora,
+              @Param("expiraEm") LocalDateTime expiraEm);
+
+    /**
+     * Estende a trava enquanto a tarefa roda, se ela ainda pertencer a quem a adquiriu. Retorna 0
+     * quando a trava venceu e outra réplica a tomou.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE TravaAgendamento t SET t.expiraEm = :expiraEm " +
+            "WHERE t.nome = :nome AND t.dono = :dono AND t.adquiridaEm = :adquiridaEm")
+    int renovar(@Param("nome") String nome,
+                @Param("dono") String dono,
+                @Param("adquiridaEm") LocalDateTime adquiridaEm,
+                @Param("expiraEm") LocalDateTime expiraEm);
+
+    /**
+     * Antecipa a expiração da trava ao fim da tarefa, se ela ainda pertencer a quem a adquiriu.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE TravaAgendamento t SET t.expiraEm = :expiraEm " +
+            "WHERE t.nome = :nome AND t.dono = :dono AND t.adquiridaEm = :adquiridaEm")
+    int liberar(@Param("nome") String nome,
+                @Param("dono") String dono,
+                @Param("adquiridaEm") LocalDateTime adquiridaEm,
+                @Param("expiraEm") LocalDateTime expiraEm);
+}
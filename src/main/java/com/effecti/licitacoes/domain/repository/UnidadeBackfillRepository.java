@@ -0,0 +1,64 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.UnidadeBackfill;
+import com.effecti.licitacoes.domain.model.ProgressoBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UnidadeBackfillRepository extends JpaRepository<UnidadeBackfill, Long> {
+
+    @Query("SELECT u.id FROM UnidadeBackfill u WHERE u.backfill.id = :backfillId AND u.status = :status " +
+            "ORDER BY u.data, u.codigoUasg")
+    List<Long> findIdsByBackfillIdAndStatus(@Param("backfillId") Long backfillId,
+                                            @Param("status") UnidadeBackfill.Status status);
+
+    @Query("SELECT DISTINCT u.backfill.id FROM UnidadeBackfill u WHERE u.status = :status")
+    List<Long> findBackfillIdsByStatus(@Param("status") UnidadeBackfill.Status status);
+
+    long countByBackfillIdAndStatusIn(Long backfillId, Collection<UnidadeBackfill.Status> status);
+
+    @Query("SELECT new com.effecti.licitacoes.domain.model.ProgressoBackfill(" +
+            "u.status, COUNT(u), COALESCE(SUM(u.paginas), 0), COALESCE(SUM(u.licitacoesGravadas), 0)) " +
+            "FROM UnidadeBackfill u WHERE u.backfill.id = :backfillId GROUP BY u.status")
+    List<ProgressoBackfill> findProgresso(@Param("backfillId") Long backfillId);
+
+    /**
+     * Passa a unidade de {@code de} para {@code para} só se ela ainda estiver em {@code de}.
+     * Retorna 0 quando outra thread, desta ou de outra réplica, já a reservou.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UnidadeBackfill u SET u.status = :para, u.atualizadoEm = :agora WHERE u.id = :id AND u.status = :de")
+    int trocarStatus(@Param("id") Long id,
+                     @Param("de") UnidadeBackfill.Status de,
+                     @Param("para") UnidadeBackfill.Status para,
+                     @Param("agora") LocalDateTime agora);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UnidadeBackfill u SET u.status = :para, u.tentativas = 0 " +
+            "WHERE u.backfill.id = :backfillId AND u.status = :de")
+    int trocarStatusDoBackfill(@Param("backfillId") Long backfillId,
+                               @Param("de") UnidadeBackfill.Status de,
+                               @Param("para") UnidadeBackfill.Status para);
+
+    /**
+     * Troca o status das unidades em {@code de} que não gravam checkpoint desde {@code limite}, ou
+     * seja, cuja réplica parou no meio do processamento.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UnidadeBackfill u SET u.status = :para WHERE u.status = :de AND u.atualizadoEm < :limite")
+    int trocarStatusSemProgressoDesde(@Param("de") UnidadeBackfill.Status de,
+                                      @Param("para") UnidadeBackfill.Status para,
+                                      @Param("limite") LocalDateTime limite);
+}
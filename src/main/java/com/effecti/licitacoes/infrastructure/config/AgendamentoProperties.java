@@ -0,0 +1,29 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Travas das tarefas agendadas. {@code travaMaxima} é o tempo que a réplica que morreu no meio da
+ * captura segura a tarefa antes de outra assumir; enquanto a réplica está viva, o prazo é renovado e
+ * a captura pode durar mais que ele. {@code travaMinima} segura a tarefa mesmo depois
+ * de terminada, para que as outras réplicas não repitam a captura no mesmo ciclo.
+ */
+@ConfigurationProperties(prefix = "comprasnet.agendamento")
+public record AgendamentoProperties(
+        Duration travaMaxima,
+        Duration travaMinima
+) {
+    public AgendamentoProperties {
+        if (travaMaxima == null || travaMaxima.isNegative() || travaMaxima.isZero()) {
+            travaMaxima = Duration.ofMinutes(30);
+        }
+        if (travaMinima == null || travaMinima.isNegative()) {
+            travaMinima = Duration.ofMinutes(25);
+        }
+        if (travaMinima.compareTo(travaMaxima) > 0) {
+            travaMinima = travaMaxima;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Backfill da consulta por período. {@code paginasPorSegundo} é um limite só por réplica, dividido por
+ * todos os backfills em andamento nela, não um limite por job.
+ */
+@ConfigurationProperties(prefix = "comprasnet.backfill")
+public record BackfillProperties(
+        int paralelismo,
+        double paginasPorSegundo,
+        int maxPaginasPorUnidade,
+        int maxTentativas,
+        int maxDias,
+        Duration tempoMaximoSemProgresso
+) {
+    public BackfillProperties {
+        if (paralelismo <= 0) {
+            paralelismo = 4;
+        }
+        if (paginasPorSegundo <= 0) {
+            paginasPorSegundo = 2;
+        }
+        if (maxPaginasPorUnidade <= 0) {
+            maxPaginasPorUnidade = 50;
+        }
+        if (maxTentativas <= 0) {
+            maxTentativas = 3;
+        }
+        if (maxDias <= 0) {
+            maxDias = 366;
+        }
+        if (tempoMaximoSemProgresso == null || tempoMaximoSemProgresso.isNegative() || tempoMaximoSemProgresso.isZero()) {
+            tempoMaximoSemProgresso = Duration.ofMinutes(10);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches de DTOs em memória (Caffeine, configurados em {@code spring.cache}). Com {@code recordStats}
+ * o Actuator publica acertos, falhas e remoções em {@code /actuator/metrics/cache.gets} e
+ * {@code /actuator/metrics/cache.evictions}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,47 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Repete requisições idempotentes que falharam por erro de E/S (inclusive timeout e conexão recusada)
+ * ou que receberam 429/502/503/504, esperando {@code base * 2^(tentativa - 1)} entre as tentativas.
+ * Um {@code Retry-After} maior enviado pelo servidor tem precedência.
+ */
+class ExponentialBackoffRetryStrategy extends DefaultHttpRequestRetryStrategy {
+
+    private final long baseMillis;
+
+    ExponentialBackoffRetryStrategy(int maxRetries, Duration base) {
+        super(maxRetries, TimeValue.ofMilliseconds(base.toMillis()),
+                List.of(UnknownHostException.class, SSLException.class),
+                List.of(429, 502, 503, 504));
+        this.baseMillis = base.toMillis();
+    }
+
+    @Override
+    public TimeValue getRetryInterval(HttpRequest request, IOException exception, int execCount, HttpContext context) {
+        return backoff(execCount);
+    }
+
+    @Override
+    public TimeValue getRetryInterval(HttpResponse response, int execCount, HttpContext context) {
+        TimeValue retryAfter = super.getRetryInterval(response, execCount, context);
+        TimeValue backoff = backoff(execCount);
+        return retryAfter.compareTo(backoff) > 0 ? retryAfter : backoff;
+    }
+
+    private TimeValue backoff(int execCount) {
+        int expoente = Math.min(Math.max(execCount - 1, 0), 16);
+        return TimeValue.ofMilliseconds(baseMillis << expoente);
+    }
+}
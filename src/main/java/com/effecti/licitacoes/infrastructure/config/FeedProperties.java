@@ -0,0 +1,36 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Feed de {@code /api/licitacoes/stream}. {@code timeout} encerra cada conexão depois desse tempo, e o
+ * cliente reconecta com {@code Last-Event-ID}; {@code intervaloReleitura} é de quanto em quanto tempo
+ * a réplica procura eventos gravados pelas outras e manda um comentário para manter a conexão aberta.
+ * {@code retencao} é por quanto tempo os eventos ficam em {@code eventos_licitacao}, e
+ * {@code maximoReenvio} limita quantas sequências uma reconexão recupera; além disso o cliente recebe
+ * um evento de reinício.
+ */
+@ConfigurationProperties(prefix = "licitacoes.feed")
+public record FeedProperties(
+        Duration timeout,
+        Duration intervaloReleitura,
+        Duration retencao,
+        Integer maximoReenvio
+) {
+    public FeedProperties {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            timeout = Duration.ofMinutes(30);
+        }
+        if (intervaloReleitura == null || intervaloReleitura.isNegative() || intervaloReleitura.isZero()) {
+            intervaloReleitura = Duration.ofSeconds(5);
+        }
+        if (retencao == null || retencao.isNegative() || retencao.isZero()) {
+            retencao = Duration.ofDays(7);
+        }
+        if (maximoReenvio == null || maximoReenvio < 1) {
+            maximoReenvio = 10_000;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Cria as colunas {@code tsvector} e os índices GIN da busca textual. O schema é gerado pelo Hibernate,
+ * que não conhece esses tipos, então o script roda logo depois, e somente no PostgreSQL.
+ */
+@Component
+public class FullTextSearchInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextSearchInitializer.class);
+    private static final String SCRIPT = "db/busca-textual-postgresql.sql";
+
+    private final DataSource dataSource;
+
+    // o EntityManagerFactory garante que as tabelas já foram criadas
+    public FullTextSearchInitializer(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    void criarIndicesDeBusca() throws MetaDataAccessException {
+        String banco = JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> metaData.getDatabaseProductName());
+        if (!"PostgreSQL".equals(banco)) {
+            logger.info("Busca textual indisponível em {}; índices não criados", banco);
+            return;
+        }
+        new ResourceDatabasePopulator(new ClassPathResource(SCRIPT)).execute(dataSource);
+        logger.debug("Índices de busca textual verificados");
+    }
+}
@@ -0,0 +1,40 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "comprasnet.http")
+public record HttpClientProperties(
+        Duration connectTimeout,
+        Duration readTimeout,
+        int maxConnections,
+        int maxConnectionsPerRoute,
+        int maxRetries,
+        Duration retryBackoff,
+        String userAgent
+) {
+    public HttpClientProperties {
+        if (connectTimeout == null) {
+            connectTimeout = Duration.ofSeconds(10);
+        }
+        if (readTimeout == null) {
+            readTimeout = Duration.ofSeconds(60);
+        }
+        if (maxConnections <= 0) {
+            maxConnections = 20;
+        }
+        if (maxConnectionsPerRoute <= 0 || maxConnectionsPerRoute > maxConnections) {
+            maxConnectionsPerRoute = Math.min(4, maxConnections);
+        }
+        if (maxRetries < 0) {
+            maxRetries = 0;
+        }
+        if (retryBackoff == null) {
+            retryBackoff = Duration.ofMillis(500);
+        }
+        if (userAgent == null || userAgent.isBlank()) {
+            userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/108.0.0.0 Safari/537.36";
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import com.effecti.licitacoes.infrastructure.service.ResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publica no Actuator as estatísticas do cache de páginas do ComprasNet, que antes só apareciam no
+ * log ao fim de cada captura. As métricas da API ({@code http.server.requests}) e do pipeline de
+ * captura ({@code comprasnet.*}, ver {@link com.effecti.licitacoes.infrastructure.service.MetricasCaptura})
+ * são registradas pelo próprio Spring Boot e pelos componentes da captura.
+ */
+@Configuration
+public class MetricasConfig {
+
+    private static final String CACHE_PAGINAS = "comprasnet.cache.paginas";
+
+    @Bean
+    public MeterBinder responseCacheMetricas(ResponseCache cache) {
+        return registry -> {
+            FunctionCounter.builder(CACHE_PAGINAS, cache, c -> c.estatisticas().acertos())
+                    .description("Buscas de página respondidas pelo cache (304 ou conteúdo igual ao anterior)")
+                    .tag("resultado", "acerto")
+                    .register(registry);
+            FunctionCounter.builder(CACHE_PAGINAS, cache, c -> c.estatisticas().falhas())
+                    .description("Buscas de página com conteúdo novo")
+                    .tag("resultado", "falha")
+                    .register(registry);
+            FunctionCounter.builder(CACHE_PAGINAS + ".remocoes", cache, c -> c.estatisticas().remocoes())
+                    .description("Entradas removidas para respeitar o tamanho máximo do cache")
+                    .register(registry);
+            Gauge.builder(CACHE_PAGINAS + ".entradas", cache, c -> c.estatisticas().entradas())
+                    .description("Páginas guardadas no cache")
+                    .register(registry);
+            Gauge.builder(CACHE_PAGINAS + ".tamanho", cache, c -> c.estatisticas().bytes())
+                    .description("Espaço ocupado pelo cache em disco")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties(prefix = "comprasnet.cache")
+public record ResponseCacheProperties(
+        Path directory,
+        DataSize maxSize
+) {
+    public ResponseCacheProperties {
+        if (directory == null) {
+            directory = Path.of(System.getProperty("java.io.tmpdir"), "comprasnet-cache");
+        }
+        if (maxSize == null || maxSize.isNegative()) {
+            maxSize = DataSize.ofMegabytes(256);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ScrapingExecutorConfig {
+
+    @Bean(name = "scrapingExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService scrapingExecutor(ScrapingProperties properties) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("comprasnet-fetch-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(properties.maxConcurrency(), threadFactory);
+    }
+
+    /**
+     * Executa as unidades de backfill. Na parada, as threads são interrompidas e as unidades em
+     * andamento continuam do checkpoint na próxima inicialização.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService backfillExecutor(BackfillProperties properties) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("comprasnet-backfill-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(properties.paralelismo(), threadFactory);
+    }
+
+    /**
+     * Com {@code spring.threads.virtual.enabled} em Java 21+, cada busca roda na sua própria thread
+     * virtual. O paralelismo continua limitado por host pelo {@link HostConcurrencyLimiter}.
+     */
+    @Bean(name = "scrapingExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualScrapingExecutor() {
+        return new VirtualThreadTaskExecutor("comprasnet-fetch-");
+    }
+}
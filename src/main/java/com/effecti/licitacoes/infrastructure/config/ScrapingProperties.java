@@ -0,0 +1,26 @@
+package com.effecti.licitacoes.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "comprasnet.scraping")
+public record ScrapingProperties(
+        int maxConcurrency,
+        int maxConcurrencyPerHost,
+        int persistBatchSize,
+        String baseUrl
+) {
+    public ScrapingProperties {
+        if (maxConcurrency <= 0) {
+            maxConcurrency = 8;
+        }
+        if (maxConcurrencyPerHost <= 0 || maxConcurrencyPerHost > maxConcurrency) {
+            maxConcurrencyPerHost = maxConcurrency;
+        }
+        if (persistBatchSize <= 0) {
+            persistBatchSize = 50;
+        }
+        if (baseUrl == null || baseUrl.isBlank()) {
+            baseUrl = "http://comprasnet.gov.br";
+        }
+    }
+}
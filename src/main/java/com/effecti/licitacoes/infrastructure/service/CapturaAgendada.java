@@ -0,0 +1,35 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.infrastructure.config.AgendamentoProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispara a captura do ComprasNet em todas as réplicas, mas só a que conseguir a
+ * {@link TravaDeAgendamento trava} executa a captura em cada ciclo.
+ */
+@Component
+public class CapturaAgendada {
+
+    static final String CAPTURA_COMPRASNET = "captura-comprasnet";
+
+    private final ComprasNetScrapingService scrapingService;
+    private final TravaDeAgendamento trava;
+    private final AgendamentoProperties properties;
+
+    public CapturaAgendada(ComprasNetScrapingService scrapingService,
+                           TravaDeAgendamento trava,
+                           AgendamentoProperties properties) {
+        this.scrapingService = scrapingService;
+        this.trava = trava;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelay = 30, timeUnit = TimeUnit.MINUTES)
+    public void capturarLicitacoes() {
+        trava.executar(CAPTURA_COMPRASNET, properties.travaMaxima(), properties.travaMinima(),
+                scrapingService::capturarLicitacoes);
+    }
+}
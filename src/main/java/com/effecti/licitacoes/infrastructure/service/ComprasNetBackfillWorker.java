@@ -0,0 +1,174 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.domain.entity.Backfill;
+import com.effecti.licitacoes.domain.entity.UnidadeBackfill;
+import com.effecti.licitacoes.domain.repository.BackfillRepository;
+import com.effecti.licitacoes.domain.repository.UnidadeBackfillRepository;
+import com.effecti.licitacoes.infrastructure.config.BackfillProperties;
+import com.effecti.licitacoes.infrastructure.config.ScrapingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processa as unidades de backfill em paralelo no {@code backfillExecutor}. Cada unidade percorre as
+ * páginas da consulta por período do ComprasNet, só de pregões, até uma página vir sem nenhum
+ * formulário de licitação, capturando cada uma pelo pipeline de {@link ComprasNetScrapingService} e
+ * gravando o checkpoint depois de cada página.
+ * Todas as buscas dos backfills dividem o mesmo {@link LimitadorDeTaxa}.
+ * <p>
+ * Todas as réplicas da aplicação procuram unidades pendentes periodicamente e dividem o trabalho:
+ * cada unidade é reservada por uma única réplica ({@code trocarStatus}). O checkpoint gravado a cada
+ * página também serve de sinal de vida; uma unidade em andamento sem checkpoint há mais de
+ * {@code tempoMaximoSemProgresso} é considerada abandonada e volta para a fila.
+ */
+@Component
+public class ComprasNetBackfillWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComprasNetBackfillWorker.class);
+    private static final String COMPRASNET_RELACAO_PATH_FORMAT = "/ConsultaLicitacoes/ConsLicitacao_Relacao.asp"
+            + "?dt_publ_ini=%1$s&dt_publ_fim=%1$s&txtlstUasg=%2$s&chkModalidade=5&numpag=%3$d";
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final List<UnidadeBackfill.Status> NAO_TERMINADAS =
+            List.of(UnidadeBackfill.Status.PENDENTE, UnidadeBackfill.Status.EM_ANDAMENTO);
+
+    private final BackfillRepository backfillRepository;
+    private final UnidadeBackfillRepository unidadeRepository;
+    private final ComprasNetScrapingService scrapingService;
+    private final Executor backfillExecutor;
+    private final LimitadorDeTaxa limitador;
+    private final int maxPaginasPorUnidade;
+    private final int maxTentativas;
+    private final Duration tempoMaximoSemProgresso;
+    private final String relacaoUrlFormat;
+    private final Set<Long> enfileiradas = ConcurrentHashMap.newKeySet();
+
+    public ComprasNetBackfillWorker(BackfillRepository backfillRepository,
+                                    UnidadeBackfillRepository unidadeRepository,
+                                    ComprasNetScrapingService scrapingService,
+                                    @Qualifier("backfillExecutor") Executor backfillExecutor,
+                                    BackfillProperties properties,
+                                    ScrapingProperties scrapingProperties) {
+        this.backfillRepository = backfillRepository;
+        this.unidadeRepository = unidadeRepository;
+        this.scrapingService = scrapingService;
+        this.backfillExecutor = backfillExecutor;
+        this.limitador = new LimitadorDeTaxa(properties.paginasPorSegundo());
+        this.maxPaginasPorUnidade = properties.maxPaginasPorUnidade();
+        this.maxTentativas = properties.maxTentativas();
+        this.tempoMaximoSemProgresso = properties.tempoMaximoSemProgresso();
+        this.relacaoUrlFormat = scrapingProperties.baseUrl() + COMPRASNET_RELACAO_PATH_FORMAT;
+    }
+
+    /**
+     * Enfileira as unidades pendentes do backfill que ainda não estão na fila desta réplica. Uma
+     * unidade enfileirada em duas réplicas é processada só uma vez: a segunda não consegue reservá-la.
+     */
+    public void iniciar(Long backfillId) {
+        List<Long> pendentes = unidadeRepository.findIdsByBackfillIdAndStatus(backfillId, UnidadeBackfill.Status.PENDENTE);
+        long novas = pendentes.stream().filter(this::enfileirar).count();
+        if (novas > 0) {
+            logger.info("Backfill {}: {} unidades pendentes enfileiradas", backfillId, novas);
+        }
+    }
+
+    /**
+     * Devolve para a fila as unidades abandonadas por uma réplica que parou, inclusive esta antes de
+     * reiniciar, e enfileira aqui as pendentes de todos os backfills, criados em qualquer réplica.
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void distribuirPendentes() {
+        int liberadas = unidadeRepository.trocarStatusSemProgressoDesde(UnidadeBackfill.Status.EM_ANDAMENTO,
+                UnidadeBackfill.Status.PENDENTE, LocalDateTime.now().minus(tempoMaximoSemProgresso));
+        if (liberadas > 0) {
+            logger.info("{} unidades de backfill interrompidas voltaram para a fila", liberadas);
+        }
+        unidadeRepository.findBackfillIdsByStatus(UnidadeBackfill.Status.PENDENTE).forEach(this::iniciar);
+    }
+
+    private boolean enfileirar(Long id) {
+        if (!enfileiradas.add(id)) {
+            return false;
+        }
+        backfillExecutor.execute(() -> {
+            enfileiradas.remove(id);
+            processarUnidade(id);
+        });
+        return true;
+    }
+
+    void processarUnidade(Long id) {
+        if (unidadeRepository.trocarStatus(id, UnidadeBackfill.Status.PENDENTE, UnidadeBackfill.Status.EM_ANDAMENTO,
+                LocalDateTime.now()) == 0) {
+            return;
+        }
+        UnidadeBackfill unidade = unidadeRepository.findById(id).orElseThrow();
+        Long backfillId = unidade.getBackfill().getId();
+        int pagina = unidade.getProximaPagina();
+        try {
+            int primeiraPaginaComFalha = 0;
+            for (; pagina <= maxPaginasPorUnidade; pagina++) {
+                ResultadoCaptura resultado = scrapingService.capturarListagem(url(unidade.getData(), unidade.getCodigoUasg(), pagina), limitador);
+                unidade.registrarPagina(resultado.paginasBuscadas(), resultado.gravadas());
+                if (resultado.falhas() > 0 && primeiraPaginaComFalha == 0) {
+                    primeiraPaginaComFalha = pagina;
+                }
+                unidade = unidadeRepository.save(unidade);
+                // pelos formulários, e não pelas licitações aceitas: uma página só com o que o parser
+                // descarta ainda pode ser seguida por outra com pregões
+                if (resultado.formularios() == 0) {
+                    break;
+                }
+            }
+
+            if (primeiraPaginaComFalha > 0) {
+                unidade.falhar(primeiraPaginaComFalha, "Itens de algumas licitações não puderam ser buscados", maxTentativas);
+            } else {
+                unidade.concluir();
+                logger.info("Backfill {}: dia {} UASG {} concluído em {} páginas", backfillId, unidade.getData(),
+                        unidade.getCodigoUasg() != null ? unidade.getCodigoUasg() : "todas", unidade.getPaginas());
+            }
+        } catch (InterruptedException e) {
+            // outra réplica, ou esta depois de reiniciar, continua do checkpoint
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            logger.warn("Backfill {}: falha no dia {} página {}", backfillId, unidade.getData(), pagina, e);
+            unidade.falhar(pagina, e.getMessage(), maxTentativas);
+        }
+        unidade = unidadeRepository.save(unidade);
+
+        if (unidade.getStatus() == UnidadeBackfill.Status.PENDENTE) {
+            enfileirar(unidade.getId());
+        } else {
+            concluirSeTerminou(backfillId);
+        }
+    }
+
+    private void concluirSeTerminou(Long backfillId) {
+        if (unidadeRepository.countByBackfillIdAndStatusIn(backfillId, NAO_TERMINADAS) > 0) {
+            return;
+        }
+        backfillRepository.findById(backfillId).ifPresent(backfill -> {
+            backfill.concluir();
+            Backfill concluido = backfillRepository.save(backfill);
+            logger.info("Backfill {} concluído em {}", backfillId, concluido.getConcluidoEm());
+        });
+    }
+
+    private String url(LocalDate data, Integer codigoUasg, int pagina) {
+        return String.format(relacaoUrlFormat, FORMATO_DATA.format(data), codigoUasg != null ? codigoUasg : "", pagina);
+    }
+}
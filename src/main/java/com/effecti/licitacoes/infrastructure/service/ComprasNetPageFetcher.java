@@ -0,0 +1,120 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Busca páginas do ComprasNet passando pelo {@link ResponseCache}.
+ * <p>
+ * Quando há uma entrada para a URL, a requisição leva {@code If-None-Match}/{@code If-Modified-Since};
+ * um 304 devolve o corpo guardado sem baixar nada. Como o ComprasNet nem sempre envia validadores, um
+ * 200 cujo corpo tem o mesmo hash da entrada anterior também é tratado como página inalterada.
+ * <p>
+ * As requisições passam pelo {@link RestTemplate} compartilhado, que reaproveita as conexões do pool
+ * e já trata compressão, timeouts e retentativas.
+ */
+@Component
+public class ComprasNetPageFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComprasNetPageFetcher.class);
+
+    private final RestTemplate restTemplate;
+    private final ResponseCache cache;
+
+    public ComprasNetPageFetcher(RestTemplate restTemplate, ResponseCache cache) {
+        this.restTemplate = restTemplate;
+        this.cache = cache;
+    }
+
+    public PaginaBaixada buscar(String url) throws IOException {
+        return buscar(url, true);
+    }
+
+    public ResponseCache.Estatisticas estatisticasDoCache() {
+        return cache.estatisticas();
+    }
+
+    private PaginaBaixada buscar(String url, boolean condicional) throws IOException {
+        Optional<ResponseCache.Entrada> anterior = condicional ? cache.buscar(url) : Optional.empty();
+
+        PaginaBaixada pagina;
+        try {
+            pagina = restTemplate.execute(url, HttpMethod.GET,
+                    request -> anterior.ifPresent(entrada -> {
+                        HttpHeaders headers = request.getHeaders();
+                        if (entrada.etag() != null) {
+                            headers.set(HttpHeaders.IF_NONE_MATCH, entrada.etag());
+                        }
+                        if (entrada.lastModified() != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, entrada.lastModified());
+                        }
+                    }),
+                    response -> processarResposta(url, anterior, response));
+        } catch (ResourceAccessException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+        // 304 para uma entrada removida entre a consulta e a resposta
+        return pagina != null ? pagina : buscar(url, false);
+    }
+
+    private PaginaBaixada processarResposta(String url, Optional<ResponseCache.Entrada> anterior,
+                                            ClientHttpResponse response) throws IOException {
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && anterior.isPresent()) {
+            Optional<InputStream> corpo = cache.abrir(url);
+            if (corpo.isEmpty()) {
+                return null;
+            }
+            cache.registrarAcerto();
+            logger.trace("{} não modificada (304)", url);
+            return new PaginaBaixada(url, corpo.get(), true);
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IOException("Status HTTP " + response.getStatusCode().value() + " ao buscar " + url);
+        }
+
+        Path temporario = cache.criarArquivoTemporario();
+        String hash;
+        try {
+            MessageDigest digest = ResponseCache.novoDigest();
+            try (InputStream corpo = new DigestInputStream(response.getBody(), digest)) {
+                Files.copy(corpo, temporario, StandardCopyOption.REPLACE_EXISTING);
+            }
+            hash = HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+
+        boolean inalterada = anterior.map(entrada -> hash.equals(entrada.hash())).orElse(false);
+        if (inalterada) {
+            cache.registrarAcerto();
+            logger.trace("{} com o mesmo conteúdo da busca anterior", url);
+        } else {
+            cache.registrarFalha();
+        }
+
+        HttpHeaders headers = response.getHeaders();
+        InputStream corpo = cache.gravar(url, temporario, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED), hash);
+        return new PaginaBaixada(url, corpo, inalterada);
+    }
+}
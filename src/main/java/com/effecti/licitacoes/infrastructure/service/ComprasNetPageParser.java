@@ -0,0 +1,284 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import io.micrometer.core.instrument.Timer;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extrai licitações e itens das páginas do ComprasNet.
+ * <p>
+ * Os padrões são compilados uma única vez e aplicados sobre o texto já normalizado dos elementos
+ * ({@link Element#text()} / {@link Element#wholeText()}), sem reserializar o HTML. Cada chamada usa
+ * um único {@link Matcher} por texto, trocando apenas o padrão, então a classe é segura para uso
+ * concorrente. O tempo de parse de cada formulário e de cada item, e os registros descartados, vão
+ * para as {@link MetricasCaptura}.
+ */
+@Component
+public class ComprasNetPageParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComprasNetPageParser.class);
+
+    static final String MODALIDADE_PREGAO_ELETRONICO = "Pregão Eletrônico";
+
+    // Seletores compilados uma vez e sem combinadores de descendência: avaliadores estruturais do jsoup
+    // memorizam os elementos visitados em ThreadLocals, o que manteria vivos os formulários já lidos.
+    // A hierarquia é verificada navegando pelos ancestrais.
+    private static final Evaluator FORMULARIO_LICITACAO = QueryParser.parse("form[name^=Form]");
+    private static final Evaluator TABELA_LICITACAO = QueryParser.parse("table.td");
+    private static final Evaluator LINHA_OBJETO = QueryParser.parse("tr.tex3");
+    private static final Evaluator TD = QueryParser.parse("td");
+    private static final Evaluator BOTAO_ITENS = QueryParser.parse("input[name=itens]");
+    private static final Evaluator CELULA_ITEM = QueryParser.parse("td[width='650']");
+    private static final Evaluator TABELA_ITENS = QueryParser.parse("table[width='100%']");
+    private static final Evaluator TD_TEX3 = QueryParser.parse("td.tex3");
+    private static final Evaluator TITULO_ITEM = QueryParser.parse("span.tex3b");
+    private static final Evaluator DETALHES_ITEM = QueryParser.parse("span.tex3");
+
+    private static final Pattern CODIGO_UASG = Pattern.compile("C\\u00F3digo da UASG: (\\d+)");
+    private static final Pattern NUMERO_PREGAO = Pattern.compile("Preg\\u00E3o Eletr\\u00F4nico N\\u00BA\\s*(\\d+/\\d{4})");
+    private static final Pattern OBJETO = Pattern.compile("Objeto:\\s*(.*?)\\s*Edital a partir de:");
+    private static final Pattern DATA_ABERTURA = Pattern.compile("Edital a partir de:\\s*(\\d{2}/\\d{2}/\\d{4})");
+    private static final Pattern ENDERECO = Pattern.compile("Endere\\u00E7o:\\s*(.*?)\\s*Telefone:");
+    private static final Pattern PARAMETROS_ITENS = Pattern.compile("coduasg=(\\d+)&modprp=(\\d+)&numprp=(\\d+)");
+    private static final Pattern NUMERO_DESCRICAO = Pattern.compile("(\\d+) - (.*)");
+    private static final Pattern QUANTIDADE = Pattern.compile("Quantidade: (\\d+)");
+    private static final Pattern UNIDADE_FORNECIMENTO = Pattern.compile("Unidade de fornecimento: ([^\\n]+)");
+    private static final Pattern ESPACOS = Pattern.compile("\\s{2,}");
+    /** Formato da data de abertura no ComprasNet; datas inexistentes, como 31/02, são rejeitadas. */
+    static final DateTimeFormatter FORMATO_DATA_ABERTURA =
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    private final MetricasCaptura metricas;
+
+    public ComprasNetPageParser(MetricasCaptura metricas) {
+        this.metricas = metricas;
+    }
+
+    /**
+     * Lê a listagem à medida que chega, entregando cada licitação ao consumidor assim que o
+     * formulário correspondente é fechado. Os formulários já processados são removidos da árvore,
+     * então a página inteira nunca fica materializada em memória. Devolve quantos formulários a página
+     * tinha, inclusive os descartados, como os de outras modalidades.
+     */
+    public int parseListagem(Reader reader, String baseUri, Consumer<LicitacaoCapturada> consumidor) throws IOException {
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(reader, baseUri)) {
+            int formularios = 0;
+            Element form;
+            while ((form = streamer.selectNext(FORMULARIO_LICITACAO)) != null) {
+                formularios++;
+                lerFormulario(form).ifPresent(consumidor);
+                form.remove();
+            }
+
+            if (formularios == 0) {
+                logger.warn("Nenhum formulário de licitação encontrado. Verifique o HTML da página ou o seletor.");
+            }
+            return formularios;
+        }
+    }
+
+    /**
+     * Lê uma listagem já materializada. Só existe para os testes e benchmarks compararem com a leitura
+     * em streaming; a captura usa {@link #parseListagem(Reader, String, Consumer)}.
+     */
+    List<LicitacaoCapturada> parseListagem(Document doc) {
+        Elements licitacaoForms = doc.select(FORMULARIO_LICITACAO);
+
+        if (licitacaoForms.isEmpty()) {
+            logger.warn("Nenhum formulário de licitação encontrado. Verifique o HTML da página ou o seletor.");
+        }
+
+        List<LicitacaoCapturada> capturadas = new ArrayList<>(licitacaoForms.size());
+        for (Element form : licitacaoForms) {
+            lerFormulario(form).ifPresent(capturadas::add);
+        }
+        return capturadas;
+    }
+
+    private Optional<LicitacaoCapturada> lerFormulario(Element form) {
+        Timer.Sample inicio = metricas.iniciar();
+        try {
+            return parseFormulario(form);
+        } catch (Exception e) {
+            metricas.registroDescartado(MetricasCaptura.Elemento.FORMULARIO, MetricasCaptura.Descarte.ERRO);
+            logger.error("Erro ao parsear formulário de licitação {}", form.attr("name"), e);
+            return Optional.empty();
+        } finally {
+            metricas.elementoLido(inicio, MetricasCaptura.Elemento.FORMULARIO);
+        }
+    }
+
+    private Optional<LicitacaoCapturada> parseFormulario(Element form) {
+        Element tdTex3 = encontrarTdObjeto(form);
+
+        if (tdTex3 == null) {
+            metricas.registroDescartado(MetricasCaptura.Elemento.FORMULARIO, MetricasCaptura.Descarte.INCOMPLETO);
+            logger.warn("TD com o objeto da licitação não encontrado no formulário {}", form.attr("name"));
+            return Optional.empty();
+        }
+
+        String texto = tdTex3.text();
+        Matcher matcher = CODIGO_UASG.matcher(texto);
+
+        String codigoUasgStr = extrair(matcher, CODIGO_UASG);
+        Integer codigoUasg = codigoUasgStr != null ? Integer.parseInt(codigoUasgStr) : null;
+        String numeroPregao = extrair(matcher, NUMERO_PREGAO);
+        String objeto = extrair(matcher, OBJETO);
+        String dataAberturaStr = extrair(matcher, DATA_ABERTURA);
+        LocalDate dataAbertura = dataAberturaStr != null ? LocalDate.parse(dataAberturaStr, FORMATO_DATA_ABERTURA) : null;
+        String endereco = extrair(matcher, ENDERECO);
+        if (endereco != null) {
+            endereco = ESPACOS.matcher(endereco.replace("-", "")).replaceAll(" ").trim();
+        }
+
+        if (codigoUasg == null || numeroPregao == null || objeto == null || dataAbertura == null || endereco == null) {
+            metricas.registroDescartado(MetricasCaptura.Elemento.FORMULARIO, MetricasCaptura.Descarte.INCOMPLETO);
+            logger.warn("Dados incompletos para uma licitação (UASG, Pregão, Objeto, Data Abertura ou Endereço ausente).");
+            return Optional.empty();
+        }
+
+        String codUasgItem = null;
+        String modPrpItem = null;
+        String numPrpItem = null;
+
+        Element itensButton = form.selectFirst(BOTAO_ITENS);
+        if (itensButton != null) {
+            Matcher parametros = PARAMETROS_ITENS.matcher(itensButton.attr("onClick"));
+            if (parametros.find()) {
+                codUasgItem = parametros.group(1);
+                modPrpItem = parametros.group(2);
+                numPrpItem = parametros.group(3);
+            }
+        }
+
+        Licitacao licitacao = new Licitacao(
+                codigoUasg, numeroPregao, objeto, dataAbertura, MODALIDADE_PREGAO_ELETRONICO, endereco);
+        return Optional.of(new LicitacaoCapturada(licitacao, codUasgItem, modPrpItem, numPrpItem));
+    }
+
+    public List<ItemLicitacao> parseItens(Document itemDoc) {
+        Elements itemDetailCells = itemDoc.select(CELULA_ITEM);
+
+        List<ItemLicitacao> itens = new ArrayList<>(itemDetailCells.size());
+        for (Element itemCell : itemDetailCells) {
+            if (!dentroDaTabelaDeItens(itemCell)) {
+                continue;
+            }
+            Timer.Sample inicio = metricas.iniciar();
+            try {
+                parseItem(itemCell).ifPresent(itens::add);
+            } catch (Exception e) {
+                metricas.registroDescartado(MetricasCaptura.Elemento.ITEM, MetricasCaptura.Descarte.ERRO);
+                logger.error("Erro ao processar item: {}", itemCell.text(), e);
+            } finally {
+                metricas.elementoLido(inicio, MetricasCaptura.Elemento.ITEM);
+            }
+        }
+        return itens;
+    }
+
+    private Optional<ItemLicitacao> parseItem(Element itemCell) {
+        Elements titulos = itemCell.select(TITULO_ITEM);
+        for (Element titulo : titulos) {
+            if (titulo.text().contains("Grupos")) {
+                logger.debug("Pulando seção 'Grupos'");
+                return Optional.empty();
+            }
+        }
+        Element numeroItemDescricaoSpan = titulos.first();
+
+        Integer numeroItem = null;
+        String descricao = null;
+        Integer quantidade = null;
+        String unidadeFornecimento = null;
+
+        if (numeroItemDescricaoSpan != null) {
+            Matcher matcher = NUMERO_DESCRICAO.matcher(numeroItemDescricaoSpan.text());
+            if (matcher.find()) {
+                numeroItem = Integer.parseInt(matcher.group(1));
+                descricao = matcher.group(2).trim();
+            } else {
+                logger.warn("Regex para Numero/Descricao não encontrou correspondência em: {}", numeroItemDescricaoSpan.text());
+            }
+        }
+
+        Element detalhesSpan = itemCell.selectFirst(DETALHES_ITEM);
+        if (detalhesSpan != null) {
+            // wholeText() preserva as quebras de <br>, que delimitam cada campo
+            String detalhes = detalhesSpan.wholeText();
+            Matcher matcher = QUANTIDADE.matcher(detalhes);
+
+            String quantidadeStr = extrair(matcher, QUANTIDADE);
+            if (quantidadeStr != null) {
+                quantidade = Integer.parseInt(quantidadeStr);
+            }
+            unidadeFornecimento = extrair(matcher, UNIDADE_FORNECIMENTO);
+        }
+
+        if (numeroItem == null || descricao == null || quantidade == null || unidadeFornecimento == null) {
+            metricas.registroDescartado(MetricasCaptura.Elemento.ITEM, MetricasCaptura.Descarte.INCOMPLETO);
+            logger.warn("Dados incompletos para um item da licitação. Numero: {}, Descricao: {}, Quantidade: {}, Unidade: {}",
+                    numeroItem, descricao, quantidade, unidadeFornecimento);
+            return Optional.empty();
+        }
+
+        ItemLicitacao itemLicitacao = new ItemLicitacao();
+        itemLicitacao.setNumeroItem(numeroItem);
+        itemLicitacao.setDescricao(descricao);
+        itemLicitacao.setQuantidade(quantidade);
+        itemLicitacao.setUnidadeFornecimento(unidadeFornecimento);
+        return Optional.of(itemLicitacao);
+    }
+
+    /**
+     * Equivale a {@code table.td tr.tex3 td}: a primeira TD de uma linha {@code tr.tex3} dentro de {@code table.td}.
+     */
+    private static Element encontrarTdObjeto(Element form) {
+        for (Element linha : form.select(LINHA_OBJETO)) {
+            Element tabela = linha.parent() != null ? linha.parent().closest(TABELA_LICITACAO) : null;
+            if (tabela != null) {
+                Element td = linha.selectFirst(TD);
+                if (td != null) {
+                    return td;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Equivale a {@code td.tex3 table[width='100%'] td[width='650']}: as TDs dos itens ficam numa tabela
+     * com width='100%' que por sua vez está dentro de uma TD com class='tex3'.
+     */
+    private static boolean dentroDaTabelaDeItens(Element itemCell) {
+        Element tabela = itemCell.closest(TABELA_ITENS);
+        return tabela != null && tabela.parent() != null && tabela.parent().closest(TD_TEX3) != null;
+    }
+
+    private static String extrair(Matcher matcher, Pattern pattern) {
+        matcher.usePattern(pattern).reset();
+        return matcher.find() ? matcher.group(1).trim() : null;
+    }
+}
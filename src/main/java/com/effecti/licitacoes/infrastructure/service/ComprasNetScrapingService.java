@@ -1,235 +1,317 @@
 package com.effecti.licitacoes.infrastructure.service;
 
+import com.effecti.licitacoes.application.service.LicitacaoCacheInvalidator;
+import com.effecti.licitacoes.application.service.LoteGravado;
 import com.effecti.licitacoes.domain.entity.Licitacao;
 import com.effecti.licitacoes.domain.entity.ItemLicitacao;
-import com.effecti.licitacoes.domain.repository.LicitacaoRepository;
+import com.effecti.licitacoes.domain.model.ChaveLicitacao;
+import com.effecti.licitacoes.infrastructure.config.ScrapingProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
-import org.jsoup.Connection;
 
 import java.io.IOException;
-import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Captura as licitações do dia no ComprasNet em estágios: lê a listagem, busca as páginas de itens
+ * em paralelo e grava o resultado em lotes pequenos, cada um na sua própria transação.
+ * <p>
+ * Não há transação em volta da captura inteira: a conexão com o banco só é usada durante a gravação
+ * de cada lote, nunca enquanto as páginas são baixadas. A gravação é um upsert pelo hash do conteúdo
+ * ({@link LicitacaoBatchWriter}), então licitações já cadastradas também passam pelo pipeline e
+ * retificações no cabeçalho ou nos itens são gravadas, enquanto as que não mudaram não geram escrita.
+ * <p>
+ * Para não reprocessar todo pregão a cada execução, a réplica guarda o hash do cabeçalho de cada
+ * licitação já gravada ou conferida. Quando a página de itens volta {@link PaginaBaixada#inalterada()
+ * inalterada} e o cabeçalho lido da listagem tem o mesmo hash, a licitação fica fora do lote sem parse
+ * nem hash do conteúdo. O custo que sobra por licitação inalterada é a busca condicional da página de
+ * itens (um 304 quando o ComprasNet envia validadores; sem eles, a página inteira é baixada e comparada
+ * pelo hash do corpo) e o hash do cabeçalho. Depois de um reinício, ou quando a chave sai da memória ou
+ * a página sai do cache em disco, a licitação volta a ser lida e conferida no banco uma vez.
+ * <p>
+ * As páginas vêm do {@link ComprasNetPageFetcher}. Se a listagem não mudou desde uma captura que
+ * terminou sem falhas, ela nem é lida de novo. O mesmo pipeline processa as páginas da consulta
+ * por período usadas no backfill, por {@link #capturarListagem}.
+ */
 @Service
 public class ComprasNetScrapingService {
 
     private static final Logger logger = LoggerFactory.getLogger(ComprasNetScrapingService.class);
-    private static final String COMPRASNET_BASE_URL = "http://comprasnet.gov.br";
-    private static final String COMPRASNET_LICITACOES_URL = COMPRASNET_BASE_URL + "/ConsultaLicitacoes/ConsLicitacaoDia.asp";
-    private static final String COMPRASNET_DETALHES_URL_FORMAT = COMPRASNET_BASE_URL + "/ConsultaLicitacoes/download/download_editais_detalhe.asp?coduasg=%s&modprp=%s&numprp=%s";
-
-    private final LicitacaoRepository repository;
-
-    public ComprasNetScrapingService(LicitacaoRepository repository) {
-        this.repository = repository;
+    private static final String COMPRASNET_LICITACOES_PATH = "/ConsultaLicitacoes/ConsLicitacaoDia.asp";
+    private static final String COMPRASNET_DETALHES_PATH_FORMAT = "/ConsultaLicitacoes/download/download_editais_detalhe.asp?coduasg=%s&modprp=%s&numprp=%s";
+    /** Cabeçalhos conferidos mantidos em memória; cobre a listagem do dia e as páginas recentes do backfill. */
+    private static final int MAX_CABECALHOS_CONFERIDOS = 50_000;
+
+    private final Executor scrapingExecutor;
+    private final HostConcurrencyLimiter hostConcurrencyLimiter;
+    private final ComprasNetPageParser parser;
+    private final ComprasNetPageFetcher fetcher;
+    private final LicitacaoBatchWriter batchWriter;
+    private final LicitacaoCacheInvalidator cacheInvalidator;
+    private final ApplicationEventPublisher eventos;
+    private final MetricasCaptura metricas;
+    private final int persistBatchSize;
+    private final String licitacoesUrl;
+    private final String detalhesUrlFormat;
+
+    /**
+     * Hash do cabeçalho de cada licitação cuja versão atual já está no banco. A chave sai daqui antes da
+     * busca dos itens e só volta depois que o lote é gravado, então uma falha no meio do caminho faz a
+     * próxima execução ler a licitação de novo.
+     */
+    private final Cache<ChaveLicitacao, String> cabecalhosConferidos = Caffeine.newBuilder()
+            .maximumSize(MAX_CABECALHOS_CONFERIDOS)
+            .build();
+
+    private volatile boolean ultimaCapturaCompleta;
+
+    public ComprasNetScrapingService(Executor scrapingExecutor,
+                                     HostConcurrencyLimiter hostConcurrencyLimiter,
+                                     ComprasNetPageParser parser,
+                                     ComprasNetPageFetcher fetcher,
+                                     LicitacaoBatchWriter batchWriter,
+                                     LicitacaoCacheInvalidator cacheInvalidator,
+                                     ApplicationEventPublisher eventos,
+                                     MetricasCaptura metricas,
+                                     ScrapingProperties properties) {
+        this.scrapingExecutor = scrapingExecutor;
+        this.hostConcurrencyLimiter = hostConcurrencyLimiter;
+        this.parser = parser;
+        this.fetcher = fetcher;
+        this.batchWriter = batchWriter;
+        this.cacheInvalidator = cacheInvalidator;
+        this.eventos = eventos;
+        this.metricas = metricas;
+        this.persistBatchSize = properties.persistBatchSize();
+        this.licitacoesUrl = properties.baseUrl() + COMPRASNET_LICITACOES_PATH;
+        this.detalhesUrlFormat = properties.baseUrl() + COMPRASNET_DETALHES_PATH_FORMAT;
     }
 
-    @Scheduled(fixedDelay = 30, timeUnit = TimeUnit.MINUTES)
-    @Transactional
+    /**
+     * Captura a listagem do dia. Agendada por {@link CapturaAgendada}, que garante uma réplica por vez.
+     * A duração e o resultado de cada execução ficam na métrica {@code comprasnet.captura}.
+     */
     public void capturarLicitacoes() {
-        try {
-            Connection.Response response = Jsoup.connect(COMPRASNET_LICITACOES_URL)
-                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/108.0.0.0 Safari/537.36")
-                    .timeout(60 * 1000)
-                    .execute();
-
-            Document doc = Jsoup.parse(new ByteArrayInputStream(response.bodyAsBytes()), "iso-8859-1", COMPRASNET_LICITACOES_URL);
-
-            List<Licitacao> novasLicitacoes = new ArrayList<>();
-
-            Elements licitacaoForms = doc.select("form[name^=Form]");
-
-            if (licitacaoForms.isEmpty()) {
-                logger.warn("Nenhum formulário de licitação encontrado. Verifique o HTML da página ou o seletor.");
-            }
+        Observation captura = metricas.novaCaptura();
+        captura.observe(() -> metricas.capturaConcluida(captura, executarCaptura(captura)));
+    }
 
-            for (Element form : licitacaoForms) {
-                try {
-                    Element tdTex3 = form.selectFirst("table.td tr.tex3 td");
-
-                    if (tdTex3 == null) {
-                        logger.warn("TD com o objeto da licitação não encontrado no formulário: {}", form.html());
-                        continue;
-                    }
-
-                    String htmlContent = tdTex3.html();
-                    logger.debug("Conteúdo do htmlContent para licitação: {}", htmlContent);
-
-                    String codigoUasgStr = extractTextByRegex(htmlContent, "C\\u00F3digo da UASG: (\\d+)");
-                    Integer codigoUasg = codigoUasgStr != null ? Integer.parseInt(codigoUasgStr) : null;
-
-                    String numeroPregao = extractTextByRegex(htmlContent, "Preg\\u00E3o Eletr\\u00F4nico N\\u00BA\\s*(\\d+\\/\\d{4})");
-
-                    String objeto = extractTextByRegex(htmlContent, "<b>Objeto:</b>\\s*.*?\\s*([\\s\\S]*?)(?=<br><b>Edital a partir de:</b>)");
-                    if (objeto != null) { objeto = objeto.trim(); }
-
-                    String dataAbertura = extractTextByRegex(htmlContent, "Edital a partir de:</b>&nbsp;(\\d{2}\\/\\d{2}\\/\\d{4})");
-                    String modalidade = "Pregão Eletrônico";
-                    String endereco = extractTextByRegex(htmlContent, "Endere\\u00E7o:</b>\\s*([\\s\\S]*?)(?=<br><b>Telefone:</b>)");
-                    if (endereco != null) { endereco = endereco.trim().replaceAll("\\s{2,}", " ").replace("-", "").trim(); }
-
-                    Element itensButton = form.selectFirst("input[name=itens]");
-                    String codUasgItem = null;
-                    String modPrpItem = null;
-                    String numPrpItem = null;
-
-                    if (itensButton != null) {
-                        String onClick = itensButton.attr("onClick");
-                        Pattern pattern = Pattern.compile("coduasg=(\\d+)&modprp=(\\d+)&numprp=(\\d+)");
-                        Matcher matcher = pattern.matcher(onClick);
-                        if (matcher.find()) {
-                            codUasgItem = matcher.group(1);
-                            modPrpItem = matcher.group(2);
-                            numPrpItem = matcher.group(3);
-                        }
-                    }
-
-                    if (codigoUasg != null && numeroPregao != null && objeto != null && dataAbertura != null && endereco != null) {
-                        if (!repository.existsByCodigoUasgAndNumeroPregao(codigoUasg, numeroPregao)) {
-                            Licitacao licitacao = new Licitacao(
-                                    codigoUasg, numeroPregao, objeto, dataAbertura, modalidade, endereco);
-
-                            if (codUasgItem != null && modPrpItem != null && numPrpItem != null) {
-                                List<ItemLicitacao> itens = extrairItensLicitacao(codUasgItem, modPrpItem, numPrpItem);
-                                for (ItemLicitacao item : itens) {
-                                    licitacao.addItem(item);
-                                }
-                            }
-                            novasLicitacoes.add(licitacao);
-                        }
-                    } else {
-                        logger.warn("Dados incompletos para uma licitação (UASG, Pregão, Objeto, Data Abertura ou Endereço ausente).");
-                    }
-
-                } catch (Exception e) {
-                    logger.error("Erro ao parsear formulário de licitação: {}", form.html(), e);
+    private MetricasCaptura.DesfechoCaptura executarCaptura(Observation captura) {
+        boolean listagemAnteriorProcessada = ultimaCapturaCompleta;
+        ultimaCapturaCompleta = false;
+        try {
+            List<LicitacaoCapturada> candidatas = new ArrayList<>();
+            int formularios;
+            try (PaginaBaixada listagem = buscarPagina(licitacoesUrl, MetricasCaptura.TipoPagina.LISTAGEM)) {
+                if (listagem.inalterada() && listagemAnteriorProcessada) {
+                    logger.info("Listagem do ComprasNet inalterada desde a última captura");
+                    ultimaCapturaCompleta = true;
+                    return MetricasCaptura.DesfechoCaptura.INALTERADA;
                 }
+                Reader reader = new InputStreamReader(listagem.corpo(), StandardCharsets.ISO_8859_1);
+                formularios = parser.parseListagem(reader, licitacoesUrl, candidatas::add);
             }
+            ResultadoCaptura resultado = capturar(formularios, candidatas, LimitadorDeTaxa.SEM_LIMITE);
 
-            logger.info("Total de novas licitações para salvar: {}", novasLicitacoes.size());
-
-            if (!novasLicitacoes.isEmpty()) {
-                repository.saveAll(novasLicitacoes);
-                logger.info("Capturadas {} novas licitações do ComprasNet", novasLicitacoes.size());
+            if (resultado.gravadas() > 0) {
+                logger.info("Gravadas {} licitações novas ou alteradas do ComprasNet", resultado.gravadas());
             } else {
-                logger.info("Nenhuma nova licitação encontrada no ComprasNet");
+                logger.info("Nenhuma licitação nova ou alterada no ComprasNet");
             }
+            ultimaCapturaCompleta = resultado.falhas() == 0;
+
+            ResponseCache.Estatisticas cache = fetcher.estatisticasDoCache();
+            logger.info("Cache de páginas: {} acertos, {} falhas, {} remoções, {} entradas ({} bytes)",
+                    cache.acertos(), cache.falhas(), cache.remocoes(), cache.entradas(), cache.bytes());
+            return ultimaCapturaCompleta ? MetricasCaptura.DesfechoCaptura.SUCESSO : MetricasCaptura.DesfechoCaptura.COM_FALHAS;
 
         } catch (IOException e) {
+            captura.error(e);
             logger.error("Erro ao conectar ou ler a página do ComprasNet", e);
         } catch (Exception e) {
+            captura.error(e);
             logger.error("Erro inesperado ao capturar licitações via scraping", e);
         }
+        return MetricasCaptura.DesfechoCaptura.ERRO;
     }
 
-    private String extractTextByRegex(String html, String regex) {
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(html);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+    /**
+     * Captura uma página de listagem qualquer do ComprasNet (por exemplo, uma página da consulta
+     * por período usada no backfill) pelo mesmo pipeline da captura agendada. Cada busca, da
+     * listagem e das páginas de itens, espera a vez no {@code limitador}.
+     */
+    public ResultadoCaptura capturarListagem(String url, LimitadorDeTaxa limitador) throws IOException, InterruptedException {
+        limitador.aguardar();
+        List<LicitacaoCapturada> candidatas = new ArrayList<>();
+        int formularios;
+        try (PaginaBaixada listagem = buscarPagina(url, MetricasCaptura.TipoPagina.RELACAO)) {
+            Reader reader = new InputStreamReader(listagem.corpo(), StandardCharsets.ISO_8859_1);
+            formularios = parser.parseListagem(reader, url, candidatas::add);
         }
-        return null;
+        return capturar(formularios, candidatas, limitador);
     }
 
-    private List<ItemLicitacao> extrairItensLicitacao(String codUasg, String modPrp, String numPrp) throws IOException {
-        String itemDetailsUrl = String.format(COMPRASNET_DETALHES_URL_FORMAT, codUasg, modPrp, numPrp);
-
-        Connection.Response itemResponse = Jsoup.connect(itemDetailsUrl)
-                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/108.0.0.0 Safari/537.36")
-                .timeout(60 * 1000)
-                .execute();
+    private ResultadoCaptura capturar(int formularios, List<LicitacaoCapturada> candidatas, LimitadorDeTaxa limitador) {
+        List<LicitacaoCapturada> consultasPendentes = removerRepetidas(candidatas);
+        metricas.licitacoes(MetricasCaptura.ResultadoLicitacao.REPETIDA, candidatas.size() - consultasPendentes.size());
+        logger.info("Total de licitações para conferir: {}", consultasPendentes.size());
 
-        Document itemDoc = Jsoup.parse(new ByteArrayInputStream(itemResponse.bodyAsBytes()), "iso-8859-1", itemDetailsUrl);
+        ResultadoGravacao resultado = buscarItensEGravar(consultasPendentes, limitador);
+        int paginasDeItens = (int) consultasPendentes.stream().filter(LicitacaoCapturada::possuiItens).count();
+        return new ResultadoCaptura(formularios, candidatas.size(), 1 + paginasDeItens, resultado.gravadas(),
+                resultado.falhas());
+    }
 
-        List<ItemLicitacao> itens = new ArrayList<>();
+    /**
+     * Descarta as licitações repetidas na própria página, que o upsert não aceita no mesmo lote.
+     */
+    private List<LicitacaoCapturada> removerRepetidas(List<LicitacaoCapturada> candidatas) {
+        Map<ChaveLicitacao, LicitacaoCapturada> porChave = new LinkedHashMap<>();
+        for (LicitacaoCapturada candidata : candidatas) {
+            porChave.putIfAbsent(candidata.chave(), candidata);
+        }
+        return new ArrayList<>(porChave.values());
+    }
 
-        // Seleciona diretamente as TDs que contêm os detalhes dos itens.
-        // Essas TDs estão dentro de uma tabela com width='100%' que por sua vez está dentro de uma TD com class='tex3'
-        Elements itemDetailCells = itemDoc.select("td.tex3 table[width='100%'] td[width='650']");
+    /**
+     * Busca as páginas de itens em paralelo, respeitando o limite de conexões por host, e grava as
+     * licitações em lotes à medida que as buscas terminam, sem esperar pela captura inteira.
+     * Licitações com cabeçalho e página de itens inalterados ficam fora dos lotes. Licitações cuja
+     * busca de itens falhar são descartadas e voltam a ser tentadas na próxima execução.
+     */
+    private ResultadoGravacao buscarItensEGravar(List<LicitacaoCapturada> consultas, LimitadorDeTaxa limitador) {
+        List<String> cabecalhos = new ArrayList<>(consultas.size());
+        List<CompletableFuture<Optional<List<ItemLicitacao>>>> futuros = new ArrayList<>(consultas.size());
+        for (LicitacaoCapturada consulta : consultas) {
+            // sem itens ainda, o hash do conteúdo cobre só o cabeçalho
+            String cabecalho = consulta.licitacao().calcularHashConteudo();
+            boolean cabecalhoConferido = cabecalho.equals(cabecalhosConferidos.asMap().remove(consulta.chave()));
+            cabecalhos.add(cabecalho);
+            futuros.add(consulta.possuiItens()
+                    ? CompletableFuture.supplyAsync(() -> buscarItens(consulta, cabecalhoConferido, limitador), scrapingExecutor)
+                    : CompletableFuture.completedFuture(cabecalhoConferido ? Optional.empty() : Optional.of(List.of())));
+        }
 
-        for (Element itemCell : itemDetailCells) {
+        int gravadas = 0;
+        int falhas = 0;
+        int inalteradas = 0;
+        List<Licitacao> lote = new ArrayList<>(persistBatchSize);
+        Map<ChaveLicitacao, String> cabecalhosDoLote = new LinkedHashMap<>();
+        for (int i = 0; i < consultas.size(); i++) {
+            LicitacaoCapturada consulta = consultas.get(i);
+            Licitacao licitacao = consulta.licitacao();
             try {
-                // Pula se for uma seção de "Grupos"
-                if (itemCell.selectFirst("span.tex3b:contains(Grupos)") != null) {
-                    logger.debug("Pulando seção 'Grupos'. HTML: {}", itemCell.html());
-                    continue;
+                Optional<List<ItemLicitacao>> itens = futuros.get(i).join();
+                if (itens.isPresent()) {
+                    itens.get().forEach(licitacao::addItem);
+                    lote.add(licitacao);
+                    cabecalhosDoLote.put(consulta.chave(), cabecalhos.get(i));
+                } else {
+                    cabecalhosConferidos.put(consulta.chave(), cabecalhos.get(i));
+                    inalteradas++;
                 }
+            } catch (CompletionException e) {
+                falhas++;
+                logger.error("Erro ao buscar itens da licitação UASG {} pregão {}",
+                        licitacao.getCodigoUasg(), licitacao.getNumeroPregao(), e.getCause());
+            }
 
-                logger.debug("Processando itemCell: {}", itemCell.html());
-
-                Integer numeroItem = null;
-                String descricao = null;
-                Integer quantidade = null;
-                String unidadeFornecimento = null;
-
-                // Pega o span.tex3b para número e descrição
-                String numeroItemDescricao = itemCell.selectFirst("span.tex3b") != null ? itemCell.selectFirst("span.tex3b").text() : null;
-                logger.debug("numeroItemDescricao bruto: {}", numeroItemDescricao);
-
-                // Pega o span.tex3 para descrição detalhada, quantidade e unidade
-                String descricaoDetalhadaCompleta = itemCell.selectFirst("span.tex3") != null ? itemCell.selectFirst("span.tex3").html() : null;
-                logger.debug("descricaoDetalhadaCompleta bruta: {}", descricaoDetalhadaCompleta);
-
-                if (numeroItemDescricao != null) {
-                    Pattern numeroDescricaoPattern = Pattern.compile("(\\d+) - (.*)");
-                    Matcher numeroDescricaoMatcher = numeroDescricaoPattern.matcher(numeroItemDescricao);
-                    if (numeroDescricaoMatcher.find()) {
-                        logger.debug("Numero/Descricao Matcher found. Group 1: {}, Group 2: {}", numeroDescricaoMatcher.group(1), numeroDescricaoMatcher.group(2));
-                        numeroItem = Integer.parseInt(numeroDescricaoMatcher.group(1));
-                        descricao = numeroDescricaoMatcher.group(2).trim();
-                    } else {
-                        logger.warn("Regex para Numero/Descricao não encontrou correspondência em: {}", numeroItemDescricao);
-                    }
-                }
+            if (lote.size() == persistBatchSize) {
+                gravadas += gravarLote(lote, cabecalhosDoLote);
+                lote = new ArrayList<>(persistBatchSize);
+                cabecalhosDoLote = new LinkedHashMap<>();
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravadas += gravarLote(lote, cabecalhosDoLote);
+        }
+        if (inalteradas > 0) {
+            logger.debug("{} licitações com cabeçalho e itens inalterados ficaram fora dos lotes", inalteradas);
+        }
+        metricas.licitacoes(MetricasCaptura.ResultadoLicitacao.INALTERADA, inalteradas);
+        metricas.licitacoes(MetricasCaptura.ResultadoLicitacao.FALHA_ITENS, falhas);
+        return new ResultadoGravacao(gravadas, falhas);
+    }
 
-                if (descricaoDetalhadaCompleta != null) {
-                    Pattern quantidadePattern = Pattern.compile("Quantidade: (\\d+)");
-                    Matcher quantidadeMatcher = quantidadePattern.matcher(descricaoDetalhadaCompleta);
-                    if (quantidadeMatcher.find()) {
-                        logger.debug("Quantidade Matcher found. Group 1: {}", quantidadeMatcher.group(1));
-                        quantidade = Integer.parseInt(quantidadeMatcher.group(1));
-                    } else {
-                        logger.warn("Regex para Quantidade não encontrou correspondência em: {}", descricaoDetalhadaCompleta);
-                    }
-
-                    Pattern unidadeFornecimentoPattern = Pattern.compile("Unidade de fornecimento: ([^<]+)");
-                    Matcher unidadeFornecimentoMatcher = unidadeFornecimentoPattern.matcher(descricaoDetalhadaCompleta);
-                    if (unidadeFornecimentoMatcher.find()) {
-                        logger.debug("Unidade de Fornecimento Matcher found. Group 1: {}", unidadeFornecimentoMatcher.group(1));
-                        unidadeFornecimento = unidadeFornecimentoMatcher.group(1).trim();
-                    } else {
-                        logger.warn("Regex para Unidade de Fornecimento não encontrou correspondência em: {}", descricaoDetalhadaCompleta);
-                    }
-                }
+    /**
+     * Grava o lote numa transação curta e, depois do commit, invalida os caches de leitura das
+     * licitações inseridas ou alteradas e publica {@link LoteGravado} para o feed. Os cabeçalhos do lote
+     * passam a contar como conferidos.
+     */
+    private int gravarLote(List<Licitacao> lote, Map<ChaveLicitacao, String> cabecalhosDoLote) {
+        Timer.Sample inicio = metricas.iniciar();
+        LicitacaoBatchWriter.Resultado resultado = batchWriter.gravarLote(lote);
+        metricas.loteGravado(inicio);
+        cabecalhosConferidos.putAll(cabecalhosDoLote);
+        metricas.licitacoes(MetricasCaptura.ResultadoLicitacao.INSERIDA, resultado.inseridas().size());
+        metricas.licitacoes(MetricasCaptura.ResultadoLicitacao.ALTERADA, resultado.atualizadas().size());
+        metricas.licitacoes(MetricasCaptura.ResultadoLicitacao.INALTERADA, lote.size() - resultado.gravadas());
+        logger.debug("Lote de {} licitações gravado: {} inseridas, {} alteradas", lote.size(),
+                resultado.inseridas().size(), resultado.atualizadas().size());
+        if (resultado.gravadas() > 0) {
+            cacheInvalidator.licitacoesGravadas(resultado.ids());
+            eventos.publishEvent(new LoteGravado(resultado.ids()));
+        }
+        return resultado.gravadas();
+    }
 
-                if (numeroItem != null && descricao != null && quantidade != null && unidadeFornecimento != null) {
-                    ItemLicitacao itemLicitacao = new ItemLicitacao();
-                    itemLicitacao.setNumeroItem(numeroItem);
-                    itemLicitacao.setDescricao(descricao);
-                    itemLicitacao.setQuantidade(quantidade);
-                    itemLicitacao.setUnidadeFornecimento(unidadeFornecimento);
-                    itens.add(itemLicitacao);
-                } else {
-                    logger.warn("Dados incompletos para um item da licitação. Numero: {}, Descricao: {}, Quantidade: {}, Unidade: {}",
-                            numeroItem, descricao, quantidade, unidadeFornecimento);
-                }
-            } catch (Exception e) {
-                logger.error("Erro ao processar item: {}", itemCell.html(), e);
+    /**
+     * Itens da licitação, ou vazio quando o cabeçalho já foi conferido e a página de itens não mudou.
+     */
+    private Optional<List<ItemLicitacao>> buscarItens(LicitacaoCapturada consulta, boolean cabecalhoConferido,
+                                                      LimitadorDeTaxa limitador) {
+        String itemDetailsUrl = String.format(detalhesUrlFormat, consulta.codUasg(), consulta.modPrp(), consulta.numPrp());
+        try {
+            // espera a vez antes de ocupar uma conexão do host
+            limitador.aguardar();
+            return hostConcurrencyLimiter.execute(itemDetailsUrl,
+                    () -> extrairItensLicitacao(itemDetailsUrl, cabecalhoConferido));
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private Optional<List<ItemLicitacao>> extrairItensLicitacao(String itemDetailsUrl, boolean cabecalhoConferido)
+            throws IOException {
+        try (PaginaBaixada pagina = buscarPagina(itemDetailsUrl, MetricasCaptura.TipoPagina.ITENS)) {
+            if (cabecalhoConferido && pagina.inalterada()) {
+                return Optional.empty();
             }
+            Document itemDoc = Jsoup.parse(pagina.corpo(), "iso-8859-1", itemDetailsUrl);
+            return Optional.of(parser.parseItens(itemDoc));
         }
+    }
+
+    private PaginaBaixada buscarPagina(String url, MetricasCaptura.TipoPagina tipo) throws IOException {
+        Timer.Sample inicio = metricas.iniciar();
+        try {
+            PaginaBaixada pagina = fetcher.buscar(url);
+            metricas.paginaBuscada(inicio, tipo, pagina.inalterada());
+            return pagina;
+        } catch (IOException | RuntimeException e) {
+            metricas.paginaComErro(inicio, tipo);
+            throw e;
+        }
+    }
 
-        return itens;
+    private record ResultadoGravacao(int gravadas, int falhas) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.infrastructure.config.ScrapingProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limita o número de requisições simultâneas por host, independente do tamanho do pool de threads.
+ */
+@Component
+public class HostConcurrencyLimiter {
+
+    private final int permitsPerHost;
+    private final ConcurrentMap<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+
+    public HostConcurrencyLimiter(ScrapingProperties properties) {
+        this.permitsPerHost = properties.maxConcurrencyPerHost();
+    }
+
+    public <T> T execute(String url, Callable<T> task) throws Exception {
+        Semaphore semaphore = semaphores.computeIfAbsent(hostOf(url), host -> new Semaphore(permitsPerHost, true));
+        semaphore.acquire();
+        try {
+            return task.call();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private String hostOf(String url) {
+        String host = URI.create(url).getHost();
+        return host != null ? host.toLowerCase() : "";
+    }
+}
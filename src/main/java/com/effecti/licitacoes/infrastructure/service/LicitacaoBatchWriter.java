@@ -0,0 +1,255 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.domain.entity.EventoLicitacao;
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.ChaveLicitacao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grava cada lote da captura em uma transação própria e curta, para que a conexão com o banco
+ * só fique ocupada durante a escrita e um erro tardio não desfaça os lotes anteriores.
+ * <p>
+ * O lote inteiro vai num único upsert do PostgreSQL ({@code INSERT ... ON CONFLICT DO UPDATE}) com
+ * as colunas em arrays: licitações novas são inseridas, as já cadastradas só são atualizadas se o
+ * {@link Licitacao#calcularHashConteudo() hash do conteúdo} mudou, e as iguais não geram escrita.
+ * Nada é carregado para comparar. Os itens das licitações inseridas ou alteradas passam por mais dois
+ * comandos por lote: um upsert por (licitação, número do item), que mantém o id dos itens já gravados
+ * (e com ele o cursor de {@code /api/itens}), e a remoção só dos números que sumiram da página.
+ * <p>
+ * Cada licitação gravada também gera um {@link EventoLicitacao} na mesma transação, que alimenta o
+ * feed de {@code /api/licitacoes/stream}.
+ */
+@Component
+public class LicitacaoBatchWriter {
+
+    private static final String UPSERT_LICITACOES = """
+            INSERT INTO licitacoes (id, codigo_uasg, numero_pregao, objeto, data_abertura, modalidade, endereco,
+                                    hash_conteudo, criado_em, atualizado_em)
+            SELECT nextval('licitacoes_seq'), l.codigo_uasg, l.numero_pregao, l.objeto, l.data_abertura, l.modalidade,
+                   l.endereco, l.hash_conteudo, ?, ?
+              FROM unnest(?::integer[], ?::text[], ?::text[], ?::date[], ?::text[], ?::text[], ?::text[])
+                   AS l(codigo_uasg, numero_pregao, objeto, data_abertura, modalidade, endereco, hash_conteudo)
+            ON CONFLICT (codigo_uasg, numero_pregao) DO UPDATE
+               SET objeto = EXCLUDED.objeto,
+                   data_abertura = EXCLUDED.data_abertura,
+                   modalidade = EXCLUDED.modalidade,
+                   endereco = EXCLUDED.endereco,
+                   hash_conteudo = EXCLUDED.hash_conteudo,
+                   atualizado_em = EXCLUDED.atualizado_em
+             WHERE licitacoes.hash_conteudo IS DISTINCT FROM EXCLUDED.hash_conteudo
+            RETURNING id, codigo_uasg, numero_pregao, xmax = 0 AS inserida
+            """;
+
+    /**
+     * Itens das licitações alteradas cujo número não está mais na página; os demais são atualizados no lugar.
+     */
+    private static final String APAGAR_ITENS_REMOVIDOS = """
+            DELETE FROM item_licitacao i
+             WHERE i.licitacao_id = ANY(?)
+               AND NOT EXISTS (SELECT 1
+                                 FROM unnest(?::bigint[], ?::integer[]) AS m(licitacao_id, numero_item)
+                                WHERE m.licitacao_id = i.licitacao_id AND m.numero_item = i.numero_item)
+            """;
+
+    private static final String UPSERT_ITENS = """
+            INSERT INTO item_licitacao (id, licitacao_id, numero_item, descricao, quantidade, unidade_fornecimento)
+            SELECT nextval('item_licitacao_seq'), i.licitacao_id, i.numero_item, i.descricao, i.quantidade,
+                   i.unidade_fornecimento
+              FROM unnest(?::bigint[], ?::integer[], ?::text[], ?::integer[], ?::text[])
+                   AS i(licitacao_id, numero_item, descricao, quantidade, unidade_fornecimento)
+            ON CONFLICT (licitacao_id, numero_item) DO UPDATE
+               SET descricao = EXCLUDED.descricao,
+                   quantidade = EXCLUDED.quantidade,
+                   unidade_fornecimento = EXCLUDED.unidade_fornecimento
+             WHERE (item_licitacao.descricao, item_licitacao.quantidade, item_licitacao.unidade_fornecimento)
+                   IS DISTINCT FROM (EXCLUDED.descricao, EXCLUDED.quantidade, EXCLUDED.unidade_fornecimento)
+            """;
+
+    /**
+     * Segura até o commit a ordem dos eventos: sem ela, um lote concorrente (do backfill, por exemplo)
+     * poderia confirmar uma sequência menor depois que o feed já entregou uma maior, e quem retoma
+     * pelo {@code Last-Event-ID} nunca a receberia.
+     */
+    private static final String TRAVAR_EVENTOS = "SELECT pg_advisory_xact_lock(hashtext('eventos_licitacao'))";
+
+    /**
+     * O horário vem de {@code clock_timestamp()} sob a trava, e não do início da transação: assim ele
+     * segue a ordem de commit, como a sequência, e serve de marca de atualização das listagens.
+     */
+    private static final String REGISTRAR_EVENTOS = """
+            INSERT INTO eventos_licitacao (sequencia, licitacao_id, tipo, criado_em)
+            SELECT nextval('eventos_licitacao_seq'), e.licitacao_id, e.tipo, clock_timestamp()::timestamp
+              FROM unnest(?::bigint[], ?::text[]) WITH ORDINALITY AS e(licitacao_id, tipo, ordem)
+             ORDER BY e.ordem
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LicitacaoBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insere ou atualiza o lote e devolve os ids das licitações que realmente foram escritas. Chaves
+     * repetidas no lote ficam com a última ocorrência, já que o PostgreSQL não aceita atualizar a
+     * mesma linha duas vezes no mesmo comando.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Resultado gravarLote(List<Licitacao> lote) {
+        Map<ChaveLicitacao, Licitacao> porChave = new LinkedHashMap<>();
+        for (Licitacao licitacao : lote) {
+            licitacao.setHashConteudo(licitacao.calcularHashConteudo());
+            porChave.put(new ChaveLicitacao(licitacao.getCodigoUasg(), licitacao.getNumeroPregao()), licitacao);
+        }
+
+        List<Long> inseridas = new ArrayList<>();
+        List<Long> atualizadas = new ArrayList<>();
+        List<Licitacao> gravadas = new ArrayList<>();
+        jdbcTemplate.query(connection -> upsert(connection, porChave.values()), (RowCallbackHandler) rs -> {
+            Long id = rs.getLong("id");
+            Licitacao licitacao = porChave.get(new ChaveLicitacao((Integer) rs.getObject("codigo_uasg"), rs.getString("numero_pregao")));
+            licitacao.setId(id);
+            gravadas.add(licitacao);
+            (rs.getBoolean("inserida") ? inseridas : atualizadas).add(id);
+        });
+
+        ItensDoLote itens = ItensDoLote.de(gravadas);
+        if (!atualizadas.isEmpty()) {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(APAGAR_ITENS_REMOVIDOS);
+                ps.setArray(1, connection.createArrayOf("bigint", atualizadas.toArray()));
+                ps.setArray(2, connection.createArrayOf("bigint", itens.licitacaoIds().toArray()));
+                ps.setArray(3, connection.createArrayOf("integer", itens.numeros().toArray()));
+                return ps;
+            });
+        }
+        if (!itens.licitacaoIds().isEmpty()) {
+            jdbcTemplate.update(connection -> upsertItens(connection, itens));
+        }
+        if (!gravadas.isEmpty()) {
+            // por último, para segurar a trava só até o commit
+            jdbcTemplate.execute(TRAVAR_EVENTOS);
+            jdbcTemplate.update(connection -> registrarEventos(connection, inseridas, atualizadas));
+        }
+        return new Resultado(inseridas, atualizadas);
+    }
+
+    private PreparedStatement upsert(Connection connection, Collection<Licitacao> licitacoes) throws SQLException {
+        int tamanho = licitacoes.size();
+        Integer[] codigosUasg = new Integer[tamanho];
+        String[] numerosPregao = new String[tamanho];
+        String[] objetos = new String[tamanho];
+        Date[] datasAbertura = new Date[tamanho];
+        String[] modalidades = new String[tamanho];
+        String[] enderecos = new String[tamanho];
+        String[] hashes = new String[tamanho];
+        int i = 0;
+        for (Licitacao licitacao : licitacoes) {
+            codigosUasg[i] = licitacao.getCodigoUasg();
+            numerosPregao[i] = licitacao.getNumeroPregao();
+            objetos[i] = licitacao.getObjeto();
+            datasAbertura[i] = licitacao.getDataAbertura() != null ? Date.valueOf(licitacao.getDataAbertura()) : null;
+            modalidades[i] = licitacao.getModalidade();
+            enderecos[i] = licitacao.getEndereco();
+            hashes[i] = licitacao.getHashConteudo();
+            i++;
+        }
+
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        PreparedStatement ps = connection.prepareStatement(UPSERT_LICITACOES);
+        ps.setTimestamp(1, agora);
+        ps.setTimestamp(2, agora);
+        ps.setArray(3, connection.createArrayOf("integer", codigosUasg));
+        ps.setArray(4, connection.createArrayOf("text", numerosPregao));
+        ps.setArray(5, connection.createArrayOf("text", objetos));
+        ps.setArray(6, connection.createArrayOf("date", datasAbertura));
+        ps.setArray(7, connection.createArrayOf("text", modalidades));
+        ps.setArray(8, connection.createArrayOf("text", enderecos));
+        ps.setArray(9, connection.createArrayOf("text", hashes));
+        return ps;
+    }
+
+    private PreparedStatement upsertItens(Connection connection, ItensDoLote itens) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(UPSERT_ITENS);
+        ps.setArray(1, connection.createArrayOf("bigint", itens.licitacaoIds().toArray()));
+        ps.setArray(2, connection.createArrayOf("integer", itens.numeros().toArray()));
+        ps.setArray(3, connection.createArrayOf("text", itens.descricoes().toArray()));
+        ps.setArray(4, connection.createArrayOf("integer", itens.quantidades().toArray()));
+        ps.setArray(5, connection.createArrayOf("text", itens.unidades().toArray()));
+        return ps;
+    }
+
+    private PreparedStatement registrarEventos(Connection connection, List<Long> inseridas, List<Long> atualizadas)
+            throws SQLException {
+        List<Long> licitacaoIds = new ArrayList<>(inseridas);
+        licitacaoIds.addAll(atualizadas);
+        List<String> tipos = new ArrayList<>();
+        inseridas.forEach(id -> tipos.add(EventoLicitacao.Tipo.INSERIDA.name()));
+        atualizadas.forEach(id -> tipos.add(EventoLicitacao.Tipo.ALTERADA.name()));
+
+        PreparedStatement ps = connection.prepareStatement(REGISTRAR_EVENTOS);
+        ps.setArray(1, connection.createArrayOf("bigint", licitacaoIds.toArray()));
+        ps.setArray(2, connection.createArrayOf("text", tipos.toArray()));
+        return ps;
+    }
+
+    /**
+     * Colunas dos itens das licitações gravadas, uma posição por item. Números repetidos na mesma
+     * licitação ficam com a última ocorrência, pelo mesmo motivo das chaves repetidas no lote.
+     */
+    private record ItensDoLote(List<Long> licitacaoIds, List<Integer> numeros, List<String> descricoes,
+                               List<Integer> quantidades, List<String> unidades) {
+
+        static ItensDoLote de(List<Licitacao> licitacoes) {
+            ItensDoLote itens = new ItensDoLote(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                    new ArrayList<>(), new ArrayList<>());
+            for (Licitacao licitacao : licitacoes) {
+                Map<Integer, ItemLicitacao> porNumero = new LinkedHashMap<>();
+                licitacao.getItens().forEach(item -> porNumero.put(item.getNumeroItem(), item));
+                porNumero.values().forEach(item -> itens.adicionar(licitacao.getId(), item));
+            }
+            return itens;
+        }
+
+        private void adicionar(Long licitacaoId, ItemLicitacao item) {
+            licitacaoIds.add(licitacaoId);
+            numeros.add(item.getNumeroItem());
+            descricoes.add(item.getDescricao());
+            quantidades.add(item.getQuantidade());
+            unidades.add(item.getUnidadeFornecimento());
+        }
+    }
+
+    /**
+     * Ids das licitações inseridas e das já cadastradas cujo conteúdo mudou.
+     */
+    public record Resultado(List<Long> inseridas, List<Long> atualizadas) {
+
+        public int gravadas() {
+            return inseridas.size() + atualizadas.size();
+        }
+
+        public List<Long> ids() {
+            List<Long> ids = new ArrayList<>(inseridas);
+            ids.addAll(atualizadas);
+            return ids;
+        }
+    }
+}
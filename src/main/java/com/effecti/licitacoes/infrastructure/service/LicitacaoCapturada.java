@@ -0,0 +1,22 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.ChaveLicitacao;
+
+/**
+ * Licitação lida da listagem do ComprasNet, junto com os parâmetros da página de itens.
+ */
+public record LicitacaoCapturada(
+        Licitacao licitacao,
+        String codUasg,
+        String modPrp,
+        String numPrp
+) {
+    public ChaveLicitacao chave() {
+        return new ChaveLicitacao(licitacao.getCodigoUasg(), licitacao.getNumeroPregao());
+    }
+
+    public boolean possuiItens() {
+        return codUasg != null && modPrp != null && numPrp != null;
+    }
+}
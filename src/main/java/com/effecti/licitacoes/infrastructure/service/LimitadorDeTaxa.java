@@ -0,0 +1,35 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Espaça as buscas no ComprasNet para no máximo {@code porSegundo} por segundo, somando todas as
+ * threads que compartilham o limitador. Quem chega antes da sua vez dorme até ela.
+ */
+public class LimitadorDeTaxa {
+
+    public static final LimitadorDeTaxa SEM_LIMITE = new LimitadorDeTaxa(0);
+
+    private final long intervaloNanos;
+    private long proximaVez;
+
+    public LimitadorDeTaxa(double porSegundo) {
+        this.intervaloNanos = porSegundo > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo) : 0;
+    }
+
+    public void aguardar() throws InterruptedException {
+        if (intervaloNanos == 0) {
+            return;
+        }
+        long espera;
+        synchronized (this) {
+            long agora = System.nanoTime();
+            long vez = Math.max(proximaVez, agora);
+            proximaVez = vez + intervaloNanos;
+            espera = vez - agora;
+        }
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+}
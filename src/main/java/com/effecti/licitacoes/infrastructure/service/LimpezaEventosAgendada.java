@@ -0,0 +1,38 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.domain.repository.EventoLicitacaoRepository;
+import com.effecti.licitacoes.infrastructure.config.FeedProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Apaga de {@code eventos_licitacao} o que passou de {@link FeedProperties#retencao()}. Roda em todas
+ * as réplicas sem {@link TravaDeAgendamento trava}: a remoção é idempotente, e quem chega depois não
+ * encontra mais nada para apagar.
+ */
+@Component
+public class LimpezaEventosAgendada {
+
+    private static final Logger logger = LoggerFactory.getLogger(LimpezaEventosAgendada.class);
+
+    private final EventoLicitacaoRepository repository;
+    private final FeedProperties properties;
+
+    public LimpezaEventosAgendada(EventoLicitacaoRepository repository, FeedProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void apagarEventosAntigos() {
+        int apagados = repository.apagarRegistradosAntesDe(LocalDateTime.now().minus(properties.retencao()));
+        if (apagados > 0) {
+            logger.info("{} eventos do feed apagados por passarem da retenção de {}", apagados, properties.retencao());
+        }
+    }
+}
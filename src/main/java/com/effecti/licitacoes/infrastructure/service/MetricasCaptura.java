@@ -0,0 +1,172 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métricas do pipeline de captura, publicadas no Actuator em {@code /actuator/metrics}:
+ * <ul>
+ *     <li>{@code comprasnet.captura}: duração de cada captura agendada, com o {@code resultado}. É uma
+ *     {@link Observation}, então vira span quando houver um tracer configurado;</li>
+ *     <li>{@code comprasnet.captura.ultimo.sucesso}: instante (epoch, em segundos) da última captura
+ *     concluída, para alertar quando a captura para de rodar;</li>
+ *     <li>{@code comprasnet.pagina.busca}: tempo de busca por {@code tipo} de página e {@code resultado}
+ *     (baixada, inalterada ou erro);</li>
+ *     <li>{@code comprasnet.parse}: tempo de parse de cada formulário da listagem e de cada célula de item;</li>
+ *     <li>{@code comprasnet.registros.descartados}: formulários e itens descartados por dados incompletos
+ *     ou erro de parse;</li>
+ *     <li>{@code comprasnet.licitacoes}: licitações processadas por {@code resultado} (inserida, alterada,
+ *     inalterada, repetida na página ou descartada por falha nos itens);</li>
+ *     <li>{@code comprasnet.gravacao.lote}: duração de cada lote gravado.</li>
+ * </ul>
+ */
+@Component
+public class MetricasCaptura {
+
+    static final String CAPTURA = "comprasnet.captura";
+    static final String PAGINA_BUSCA = "comprasnet.pagina.busca";
+    static final String PARSE = "comprasnet.parse";
+    static final String REGISTROS_DESCARTADOS = "comprasnet.registros.descartados";
+    static final String LICITACOES = "comprasnet.licitacoes";
+    static final String GRAVACAO_LOTE = "comprasnet.gravacao.lote";
+
+    public enum TipoPagina {
+        LISTAGEM, RELACAO, ITENS
+    }
+
+    public enum Elemento {
+        FORMULARIO, ITEM
+    }
+
+    public enum Descarte {
+        INCOMPLETO, ERRO
+    }
+
+    public enum ResultadoLicitacao {
+        INSERIDA, ALTERADA, INALTERADA, REPETIDA, FALHA_ITENS
+    }
+
+    public enum DesfechoCaptura {
+        SUCESSO, COM_FALHAS, INALTERADA, ERRO
+    }
+
+    private final MeterRegistry registry;
+    private final ObservationRegistry observationRegistry;
+    private final Clock clock;
+    private final AtomicLong ultimoSucesso = new AtomicLong();
+    private final Map<Elemento, Timer> parse = new EnumMap<>(Elemento.class);
+    private final Map<Elemento, Map<Descarte, Counter>> descartados = new EnumMap<>(Elemento.class);
+    private final Map<ResultadoLicitacao, Counter> licitacoes = new EnumMap<>(ResultadoLicitacao.class);
+    private final Timer gravacaoLote;
+
+    @Autowired
+    public MetricasCaptura(MeterRegistry registry, ObservationRegistry observationRegistry) {
+        this(registry, observationRegistry, Clock.systemUTC());
+    }
+
+    MetricasCaptura(MeterRegistry registry, ObservationRegistry observationRegistry, Clock clock) {
+        this.registry = registry;
+        this.observationRegistry = observationRegistry;
+        this.clock = clock;
+
+        // os medidores chamados por formulário e por item são criados uma vez, fora do caminho quente
+        for (Elemento elemento : Elemento.values()) {
+            parse.put(elemento, Timer.builder(PARSE)
+                    .description("Tempo de parse de um formulário da listagem ou de uma célula de item")
+                    .tag("elemento", tag(elemento))
+                    .register(registry));
+            Map<Descarte, Counter> porMotivo = new EnumMap<>(Descarte.class);
+            for (Descarte motivo : Descarte.values()) {
+                porMotivo.put(motivo, Counter.builder(REGISTROS_DESCARTADOS)
+                        .description("Formulários e itens descartados no parse")
+                        .tag("elemento", tag(elemento))
+                        .tag("motivo", tag(motivo))
+                        .register(registry));
+            }
+            descartados.put(elemento, porMotivo);
+        }
+        for (ResultadoLicitacao resultado : ResultadoLicitacao.values()) {
+            licitacoes.put(resultado, Counter.builder(LICITACOES)
+                    .description("Licitações lidas do ComprasNet, por resultado da gravação")
+                    .tag("resultado", tag(resultado))
+                    .register(registry));
+        }
+        gravacaoLote = Timer.builder(GRAVACAO_LOTE)
+                .description("Tempo de gravação de um lote de licitações")
+                .register(registry);
+        Gauge.builder(CAPTURA + ".ultimo.sucesso", ultimoSucesso, AtomicLong::get)
+                .description("Instante da última captura concluída")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    public Timer.Sample iniciar() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Observação de uma captura agendada. O chamador registra o resultado com {@link #capturaConcluida}
+     * antes de encerrá-la.
+     */
+    public Observation novaCaptura() {
+        return Observation.createNotStarted(CAPTURA, observationRegistry)
+                .contextualName("captura-comprasnet");
+    }
+
+    public void capturaConcluida(Observation captura, DesfechoCaptura resultado) {
+        captura.lowCardinalityKeyValue("resultado", tag(resultado));
+        if (resultado != DesfechoCaptura.ERRO) {
+            ultimoSucesso.set(clock.instant().getEpochSecond());
+        }
+    }
+
+    public void paginaBuscada(Timer.Sample inicio, TipoPagina tipo, boolean inalterada) {
+        inicio.stop(timerDeBusca(tipo, inalterada ? "inalterada" : "baixada"));
+    }
+
+    public void paginaComErro(Timer.Sample inicio, TipoPagina tipo) {
+        inicio.stop(timerDeBusca(tipo, "erro"));
+    }
+
+    public void elementoLido(Timer.Sample inicio, Elemento elemento) {
+        inicio.stop(parse.get(elemento));
+    }
+
+    public void registroDescartado(Elemento elemento, Descarte motivo) {
+        descartados.get(elemento).get(motivo).increment();
+    }
+
+    public void licitacoes(ResultadoLicitacao resultado, int quantidade) {
+        if (quantidade > 0) {
+            licitacoes.get(resultado).increment(quantidade);
+        }
+    }
+
+    public void loteGravado(Timer.Sample inicio) {
+        inicio.stop(gravacaoLote);
+    }
+
+    private Timer timerDeBusca(TipoPagina tipo, String resultado) {
+        return Timer.builder(PAGINA_BUSCA)
+                .description("Tempo de busca de uma página do ComprasNet")
+                .tag("tipo", tag(tipo))
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    private static String tag(Enum<?> valor) {
+        return valor.name().toLowerCase(Locale.ROOT);
+    }
+}
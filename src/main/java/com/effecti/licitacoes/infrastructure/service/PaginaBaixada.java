@@ -0,0 +1,21 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Corpo de uma página obtida pelo {@link ComprasNetPageFetcher}, lido do cache em disco.
+ * {@code inalterada} indica que o conteúdo é o mesmo da busca anterior da mesma URL.
+ */
+public record PaginaBaixada(
+        String url,
+        InputStream corpo,
+        boolean inalterada
+) implements Closeable {
+
+    @Override
+    public void close() throws IOException {
+        corpo.close();
+    }
+}
@@ -0,0 +1,242 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.infrastructure.config.ResponseCacheProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guarda em disco o último corpo recebido de cada URL, junto com os validadores HTTP
+ * ({@code ETag}/{@code Last-Modified}) e o hash SHA-256 do conteúdo.
+ * <p>
+ * Cada entrada ocupa dois arquivos nomeados pelo hash da URL: {@code .body} com o corpo e
+ * {@code .meta} com os metadados. O índice fica em memória em ordem de acesso e, quando o total
+ * ultrapassa {@code comprasnet.cache.max-size}, as entradas menos usadas são removidas. Na
+ * inicialização o índice é reconstruído a partir dos arquivos existentes.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+
+    private static final String EXTENSAO_CORPO = ".body";
+    private static final String EXTENSAO_META = ".meta";
+
+    public record Entrada(String url, String etag, String lastModified, String hash, long tamanho) {
+    }
+
+    public record Estatisticas(long acertos, long falhas, long remocoes, int entradas, long bytes) {
+    }
+
+    private final Path diretorio;
+    private final long tamanhoMaximo;
+
+    private final LinkedHashMap<String, Entrada> indice = new LinkedHashMap<>(16, 0.75f, true);
+    private long tamanhoTotal;
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong remocoes = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.diretorio = properties.directory();
+        this.tamanhoMaximo = properties.maxSize().toBytes();
+        try {
+            Files.createDirectories(diretorio);
+            carregarIndice();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível preparar o cache de páginas em " + diretorio, e);
+        }
+    }
+
+    public synchronized Optional<Entrada> buscar(String url) {
+        return Optional.ofNullable(indice.get(chave(url)));
+    }
+
+    /**
+     * Abre o corpo guardado para a URL, se ele ainda estiver no cache.
+     */
+    public synchronized Optional<InputStream> abrir(String url) throws IOException {
+        String chave = chave(url);
+        if (!indice.containsKey(chave)) {
+            return Optional.empty();
+        }
+        Path corpo = arquivoCorpo(chave);
+        Files.setLastModifiedTime(corpo, FileTime.fromMillis(System.currentTimeMillis()));
+        return Optional.of(Files.newInputStream(corpo));
+    }
+
+    /**
+     * Arquivo temporário no diretório do cache, para que {@link #gravar} possa movê-lo sem cópia.
+     */
+    public Path criarArquivoTemporario() throws IOException {
+        return Files.createTempFile(diretorio, "download-", ".tmp");
+    }
+
+    /**
+     * Substitui a entrada da URL pelo corpo já baixado em {@code temporario} e devolve o corpo aberto
+     * para leitura. O arquivo continua legível por quem o abriu mesmo que seja removido depois.
+     */
+    public synchronized InputStream gravar(String url, Path temporario, String etag, String lastModified, String hash)
+            throws IOException {
+        String chave = chave(url);
+        Entrada entrada = new Entrada(url, etag, lastModified, hash, Files.size(temporario));
+
+        Files.move(temporario, arquivoCorpo(chave), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        gravarMeta(chave, entrada);
+
+        Entrada anterior = indice.put(chave, entrada);
+        tamanhoTotal += entrada.tamanho() - (anterior != null ? anterior.tamanho() : 0);
+
+        InputStream corpo = Files.newInputStream(arquivoCorpo(chave));
+        removerExcedente(chave);
+        return corpo;
+    }
+
+    public void registrarAcerto() {
+        acertos.incrementAndGet();
+    }
+
+    public void registrarFalha() {
+        falhas.incrementAndGet();
+    }
+
+    public synchronized Estatisticas estatisticas() {
+        return new Estatisticas(acertos.get(), falhas.get(), remocoes.get(), indice.size(), tamanhoTotal);
+    }
+
+    static String hash(byte[] conteudo) {
+        return HexFormat.of().formatHex(novoDigest().digest(conteudo));
+    }
+
+    static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Remove as entradas menos usadas até caber no limite, preservando a que acabou de ser gravada.
+     */
+    private void removerExcedente(String preservada) {
+        Iterator<Map.Entry<String, Entrada>> iterator = indice.entrySet().iterator();
+        while (tamanhoTotal > tamanhoMaximo && iterator.hasNext()) {
+            Map.Entry<String, Entrada> maisAntiga = iterator.next();
+            if (maisAntiga.getKey().equals(preservada)) {
+                continue;
+            }
+            iterator.remove();
+            tamanhoTotal -= maisAntiga.getValue().tamanho();
+            remocoes.incrementAndGet();
+            try {
+                Files.deleteIfExists(arquivoCorpo(maisAntiga.getKey()));
+                Files.deleteIfExists(arquivoMeta(maisAntiga.getKey()));
+            } catch (IOException e) {
+                logger.warn("Não foi possível remover a entrada de cache de {}", maisAntiga.getValue().url(), e);
+            }
+        }
+    }
+
+    private void carregarIndice() throws IOException {
+        // downloads interrompidos por uma parada da aplicação
+        try (DirectoryStream<Path> temporarios = Files.newDirectoryStream(diretorio, "download-*.tmp")) {
+            for (Path temporario : temporarios) {
+                Files.deleteIfExists(temporario);
+            }
+        }
+
+        List<Path> metas = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*" + EXTENSAO_META)) {
+            arquivos.forEach(metas::add);
+        }
+        // do acesso mais antigo para o mais recente, para manter a ordem LRU
+        metas.sort(Comparator.comparing(this::ultimoAcesso));
+
+        for (Path meta : metas) {
+            String nome = meta.getFileName().toString();
+            String chave = nome.substring(0, nome.length() - EXTENSAO_META.length());
+            if (!Files.exists(arquivoCorpo(chave))) {
+                Files.delete(meta);
+                continue;
+            }
+            Entrada entrada = lerMeta(meta);
+            indice.put(chave, entrada);
+            tamanhoTotal += entrada.tamanho();
+        }
+        removerExcedente(null);
+        logger.debug("Cache de páginas carregado de {}: {} entradas, {} bytes", diretorio, indice.size(), tamanhoTotal);
+    }
+
+    private Path arquivoCorpo(String chave) {
+        return diretorio.resolve(chave + EXTENSAO_CORPO);
+    }
+
+    private Path arquivoMeta(String chave) {
+        return diretorio.resolve(chave + EXTENSAO_META);
+    }
+
+    private FileTime ultimoAcesso(Path meta) {
+        String nome = meta.getFileName().toString();
+        Path corpo = arquivoCorpo(nome.substring(0, nome.length() - EXTENSAO_META.length()));
+        try {
+            return Files.getLastModifiedTime(Files.exists(corpo) ? corpo : meta);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void gravarMeta(String chave, Entrada entrada) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("url", entrada.url());
+        meta.setProperty("hash", entrada.hash());
+        meta.setProperty("tamanho", Long.toString(entrada.tamanho()));
+        if (entrada.etag() != null) {
+            meta.setProperty("etag", entrada.etag());
+        }
+        if (entrada.lastModified() != null) {
+            meta.setProperty("lastModified", entrada.lastModified());
+        }
+        try (Writer writer = Files.newBufferedWriter(arquivoMeta(chave), StandardCharsets.UTF_8)) {
+            meta.store(writer, null);
+        }
+    }
+
+    private static Entrada lerMeta(Path arquivo) throws IOException {
+        Properties meta = new Properties();
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            meta.load(reader);
+        }
+        return new Entrada(meta.getProperty("url"), meta.getProperty("etag"), meta.getProperty("lastModified"),
+                meta.getProperty("hash"), Long.parseLong(meta.getProperty("tamanho")));
+    }
+
+    private static String chave(String url) {
+        return hash(url.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,14 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+/**
+ * Resultado da captura de uma página de listagem.
+ *
+ * @param formularios formulários de licitação na página, inclusive os descartados pelo parser; zero
+ *                    indica que a consulta não tem mais páginas
+ * @param encontradas licitações lidas na listagem, já cadastradas ou não
+ * @param paginasBuscadas páginas baixadas: a listagem mais as páginas de itens
+ * @param gravadas licitações novas gravadas
+ * @param falhas licitações descartadas porque a busca dos itens falhou
+ */
+public record ResultadoCaptura(int formularios, int encontradas, int paginasBuscadas, int gravadas, int falhas) {
+}
@@ -0,0 +1,140 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.domain.repository.TravaAgendamentoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Garante que uma tarefa agendada rode em uma réplica por vez, com uma trava por tarefa na tabela
+ * {@code travas_agendamento}. A trava tem prazo: se a réplica dona cair, outra assume quando ele
+ * vence, sem intervenção manual. Enquanto a tarefa roda, a réplica dona renova o prazo a cada terço
+ * dele, então uma execução mais longa que o prazo não perde a trava.
+ * <p>
+ * Nenhuma conexão fica presa enquanto a tarefa roda (ao contrário de um advisory lock de sessão do
+ * PostgreSQL), e o mesmo esquema funciona no H2 dos testes. Os instantes vêm do relógio da
+ * aplicação, então o prazo da trava precisa ser bem maior que a diferença entre os relógios das
+ * réplicas.
+ */
+@Component
+public class TravaDeAgendamento {
+
+    private static final Logger logger = LoggerFactory.getLogger(TravaDeAgendamento.class);
+
+    private final TravaAgendamentoRepository repository;
+    private final Clock clock;
+    private final String dono;
+    private final ScheduledExecutorService renovador;
+
+    @Autowired
+    public TravaDeAgendamento(TravaAgendamentoRepository repository) {
+        this(repository, Clock.systemDefaultZone(),
+                ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    TravaDeAgendamento(TravaAgendamentoRepository repository, Clock clock, String dono) {
+        this.repository = repository;
+        this.clock = clock;
+        this.dono = dono;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("trava-agendamento-");
+        threadFactory.setDaemon(true);
+        this.renovador = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        renovador.shutdownNow();
+    }
+
+    /**
+     * Executa a tarefa se conseguir a trava {@code nome}, que vale {@code travaMaxima} a partir da
+     * última renovação. Ao terminar, a trava continua valendo até completar {@code travaMinima}
+     * desde a aquisição. Retorna {@code false} sem executar quando outra réplica é a dona.
+     */
+    public boolean executar(String nome, Duration travaMaxima, Duration travaMinima, Runnable tarefa) {
+        LocalDateTime adquiridaEm = agora();
+        if (!adquirir(nome, adquiridaEm, adquiridaEm.plus(travaMaxima))) {
+            logger.debug("Tarefa {} em execução em outra réplica", nome);
+            return false;
+        }
+        Renovacao renovacao = new Renovacao(nome, adquiridaEm, travaMaxima);
+        long intervalo = Math.max(travaMaxima.toMillis() / 3, 1);
+        ScheduledFuture<?> agendada = renovador.scheduleAtFixedRate(renovacao, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        try {
+            tarefa.run();
+        } finally {
+            agendada.cancel(false);
+            renovacao.encerrar();
+            LocalDateTime minimo = adquiridaEm.plus(travaMinima);
+            LocalDateTime fim = agora();
+            repository.liberar(nome, dono, adquiridaEm, fim.isAfter(minimo) ? fim : minimo);
+        }
+        return true;
+    }
+
+    private boolean adquirir(String nome, LocalDateTime agora, LocalDateTime expiraEm) {
+        if (repository.tomarSeExpirada(nome, dono, agora, expiraEm) == 1) {
+            return true;
+        }
+        // 0 quando a trava já existe e ainda não venceu, ou outra réplica acabou de criá-la
+        return repository.criar(nome, dono, agora, expiraEm) == 1;
+    }
+
+    /**
+     * Renovação periódica de uma trava adquirida. {@link #encerrar()} espera a renovação em curso, para
+     * que ela não estenda o prazo depois que a tarefa liberou a trava.
+     */
+    private final class Renovacao implements Runnable {
+
+        private final String nome;
+        private final LocalDateTime adquiridaEm;
+        private final Duration travaMaxima;
+        private boolean encerrada;
+
+        Renovacao(String nome, LocalDateTime adquiridaEm, Duration travaMaxima) {
+            this.nome = nome;
+            this.adquiridaEm = adquiridaEm;
+            this.travaMaxima = travaMaxima;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (encerrada) {
+                return;
+            }
+            try {
+                if (repository.renovar(nome, dono, adquiridaEm, agora().plus(travaMaxima)) == 0) {
+                    // a réplica ficou sem renovar por mais que o prazo (pausa longa, banco fora) e perdeu a vez
+                    logger.warn("Trava {} tomada por outra réplica durante a execução", nome);
+                    encerrada = true;
+                }
+            } catch (RuntimeException e) {
+                // tenta de novo no próximo intervalo; o prazo ainda cobre duas renovações perdidas
+                logger.warn("Erro ao renovar a trava {}", nome, e);
+            }
+        }
+
+        synchronized void encerrar() {
+            encerrada = true;
+        }
+    }
+
+    private LocalDateTime agora() {
+        // mesma precisão nas duas pontas, para que liberar() encontre a linha por adquiridaEm
+        return LocalDateTime.now(clock).truncatedTo(ChronoUnit.MILLIS);
+    }
+}
@@ -0,0 +1,52 @@
+package com.effecti.licitacoes.presentation.controller;
+
+import com.effecti.licitacoes.application.dto.BackfillDTO;
+import com.effecti.licitacoes.application.dto.BackfillRequestDTO;
+import com.effecti.licitacoes.application.service.BackfillService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/backfill")
+@Tag(name = "Backfill", description = "Captura retroativa de licitações do ComprasNet")
+public class BackfillController {
+
+    private final BackfillService service;
+
+    public BackfillController(BackfillService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    @Operation(summary = "Iniciar backfill",
+            description = "Captura as licitações publicadas no período e/ou nas UASGs informadas, em segundo plano")
+    public ResponseEntity<BackfillDTO> criar(@RequestBody BackfillRequestDTO request) {
+        BackfillDTO backfill = service.criar(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/backfill/" + backfill.id()))
+                .body(backfill);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar backfill", description = "Progresso do backfill e vazão em páginas por minuto")
+    public ResponseEntity<BackfillDTO> consultar(
+            @Parameter(description = "ID do backfill")
+            @PathVariable Long id
+    ) {
+        return ResponseEntity.ok(service.consultar(id));
+    }
+
+    @PostMapping("/{id}/retomar")
+    @Operation(summary = "Retomar backfill", description = "Reprocessa as unidades que falharam a partir do último checkpoint")
+    public ResponseEntity<BackfillDTO> retomar(
+            @Parameter(description = "ID do backfill")
+            @PathVariable Long id
+    ) {
+        return ResponseEntity.accepted().body(service.retomar(id));
+    }
+}
@@ -0,0 +1,79 @@
+package com.effecti.licitacoes.presentation.controller;
+
+import com.effecti.licitacoes.application.dto.CursorPageResponseDTO;
+import com.effecti.licitacoes.application.dto.ItemResumoDTO;
+import com.effecti.licitacoes.application.dto.TotalPorUnidadeDTO;
+import com.effecti.licitacoes.application.service.ItemLicitacaoService;
+import com.effecti.licitacoes.domain.model.FiltroItem;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/itens")
+@Tag(name = "Itens", description = "Busca e totais dos itens de todas as licitações")
+@CrossOrigin(origins = "*")
+public class ItemLicitacaoController {
+
+    private final ItemLicitacaoService service;
+
+    public ItemLicitacaoController(ItemLicitacaoService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    @Operation(summary = "Buscar itens",
+            description = "Itens de todas as licitações com a identificação da licitação, em ordem de id, paginados "
+                    + "por cursor. Envie o nextCursor recebido para a página seguinte")
+    public ResponseEntity<CursorPageResponseDTO<ItemResumoDTO>> buscar(
+            @Parameter(description = "Termos procurados na descrição do item, com a sintaxe de /api/licitacoes/busca")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Unidades de fornecimento, separadas por vírgula ou repetidas")
+            @RequestParam(required = false) List<String> unidadeFornecimento,
+            @Parameter(description = "Códigos da UASG da licitação, separados por vírgula ou repetidos")
+            @RequestParam(required = false) List<Integer> codigoUasg,
+            @Parameter(description = "Modalidade da licitação (ex.: Pregão Eletrônico)")
+            @RequestParam(required = false) String modalidade,
+            @Parameter(description = "Data de abertura mínima da licitação, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAberturaDe,
+            @Parameter(description = "Data de abertura máxima da licitação, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAberturaAte,
+            @Parameter(description = "Cursor opaco retornado em nextCursor; ausente na primeira página")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        FiltroItem filtro = new FiltroItem(q, unidadeFornecimento, codigoUasg, modalidade,
+                dataAberturaDe, dataAberturaAte);
+        return ResponseEntity.ok(service.buscar(filtro, cursor, size));
+    }
+
+    @GetMapping("/totais-por-unidade")
+    @Operation(summary = "Totais por unidade de fornecimento",
+            description = "Quantidade de itens, de licitações e soma das quantidades por unidade de fornecimento, "
+                    + "calculadas no banco sobre os itens que atendem aos mesmos filtros da busca")
+    public ResponseEntity<List<TotalPorUnidadeDTO>> totalizarPorUnidade(
+            @Parameter(description = "Termos procurados na descrição do item, com a sintaxe de /api/licitacoes/busca")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Unidades de fornecimento, separadas por vírgula ou repetidas")
+            @RequestParam(required = false) List<String> unidadeFornecimento,
+            @Parameter(description = "Códigos da UASG da licitação, separados por vírgula ou repetidos")
+            @RequestParam(required = false) List<Integer> codigoUasg,
+            @Parameter(description = "Modalidade da licitação (ex.: Pregão Eletrônico)")
+            @RequestParam(required = false) String modalidade,
+            @Parameter(description = "Data de abertura mínima da licitação, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAberturaDe,
+            @Parameter(description = "Data de abertura máxima da licitação, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAberturaAte
+    ) {
+        FiltroItem filtro = new FiltroItem(q, unidadeFornecimento, codigoUasg, modalidade,
+                dataAberturaDe, dataAberturaAte);
+        return ResponseEntity.ok(service.totalizarPorUnidade(filtro));
+    }
+}
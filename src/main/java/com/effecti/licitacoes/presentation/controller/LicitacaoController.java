@@ -1,13 +1,38 @@
 package com.effecti.licitacoes.presentation.controller;
 
+import com.effecti.licitacoes.application.dto.CursorPageResponseDTO;
 import com.effecti.licitacoes.application.dto.LicitacaoDTO;
 import com.effecti.licitacoes.application.dto.PageResponseDTO;
+import com.effecti.licitacoes.application.service.FeedLicitacoes;
 import com.effecti.licitacoes.application.service.LicitacaoService;
+import com.effecti.licitacoes.application.service.MarcaAtualizacaoLicitacoes;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/licitacoes")
@@ -15,39 +40,253 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*")
 public class LicitacaoController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final LicitacaoService service;
+    private final MarcaAtualizacaoLicitacoes marcaAtualizacao;
+    private final FeedLicitacoes feed;
+    private final ObjectWriter ndjsonWriter;
 
-    public LicitacaoController(LicitacaoService service) {
+    public LicitacaoController(LicitacaoService service, MarcaAtualizacaoLicitacoes marcaAtualizacao,
+                               FeedLicitacoes feed, ObjectMapper objectMapper) {
         this.service = service;
+        this.marcaAtualizacao = marcaAtualizacao;
+        this.feed = feed;
+        // cada licitação é escrita numa linha do mesmo stream, que só é fechado no fim da exportação
+        this.ndjsonWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @GetMapping
-    @Operation(summary = "Listar licitações", description = "Lista todas as licitações com filtros opcionais")
-    public ResponseEntity<PageResponseDTO<LicitacaoDTO>> listarLicitacoes(
-            @Parameter(description = "Código da UASG para filtro")
-            @RequestParam(required = false) Integer codigoUasg,
+    @Operation(summary = "Listar licitações", description = "Lista todas as licitações com filtros opcionais, "
+            + "por UASG, pregão, modalidade, intervalo de data de abertura e janela de cadastro. "
+            + "Use includeItens=false para omitir os itens ou fields para escolher os campos retornados")
+    public ResponseEntity<PageResponseDTO<?>> listarLicitacoes(
+            @Parameter(description = "Códigos da UASG para filtro, separados por vírgula ou repetidos")
+            @RequestParam(required = false) List<Integer> codigoUasg,
             @Parameter(description = "Número do pregão para filtro")
             @RequestParam(required = false) String numeroPregao,
+            @Parameter(description = "Modalidade para filtro (ex.: Pregão Eletrônico)")
+            @RequestParam(required = false) String modalidade,
+            @Parameter(description = "Data de abertura mínima, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAberturaDe,
+            @Parameter(description = "Data de abertura máxima, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAberturaAte,
+            @Parameter(description = "Cadastradas a partir deste instante, inclusive (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime criadoEmDe,
+            @Parameter(description = "Cadastradas antes deste instante (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime criadoEmAte,
             @Parameter(description = "Número da página")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Tamanho da página")
             @RequestParam(defaultValue = "20") int size,
-            @Parameter(description = "Ordenação (campo,direção)")
-            @RequestParam(required = false) String sort
+            @Parameter(description = "Ordenação (campo,direção). Campos: criadoEm, atualizadoEm, dataAbertura, "
+                    + "codigoUasg, numeroPregao, id; padrão criadoEm,desc")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Campos retornados, separados por vírgula (ex.: id,objeto,itens)")
+            @RequestParam(required = false) List<String> fields,
+            @Parameter(description = "Inclui os itens de cada licitação")
+            @RequestParam(defaultValue = "true") boolean includeItens,
+            WebRequest request
+    ) {
+        Instant marca = marcaAtualizacao.atual();
+        if (request.checkNotModified(etagDaColecao(marca), marca.toEpochMilli())) {
+            return null;
+        }
+        FiltroLicitacao filtro = new FiltroLicitacao(codigoUasg, numeroPregao, modalidade,
+                dataAberturaDe, dataAberturaAte, criadoEmDe, criadoEmAte);
+        PageResponseDTO<?> licitacoes;
+        if (fields != null && !fields.isEmpty()) {
+            List<String> campos = fields.stream()
+                    .map(String::trim)
+                    .filter(campo -> !campo.isEmpty())
+                    .filter(campo -> includeItens || !campo.equals("itens"))
+                    .toList();
+            licitacoes = service.findAllComCampos(filtro, page, size, sort, campos);
+        } else if (!includeItens) {
+            licitacoes = service.findAllSemItens(filtro, page, size, sort);
+        } else {
+            licitacoes = service.findAll(filtro, page, size, sort);
+        }
+        return comValidadores(marca).body(licitacoes);
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Listar licitações por cursor",
+            description = "Paginação por cursor das mais recentes para as mais antigas, sem contagem total. "
+                    + "Envie cursor vazio na primeira página e o nextCursor recebido nas seguintes")
+    public ResponseEntity<CursorPageResponseDTO<LicitacaoDTO>> listarLicitacoesPorCursor(
+            @Parameter(description = "Códigos da UASG para filtro, separados por vírgula ou repetidos")
+            @RequestParam(required = false) List<Integer> codigoUasg,
+            @Parameter(description = "Número do pregão para filtro")
+            @RequestParam(required = false) String numeroPregao,
+            @Parameter(description = "Modalidade para filtro (ex.: Pregão Eletrônico)")
+            @RequestParam(required = false) String modalidade,
+            @Parameter(description = "Data de abertura mínima, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAberturaDe,
+            @Parameter(description = "Data de abertura máxima, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAberturaAte,
+            @Parameter(description = "Cadastradas a partir deste instante, inclusive (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime criadoEmDe,
+            @Parameter(description = "Cadastradas antes deste instante (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime criadoEmAte,
+            @Parameter(description = "Cursor opaco retornado em nextCursor; vazio para a primeira página")
+            @RequestParam String cursor,
+            @Parameter(description = "Tamanho da página")
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request
     ) {
-        PageResponseDTO<LicitacaoDTO> licitacoes = service.findAll(
-                codigoUasg, numeroPregao, page, size, sort
-        );
+        Instant marca = marcaAtualizacao.atual();
+        if (request.checkNotModified(etagDaColecao(marca), marca.toEpochMilli())) {
+            return null;
+        }
+        FiltroLicitacao filtro = new FiltroLicitacao(codigoUasg, numeroPregao, modalidade,
+                dataAberturaDe, dataAberturaAte, criadoEmDe, criadoEmAte);
+        CursorPageResponseDTO<LicitacaoDTO> licitacoes = service.findAllPorCursor(filtro, cursor, size);
+        return comValidadores(marca).body(licitacoes);
+    }
+
+    @GetMapping("/busca")
+    @Operation(summary = "Buscar licitações por texto",
+            description = "Busca no objeto e na descrição dos itens, sem diferenciar acentos, ordenada por relevância. "
+                    + "Aceita aspas para frases, OR e - para excluir termos")
+    public ResponseEntity<PageResponseDTO<LicitacaoDTO>> buscarPorTexto(
+            @Parameter(description = "Termos da busca")
+            @RequestParam String q,
+            @Parameter(description = "Número da página")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamanho da página")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        PageResponseDTO<LicitacaoDTO> licitacoes = service.buscarPorTexto(q, page, size);
         return ResponseEntity.ok(licitacoes);
     }
 
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "Exportar licitações",
+            description = "Exporta todas as licitações com os itens em NDJSON, uma por linha, em ordem de id. "
+                    + "Comprime com gzip quando o cliente envia Accept-Encoding: gzip")
+    public void exportar(
+            @Parameter(description = "Exporta apenas as licitações atualizadas a partir deste instante (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        boolean gzip = aceitaGzip(acceptEncoding);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        try (OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream()) {
+            service.exportar(since, licitacao -> {
+                try {
+                    ndjsonWriter.writeValue(out, licitacao);
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar licitações gravadas",
+            description = "Server-Sent Events com as licitações inseridas ou alteradas pela captura, sem os itens. "
+                    + "Cada evento \"licitacoes\" traz um lote; ao reconectar, o EventSource envia Last-Event-ID "
+                    + "e recebe antes o que foi gravado enquanto esteve desconectado")
+    public SseEmitter acompanhar(
+            @Parameter(description = "Id do último evento recebido, para retomar a partir dele")
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEvento
+    ) {
+        return feed.inscrever(sequencia(ultimoEvento));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar licitação por ID", description = "Retorna uma licitação específica")
     public ResponseEntity<LicitacaoDTO> buscarPorId(
             @Parameter(description = "ID da licitação")
-            @PathVariable Long id
+            @PathVariable Long id,
+            WebRequest request
     ) {
+        // o DTO normalmente vem do cache, então a revalidação não consulta o banco
         LicitacaoDTO licitacao = service.findById(id);
-        return ResponseEntity.ok(licitacao);
+        String etag = "\"" + licitacao.id() + "-" + epochMilli(licitacao.atualizadoEm()) + "\"";
+        if (request.checkNotModified(etag, epochMilli(licitacao.atualizadoEm()))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(epochMilli(licitacao.atualizadoEm()))
+                .body(licitacao);
+    }
+
+    /**
+     * ETag fraca: a listagem só muda quando a marca avança, mas empates na ordenação podem
+     * trocar a ordem dos registros entre duas respostas equivalentes.
+     */
+    private static String etagDaColecao(Instant marca) {
+        return "W/\"" + marca.toEpochMilli() + "\"";
+    }
+
+    private static ResponseEntity.BodyBuilder comValidadores(Instant marca) {
+        return ResponseEntity.ok()
+                .eTag(etagDaColecao(marca))
+                .lastModified(marca);
+    }
+
+    /**
+     * Lê o Accept-Encoding token a token: {@code gzip} (ou {@code *}, quando gzip não aparece) com
+     * {@code q} maior que zero. {@code gzip;q=0} recusa a compressão explicitamente.
+     */
+    private static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double qualquer = null;
+        for (String token : acceptEncoding.split(",")) {
+            String[] partes = token.split(";");
+            String codificacao = partes[0].trim().toLowerCase(Locale.ROOT);
+            double q = qualidade(partes);
+            if (codificacao.equals("gzip") || codificacao.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (codificacao.equals("*")) {
+                qualquer = q;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return qualquer != null && qualquer > 0;
+    }
+
+    private static double qualidade(String[] partes) {
+        for (int i = 1; i < partes.length; i++) {
+            String parametro = partes[i].trim();
+            if (parametro.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parametro.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static Long sequencia(String ultimoEvento) {
+        if (ultimoEvento == null || ultimoEvento.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(ultimoEvento.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Last-Event-ID inválido");
+        }
+    }
+
+    private static long epochMilli(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 }
\ No newline at end of file
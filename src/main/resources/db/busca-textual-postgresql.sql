@@ -0,0 +1,19 @@
+-- Busca textual em português, sem diferenciar acentos, sobre o objeto das licitações
+-- e a descrição dos itens. Executado na inicialização, depois que o Hibernate cria as tabelas.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() é STABLE; colunas geradas e índices exigem uma função IMMUTABLE
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS 'SELECT public.unaccent(''public.unaccent''::regdictionary, $1)';
+
+ALTER TABLE licitacoes ADD COLUMN IF NOT EXISTS busca tsvector
+    GENERATED ALWAYS AS (to_tsvector('portuguese', f_unaccent(coalesce(objeto, '')))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_licitacao_busca ON licitacoes USING gin (busca);
+
+ALTER TABLE item_licitacao ADD COLUMN IF NOT EXISTS busca tsvector
+    GENERATED ALWAYS AS (to_tsvector('portuguese', f_unaccent(coalesce(descricao, '')))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_item_licitacao_busca ON item_licitacao USING gin (busca);
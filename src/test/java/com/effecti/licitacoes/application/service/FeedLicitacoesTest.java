@@ -0,0 +1,158 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.domain.entity.EventoLicitacao;
+import com.effecti.licitacoes.domain.model.LicitacaoGravada;
+import com.effecti.licitacoes.domain.repository.EventoLicitacaoRepository;
+import com.effecti.licitacoes.infrastructure.config.FeedProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FeedLicitacoesTest {
+
+    @Mock
+    private EventoLicitacaoRepository repository;
+
+    private ScheduledExecutorService distribuidor;
+    private FeedLicitacoes feed;
+
+    @BeforeEach
+    void setup() {
+        distribuidor = Executors.newSingleThreadScheduledExecutor();
+        feed = feed(new FeedProperties(null, null, null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.encerrar();
+    }
+
+    @Test
+    void inscrever_SemLastEventId_DeveComecarDaUltimaSequenciaSemReenviar() {
+        when(repository.findUltimaSequencia()).thenReturn(5L);
+
+        feed.inscrever(null);
+        aguardarDistribuidor();
+
+        assertThat(feed.quantidadeInscritos()).isEqualTo(1);
+        verify(repository, never()).findGravadasEntre(anyLong(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void inscrever_ComLastEventId_DeveReenviarSoOQueFoiPerdido() {
+        when(repository.findUltimaSequencia()).thenReturn(5L);
+        when(repository.findGravadasEntre(eq(3L), eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(gravada(4L), gravada(5L)));
+
+        feed.inscrever(3L);
+        aguardarDistribuidor();
+
+        verify(repository).findGravadasEntre(eq(3L), eq(5L), any(Pageable.class));
+        assertThat(feed.quantidadeInscritos()).isEqualTo(1);
+    }
+
+    @Test
+    void inscrever_DeveRetomarNoDistribuidorENaoNaRequisicao() {
+        Thread requisicao = Thread.currentThread();
+        List<Thread> leituras = new ArrayList<>();
+        when(repository.findUltimaSequencia()).thenAnswer(invocacao -> {
+            leituras.add(Thread.currentThread());
+            return 5L;
+        });
+
+        feed.inscrever(null);
+        aguardarDistribuidor();
+
+        assertThat(leituras).hasSize(1).doesNotContain(requisicao);
+    }
+
+    @Test
+    void inscrever_ComLastEventIdAnteriorARetencao_DeveEnviarReinicioSemReenviar() {
+        when(repository.findUltimaSequencia()).thenReturn(50L);
+        when(repository.findPrimeiraSequencia()).thenReturn(40L);
+
+        feed.inscrever(10L);
+        aguardarDistribuidor();
+
+        verify(repository, never()).findGravadasEntre(anyLong(), anyLong(), any(Pageable.class));
+        assertThat(feed.quantidadeInscritos()).isEqualTo(1);
+    }
+
+    @Test
+    void inscrever_ComMaisPerdidasQueOMaximoDeReenvio_DeveEnviarReinicioSemReenviar() {
+        feed = feed(new FeedProperties(null, null, null, 100));
+        when(repository.findUltimaSequencia()).thenReturn(500L);
+
+        feed.inscrever(10L);
+        aguardarDistribuidor();
+
+        verify(repository, never()).findPrimeiraSequencia();
+        verify(repository, never()).findGravadasEntre(anyLong(), anyLong(), any(Pageable.class));
+        assertThat(feed.quantidadeInscritos()).isEqualTo(1);
+    }
+
+    @Test
+    void distribuirNovas_DeveLerUmaVezParaTodosOsInscritosEAvancarAPosicao() {
+        when(repository.findUltimaSequencia()).thenReturn(5L);
+        when(repository.findGravadasEntre(eq(5L), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(gravada(6L), gravada(7L)));
+        feed.inscrever(null);
+        feed.inscrever(null);
+        feed.inscrever(null);
+        aguardarDistribuidor();
+
+        feed.distribuirNovas();
+        feed.distribuirNovas();
+
+        verify(repository).findGravadasEntre(eq(5L), eq(Long.MAX_VALUE), any(Pageable.class));
+        verify(repository).findGravadasEntre(eq(7L), eq(Long.MAX_VALUE), any(Pageable.class));
+    }
+
+    @Test
+    void distribuirNovas_SemInscritos_NaoDeveConsultarOBanco() {
+        feed.distribuirNovas();
+
+        verifyNoInteractions(repository);
+    }
+
+    private FeedLicitacoes feed(FeedProperties properties) {
+        return new FeedLicitacoes(repository, new ObjectMapper().findAndRegisterModules(), properties, distribuidor);
+    }
+
+    /** Espera as tarefas já enviadas ao distribuidor, que tem uma thread só. */
+    private void aguardarDistribuidor() {
+        try {
+            distribuidor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static LicitacaoGravada gravada(Long sequencia) {
+        return new LicitacaoGravada(sequencia, EventoLicitacao.Tipo.INSERIDA, sequencia, 123456, "001/2024",
+                "Objeto", LocalDate.of(2024, 1, 1), "Pregão Eletrônico", LocalDateTime.of(2024, 1, 1, 10, 0));
+    }
+}
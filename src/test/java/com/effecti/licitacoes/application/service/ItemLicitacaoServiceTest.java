@@ -0,0 +1,83 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.application.dto.CursorPageResponseDTO;
+import com.effecti.licitacoes.application.dto.ItemResumoDTO;
+import com.effecti.licitacoes.domain.model.FiltroItem;
+import com.effecti.licitacoes.domain.model.ItemResumo;
+import com.effecti.licitacoes.domain.repository.ItemLicitacaoRepository;
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.function.Executable;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemLicitacaoServiceTest {
+
+    @Mock
+    private ItemLicitacaoRepository repository;
+
+    @InjectMocks
+    private ItemLicitacaoService service;
+
+    @Test
+    void buscar_ComMaisItensQueOTamanho_DeveRetornarCursorDoUltimoEntregue() {
+        when(repository.findResumos(FiltroItem.vazio(), null, 3))
+                .thenReturn(List.of(item(10L), item(11L), item(12L)));
+        when(repository.findResumos(FiltroItem.vazio(), 11L, 3))
+                .thenReturn(List.of(item(12L)));
+
+        CursorPageResponseDTO<ItemResumoDTO> primeira = service.buscar(FiltroItem.vazio(), null, 2);
+        CursorPageResponseDTO<ItemResumoDTO> segunda = service.buscar(FiltroItem.vazio(), primeira.nextCursor(), 2);
+
+        assertThat(primeira.content()).extracting(ItemResumoDTO::id).containsExactly(10L, 11L);
+        assertThat(primeira.hasNext()).isTrue();
+        assertThat(segunda.content()).extracting(ItemResumoDTO::id).containsExactly(12L);
+        assertThat(segunda.hasNext()).isFalse();
+        assertThat(segunda.nextCursor()).isNull();
+    }
+
+    @Test
+    void buscar_ComCursorInvalido_DeveLancarExcecao() {
+        assertThrows(BadRequestException.class,
+                (Executable) () -> service.buscar(FiltroItem.vazio(), "nao-e-um-id", 20));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void buscar_ComTamanhoMenorQueUm_DeveLancarExcecao() {
+        assertThrows(BadRequestException.class, (Executable) () -> service.buscar(FiltroItem.vazio(), null, 0));
+        assertThrows(BadRequestException.class, (Executable) () -> service.buscar(FiltroItem.vazio(), null, -1));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void buscar_ComTamanhoAcimaDoMaximo_DeveLimitarAPagina() {
+        when(repository.findResumos(FiltroItem.vazio(), null, TamanhoPagina.MAXIMO + 1)).thenReturn(List.of());
+
+        assertThat(service.buscar(FiltroItem.vazio(), null, Integer.MAX_VALUE).size()).isEqualTo(TamanhoPagina.MAXIMO);
+    }
+
+    @Test
+    void totalizarPorUnidade_ComIntervaloDeDataAberturaInvertido_DeveLancarExcecao() {
+        FiltroItem filtro = new FiltroItem(null, null, null, null, LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 1));
+
+        assertThrows(BadRequestException.class, (Executable) () -> service.totalizarPorUnidade(filtro));
+        verifyNoInteractions(repository);
+    }
+
+    private static ItemResumo item(Long id) {
+        return new ItemResumo(id, 1, "Item " + id, 1, "UN", 1L, 123456, "001/2024", "Pregão",
+                LocalDate.of(2024, 1, 1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.application.dto.LicitacaoDTO;
+import com.effecti.licitacoes.application.dto.PageResponseDTO;
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.infrastructure.config.FullTextSearchInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({LicitacaoService.class, FullTextSearchInitializer.class})
+@Testcontainers(disabledWithoutDocker = true)
+class LicitacaoBuscaTextualTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private LicitacaoService service;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        salvar(100001, "001/2024", "Aquisição de material de escritório", "Caneta esferográfica azul");
+        salvar(100002, "002/2024", "Contratação de serviços de limpeza", "Detergente neutro");
+        salvar(100003, "003/2024", "Aquisição de papel sulfite para escritório", "Papel A4 para escritório");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void buscarPorTexto_DeveIgnorarAcentosEBuscarNosItens() {
+        PageResponseDTO<LicitacaoDTO> porObjeto = service.buscarPorTexto("aquisicao", 0, 10);
+        assertThat(porObjeto.content()).extracting(LicitacaoDTO::numeroPregao)
+                .containsExactlyInAnyOrder("001/2024", "003/2024");
+
+        PageResponseDTO<LicitacaoDTO> porItem = service.buscarPorTexto("detergente", 0, 10);
+        assertThat(porItem.content()).extracting(LicitacaoDTO::numeroPregao).containsExactly("002/2024");
+        assertThat(porItem.totalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void buscarPorTexto_DeveOrdenarPorRelevancia() {
+        // "escritório" aparece no objeto e no item da 003 e só no objeto da 001
+        PageResponseDTO<LicitacaoDTO> resultado = service.buscarPorTexto("escritorios", 0, 10);
+
+        assertThat(resultado.content()).extracting(LicitacaoDTO::numeroPregao)
+                .containsExactly("003/2024", "001/2024");
+        assertThat(resultado.totalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void buscarPorTexto_DeveUsarIndiceGin() {
+        jdbcTemplate.execute("SET enable_seqscan = off");
+        List<String> plano = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT id FROM licitacoes WHERE busca @@ websearch_to_tsquery('portuguese', f_unaccent('papel'))",
+                String.class);
+
+        assertThat(String.join("\n", plano)).contains("idx_licitacao_busca");
+    }
+
+    private void salvar(int codigoUasg, String numeroPregao, String objeto, String descricaoItem) {
+        Licitacao licitacao = new Licitacao(codigoUasg, numeroPregao, objeto, LocalDate.of(2024, 1, 1), "Pregão Eletrônico", "Endereço");
+        ItemLicitacao item = new ItemLicitacao();
+        item.setNumeroItem(1);
+        item.setDescricao(descricaoItem);
+        item.setQuantidade(1);
+        item.setUnidadeFornecimento("UN");
+        licitacao.addItem(item);
+        entityManager.persist(licitacao);
+    }
+}
@@ -0,0 +1,120 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.application.dto.LicitacaoDTO;
+import com.effecti.licitacoes.application.dto.PageResponseDTO;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import com.effecti.licitacoes.infrastructure.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({LicitacaoService.class, LicitacaoCacheInvalidator.class, MarcaAtualizacaoLicitacoes.class, CacheConfig.class})
+@ActiveProfiles("test")
+class LicitacaoCacheTest {
+
+    @Autowired
+    private LicitacaoService service;
+
+    @Autowired
+    private LicitacaoCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long id;
+
+    @BeforeEach
+    void setup() {
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+        for (int i = 0; i < 10; i++) {
+            Licitacao licitacao = entityManager.persist(new Licitacao(300000 + i, String.format("%03d/2024", i),
+                    "Objeto " + i, LocalDate.of(2024, 1, 1), "Pregão Eletrônico", "Endereço " + i));
+            id = licitacao.getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findById_DeveServirSegundaLeituraDoCache() {
+        long acertos = estatisticas(LicitacaoCacheInvalidator.LICITACOES).hitCount();
+        LicitacaoDTO primeira = service.findById(id);
+        long consultas = statistics.getPrepareStatementCount();
+
+        LicitacaoDTO segunda = service.findById(id);
+
+        assertThat(consultas).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(consultas);
+        assertThat(segunda).isEqualTo(primeira);
+        assertThat(estatisticas(LicitacaoCacheInvalidator.LICITACOES).hitCount()).isEqualTo(acertos + 1);
+    }
+
+    @Test
+    void findAll_DeveGuardarApenasPaginasIniciais() {
+        long acertos = estatisticas(LicitacaoCacheInvalidator.PAGINAS_LICITACOES).hitCount();
+        service.findAll(FiltroLicitacao.vazio(), 0, 2, null);
+        service.findAll(FiltroLicitacao.vazio(), 0, 2, null);
+        assertThat(estatisticas(LicitacaoCacheInvalidator.PAGINAS_LICITACOES).hitCount()).isEqualTo(acertos + 1);
+
+        long antes = statistics.getPrepareStatementCount();
+        service.findAll(FiltroLicitacao.vazio(), LicitacaoService.PAGINAS_EM_CACHE, 2, null);
+        long porLeitura = statistics.getPrepareStatementCount() - antes;
+        service.findAll(FiltroLicitacao.vazio(), LicitacaoService.PAGINAS_EM_CACHE, 2, null);
+
+        // as páginas fora do limite vão ao banco nas duas leituras
+        assertThat(porLeitura).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(antes + porLeitura * 2);
+        assertThat(estatisticas(LicitacaoCacheInvalidator.PAGINAS_LICITACOES).hitCount()).isEqualTo(acertos + 1);
+    }
+
+    @Test
+    void licitacoesGravadas_DeveInvalidarLicitacaoEPaginas() {
+        service.findById(id);
+        PageResponseDTO<LicitacaoDTO> antes = service.findAll(FiltroLicitacao.vazio(), 0, 20, null);
+
+        Licitacao nova = entityManager.persistFlushFind(new Licitacao(399999, "999/2024", "Objeto novo",
+                LocalDate.of(2024, 1, 1), "Pregão Eletrônico", "Endereço novo"));
+        cacheInvalidator.licitacoesGravadas(List.of(id, nova.getId()));
+        statistics.clear();
+
+        service.findById(id);
+        PageResponseDTO<LicitacaoDTO> depois = service.findAll(FiltroLicitacao.vazio(), 0, 20, null);
+
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+        assertThat(depois.totalElements()).isEqualTo(antes.totalElements() + 1);
+    }
+
+    private CacheStats estatisticas(String nome) {
+        return ((CaffeineCache) cacheManager.getCache(nome)).getNativeCache().stats();
+    }
+}
@@ -0,0 +1,183 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.application.dto.CursorPageResponseDTO;
+import com.effecti.licitacoes.application.dto.LicitacaoDTO;
+import com.effecti.licitacoes.application.dto.LicitacaoResumoDTO;
+import com.effecti.licitacoes.application.dto.PageResponseDTO;
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(LicitacaoService.class)
+@ActiveProfiles("test")
+class LicitacaoServiceStatementCountTest {
+
+    @Autowired
+    private LicitacaoService service;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < 30; i++) {
+            Licitacao licitacao = new Licitacao(200000 + i, String.format("%03d/2024", i), "Objeto " + i,
+                    LocalDate.of(2024, 1, 1), "Pregão Eletrônico", "Endereço " + i);
+            for (int j = 1; j <= 5; j++) {
+                ItemLicitacao item = new ItemLicitacao();
+                item.setNumeroItem(j);
+                item.setDescricao("Item " + j);
+                item.setQuantidade(j);
+                item.setUnidadeFornecimento("UN");
+                licitacao.addItem(item);
+            }
+            entityManager.persist(licitacao);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_DeveUsarNumeroFixoDeConsultasPorPagina() {
+        PageResponseDTO<LicitacaoDTO> pagina = service.findAll(FiltroLicitacao.vazio(), 0, 20, null);
+
+        assertThat(pagina.content()).hasSize(20);
+        assertThat(pagina.content()).allSatisfy(licitacao -> assertThat(licitacao.itens()).hasSize(5));
+        assertThat(pagina.totalElements()).isEqualTo(30);
+        // ids da página + contagem + licitações da página com os itens
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void findAll_DeveManterOrdemDaPaginaDeIds() {
+        PageResponseDTO<LicitacaoDTO> pagina = service.findAll(FiltroLicitacao.vazio(), 1, 20, "codigoUasg,asc");
+
+        assertThat(pagina.content()).extracting(LicitacaoDTO::codigoUasg)
+                .containsExactly(200020, 200021, 200022, 200023, 200024, 200025, 200026, 200027, 200028, 200029);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void findAllSemItens_DeveProjetarSemCarregarEntidades() {
+        PageResponseDTO<LicitacaoResumoDTO> pagina = service.findAllSemItens(FiltroLicitacao.vazio(), 0, 20, null);
+
+        assertThat(pagina.content()).hasSize(20);
+        assertThat(pagina.totalElements()).isEqualTo(30);
+        // página projetada + contagem, sem licitações nem itens no contexto de persistência
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void findAllComCampos_DeveSelecionarApenasCamposPedidos() {
+        PageResponseDTO<Map<String, Object>> pagina = service.findAllComCampos(FiltroLicitacao.vazio(), 0, 20, "codigoUasg,asc",
+                List.of("objeto", "id", "criadoEm"));
+
+        assertThat(pagina.content()).hasSize(20);
+        assertThat(pagina.content().get(0)).containsOnlyKeys("objeto", "id", "criadoEm");
+        assertThat(pagina.content().get(0).keySet()).containsExactly("objeto", "id", "criadoEm");
+        assertThat(pagina.content().get(0).get("objeto")).isEqualTo("Objeto 0");
+        assertThat((String) pagina.content().get(0).get("criadoEm")).matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findAllComCampos_ComItens_DeveIncluirItens() {
+        PageResponseDTO<Map<String, Object>> pagina = service.findAllComCampos(FiltroLicitacao.vazio(), 0, 20, null,
+                List.of("id", "itens"));
+
+        assertThat(pagina.content()).allSatisfy(linha -> {
+            assertThat(linha).containsOnlyKeys("id", "itens");
+            assertThat((List<?>) linha.get("itens")).hasSize(5);
+        });
+    }
+
+    @Test
+    void findAllComCampos_ComCampoDesconhecido_DeveLancarExcecao() {
+        assertThatThrownBy(() -> service.findAllComCampos(FiltroLicitacao.vazio(), 0, 20, null, List.of("id", "senha")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Campo inválido: senha");
+    }
+
+    @Test
+    void findAllPorCursor_DevePercorrerTodasAsPaginasSemContagem() {
+        List<LicitacaoDTO> lidas = new ArrayList<>();
+        String cursor = "";
+        int paginas = 0;
+        do {
+            statistics.clear();
+            CursorPageResponseDTO<LicitacaoDTO> pagina = service.findAllPorCursor(FiltroLicitacao.vazio(), cursor, 7);
+            // ids da página + licitações da página com os itens, em qualquer profundidade
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+            lidas.addAll(pagina.content());
+            cursor = pagina.nextCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(paginas).isEqualTo(5);
+        assertThat(lidas).hasSize(30);
+        assertThat(lidas).extracting(LicitacaoDTO::id).doesNotHaveDuplicates();
+        assertThat(lidas).isSortedAccordingTo(Comparator.comparing(LicitacaoDTO::criadoEm)
+                .thenComparing(LicitacaoDTO::id).reversed());
+    }
+
+    @Test
+    void findAllPorCursor_ComCursorInvalido_DeveLancarExcecao() {
+        assertThatThrownBy(() -> service.findAllPorCursor(FiltroLicitacao.vazio(), "nao-e-um-cursor", 10))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void exportar_DeveEntregarTodasAsLicitacoesComItensEmLotes() {
+        List<LicitacaoDTO> exportadas = new ArrayList<>();
+
+        long total = service.exportar(null, exportadas::add);
+
+        assertThat(total).isEqualTo(30);
+        assertThat(exportadas).extracting(LicitacaoDTO::id).isSorted().doesNotHaveDuplicates();
+        assertThat(exportadas).allSatisfy(licitacao -> assertThat(licitacao.itens()).hasSize(5));
+        // cursor de ids + um lote de licitações com itens
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void exportar_ComSince_DeveFiltrarPorAtualizadoEm() {
+        List<LicitacaoDTO> exportadas = new ArrayList<>();
+
+        assertThat(service.exportar(LocalDateTime.now().plusMinutes(1), exportadas::add)).isZero();
+        assertThat(service.exportar(LocalDateTime.now().minusDays(1), exportadas::add)).isEqualTo(30);
+        assertThat(exportadas).hasSize(30);
+    }
+}
@@ -3,10 +3,13 @@ package com.effecti.licitacoes.application.service;
 import com.effecti.licitacoes.application.dto.LicitacaoDTO;
 import com.effecti.licitacoes.application.dto.PageResponseDTO;
 import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
 import com.effecti.licitacoes.domain.repository.LicitacaoRepository;
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
 import com.effecti.licitacoes.infrastructure.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,7 +17,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +27,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.junit.jupiter.api.function.Executable;
 
@@ -36,24 +43,93 @@ class LicitacaoServiceTest {
 
     @Test
     void findAll_DeveRetornarPageResponseDTO() {
-        Licitacao licitacao = new Licitacao(123456, "001/2024", "Objeto teste", "2024-01-01 10:00:00", "PREGAO", "Endereço teste");
+        Licitacao licitacao = new Licitacao(123456, "001/2024", "Objeto teste", LocalDate.of(2024, 1, 1), "PREGAO", "Endereço teste");
         licitacao.setId(1L);
 
-        Page<Licitacao> page = new PageImpl<>(List.of(licitacao), PageRequest.of(0, 20), 1);
+        Page<Long> ids = new PageImpl<>(List.of(1L), PageRequest.of(0, 20), 1);
 
-        when(repository.findByFilters(eq(123456), eq("001/2024"), any(Pageable.class)))
-                .thenReturn(page);
+        FiltroLicitacao filtro = new FiltroLicitacao(List.of(123456), "001/2024", null, null, null, null, null);
+        when(repository.findIdsByFilters(eq(filtro), any(Pageable.class)))
+                .thenReturn(ids);
+        when(repository.findAllComItensByIdIn(List.of(1L)))
+                .thenReturn(List.of(licitacao));
 
-        PageResponseDTO<LicitacaoDTO> result = service.findAll(123456, "001/2024", 0, 20, null);
+        PageResponseDTO<LicitacaoDTO> result = service.findAll(filtro, 0, 20, null);
 
         assertThat(result.content()).hasSize(1);
         assertThat(result.content().get(0).codigoUasg()).isEqualTo(123456);
         assertThat(result.totalElements()).isEqualTo(1);
     }
 
+    @Test
+    void findAll_ComIntervaloDeDataAberturaInvertido_DeveLancarExcecao() {
+        FiltroLicitacao filtro = new FiltroLicitacao(null, null, null, LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 1),
+                null, null);
+
+        assertThrows(BadRequestException.class, (Executable) () -> service.findAll(filtro, 0, 20, null));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void findAll_SemOrdenacao_DeveOrdenarPorCriadoEmEIdDescendentes() {
+        when(repository.findIdsByFilters(eq(FiltroLicitacao.vazio()), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        service.findAll(FiltroLicitacao.vazio(), 0, 20, null);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository).findIdsByFilters(eq(FiltroLicitacao.vazio()), pageable.capture());
+        assertThat(pageable.getValue().getSort())
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "criadoEm", "id"));
+    }
+
+    @Test
+    void findAll_ComOrdenacaoPorCampo_DeveDesempatarPeloId() {
+        when(repository.findIdsByFilters(eq(FiltroLicitacao.vazio()), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        service.findAll(FiltroLicitacao.vazio(), 0, 20, "dataAbertura,DESC");
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository).findIdsByFilters(eq(FiltroLicitacao.vazio()), pageable.capture());
+        assertThat(pageable.getValue().getSort())
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "dataAbertura", "id"));
+    }
+
+    @Test
+    void findAll_ComCampoDeOrdenacaoNaoPermitido_DeveLancarExcecao() {
+        assertThrows(BadRequestException.class,
+                (Executable) () -> service.findAll(FiltroLicitacao.vazio(), 0, 20, "objeto,asc"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void findAll_ComDirecaoDeOrdenacaoInvalida_DeveLancarExcecao() {
+        assertThrows(BadRequestException.class,
+                (Executable) () -> service.findAll(FiltroLicitacao.vazio(), 0, 20, "criadoEm,para-cima"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void findAllPorCursor_ComTamanhoMenorQueUm_DeveLancarExcecao() {
+        FiltroLicitacao filtro = new FiltroLicitacao(null, null, null, null, null, null, null);
+
+        assertThrows(BadRequestException.class, (Executable) () -> service.findAllPorCursor(filtro, null, 0));
+        assertThrows(BadRequestException.class, (Executable) () -> service.findAllPorCursor(filtro, null, -5));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void findAllPorCursor_ComTamanhoAcimaDoMaximo_DeveLimitarAPagina() {
+        FiltroLicitacao filtro = new FiltroLicitacao(null, null, null, null, null, null, null);
+        when(repository.findIdsMaisRecentes(filtro, null, null, TamanhoPagina.MAXIMO + 1)).thenReturn(List.of());
+
+        assertThat(service.findAllPorCursor(filtro, null, 1_000_000).size()).isEqualTo(TamanhoPagina.MAXIMO);
+    }
+
     @Test
     void findById_LicitacaoExiste_DeveRetornarDTO() {
-        Licitacao licitacao = new Licitacao(123456, "001/2024", "Objeto teste", "2024-01-01 10:00:00", "PREGAO", "Endereço teste");
+        Licitacao licitacao = new Licitacao(123456, "001/2024", "Objeto teste", LocalDate.of(2024, 1, 1), "PREGAO", "Endereço teste");
         licitacao.setId(1L);
 
         when(repository.findById(1L)).thenReturn(Optional.of(licitacao));
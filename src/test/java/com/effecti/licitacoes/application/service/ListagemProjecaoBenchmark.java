@@ -0,0 +1,147 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.application.dto.LicitacaoDTO;
+import com.effecti.licitacoes.application.dto.LicitacaoResumoDTO;
+import com.effecti.licitacoes.application.dto.PageResponseDTO;
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import com.effecti.licitacoes.domain.repository.LicitacaoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o tempo de uma página da listagem completa, da listagem sem itens (projeção) e da
+ * listagem com poucos campos, em H2 em memória. O tamanho do JSON de cada variante é impresso
+ * ao fim da execução.
+ * <p>
+ * Execução: {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath com.effecti.licitacoes.application.service.ListagemProjecaoBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListagemProjecaoBenchmark {
+
+    private static final int LICITACOES = 1000;
+    private static final List<String> CAMPOS = List.of("id", "numeroPregao", "objeto");
+
+    @Param({"20"})
+    public int itensPorLicitacao;
+
+    @Param({"100"})
+    public int tamanhoPagina;
+
+    private ConfigurableApplicationContext context;
+    private LicitacaoService service;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(Contexto.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--logging.level.root=WARN");
+        service = context.getBean(LicitacaoService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        LicitacaoRepository repository = context.getBean(LicitacaoRepository.class);
+        List<Licitacao> lote = new ArrayList<>();
+        for (int i = 0; i < LICITACOES; i++) {
+            Licitacao licitacao = new Licitacao(100000 + i, String.format("%05d/2024", i),
+                    "Aquisição de materiais diversos para manutenção predial, lote " + i,
+                    LocalDate.of(2024, 1, 1), "Pregão Eletrônico", "Esplanada dos Ministérios, bloco " + i);
+            for (int j = 1; j <= itensPorLicitacao; j++) {
+                ItemLicitacao item = new ItemLicitacao();
+                item.setNumeroItem(j);
+                item.setDescricao("Material de consumo item " + j + " conforme especificação do edital");
+                item.setQuantidade(j * 10);
+                item.setUnidadeFornecimento("UNIDADE");
+                licitacao.addItem(item);
+            }
+            lote.add(licitacao);
+            if (lote.size() == 100) {
+                repository.saveAll(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws JsonProcessingException {
+        System.out.printf("%n[página de %d, %d itens por licitação] JSON: completa %d KB, sem itens %d KB, campos %s %d KB%n",
+                tamanhoPagina, itensPorLicitacao,
+                objectMapper.writeValueAsBytes(completa()).length / 1024,
+                objectMapper.writeValueAsBytes(semItens()).length / 1024,
+                CAMPOS, objectMapper.writeValueAsBytes(campos()).length / 1024);
+        context.close();
+    }
+
+    @Benchmark
+    public PageResponseDTO<LicitacaoDTO> completa() {
+        return service.findAll(FiltroLicitacao.vazio(), 1, tamanhoPagina, null);
+    }
+
+    @Benchmark
+    public PageResponseDTO<LicitacaoResumoDTO> semItens() {
+        return service.findAllSemItens(FiltroLicitacao.vazio(), 1, tamanhoPagina, null);
+    }
+
+    @Benchmark
+    public PageResponseDTO<Map<String, Object>> campos() {
+        return service.findAllComCampos(FiltroLicitacao.vazio(), 1, tamanhoPagina, null, CAMPOS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListagemProjecaoBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * Contexto mínimo com JPA e o serviço, sem o agendamento da captura. Sem {@code @Configuration}
+     * para não ser encontrado pela varredura de componentes dos testes.
+     */
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Licitacao.class)
+    @EnableJpaRepositories(basePackageClasses = LicitacaoRepository.class)
+    @Import(LicitacaoService.class)
+    static class Contexto {
+    }
+}
@@ -0,0 +1,104 @@
+package com.effecti.licitacoes.application.service;
+
+import com.effecti.licitacoes.domain.repository.EventoLicitacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MarcaAtualizacaoLicitacoesTest {
+
+    private static final Instant INICIO = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private EventoLicitacaoRepository repository;
+
+    @Mock
+    private Clock clock;
+
+    private CacheManager cacheManager;
+    private MarcaAtualizacaoLicitacoes marca;
+
+    @BeforeEach
+    void setup() {
+        cacheManager = new ConcurrentMapCacheManager(LicitacaoCacheInvalidator.LICITACOES,
+                LicitacaoCacheInvalidator.PAGINAS_LICITACOES);
+        marca = new MarcaAtualizacaoLicitacoes(repository, cacheManager, clock);
+    }
+
+    @Test
+    void atual_DeveConsultarBancoApenasAposIntervaloDeReleitura() {
+        LocalDateTime ultimaAtualizacao = LocalDateTime.of(2024, 1, 1, 8, 30);
+        when(repository.findUltimoRegistro()).thenReturn(ultimaAtualizacao);
+        when(clock.instant()).thenReturn(INICIO, INICIO.plusSeconds(10),
+                INICIO.plus(MarcaAtualizacaoLicitacoes.INTERVALO_RELEITURA).plusSeconds(1));
+
+        Instant esperada = ultimaAtualizacao.atZone(ZoneId.systemDefault()).toInstant();
+        assertThat(marca.atual()).isEqualTo(esperada);
+        assertThat(marca.atual()).isEqualTo(esperada);
+        verify(repository, times(1)).findUltimoRegistro();
+
+        marca.atual();
+        verify(repository, times(2)).findUltimoRegistro();
+    }
+
+    @Test
+    void registrarGravacao_DeveReleBancoNaProximaRequisicao() {
+        LocalDateTime gravada = LocalDateTime.of(2024, 1, 1, 8, 45);
+        when(repository.findUltimoRegistro()).thenReturn(LocalDateTime.of(2024, 1, 1, 8, 30), gravada);
+        when(clock.instant()).thenReturn(INICIO, INICIO.plusSeconds(1));
+        marca.atual();
+
+        marca.registrarGravacao();
+
+        assertThat(marca.atual()).isEqualTo(gravada.atZone(ZoneId.systemDefault()).toInstant());
+        verify(repository, times(2)).findUltimoRegistro();
+    }
+
+    @Test
+    void atual_ComBancoVazio_DeveRetornarEpoch() {
+        when(clock.instant()).thenReturn(INICIO);
+
+        assertThat(marca.atual()).isEqualTo(Instant.EPOCH);
+    }
+
+    @Test
+    void atual_ComGravacaoDeOutraReplica_DeveLimparCaches() {
+        when(repository.findUltimoRegistro()).thenReturn(
+                LocalDateTime.of(2024, 1, 1, 8, 30), LocalDateTime.of(2024, 1, 1, 8, 45));
+        when(clock.instant()).thenReturn(INICIO,
+                INICIO.plus(MarcaAtualizacaoLicitacoes.INTERVALO_RELEITURA).plusSeconds(1));
+        Instant anterior = marca.atual();
+        cacheManager.getCache(LicitacaoCacheInvalidator.LICITACOES).put(1L, "licitação");
+        cacheManager.getCache(LicitacaoCacheInvalidator.PAGINAS_LICITACOES).put("pagina", "página");
+
+        assertThat(marca.atual()).isAfter(anterior);
+        assertThat(cacheManager.getCache(LicitacaoCacheInvalidator.LICITACOES).get(1L)).isNull();
+        assertThat(cacheManager.getCache(LicitacaoCacheInvalidator.PAGINAS_LICITACOES).get("pagina")).isNull();
+    }
+
+    @Test
+    void atual_SemGravacaoNova_DeveManterCaches() {
+        when(repository.findUltimoRegistro()).thenReturn(LocalDateTime.of(2024, 1, 1, 8, 30));
+        when(clock.instant()).thenReturn(INICIO,
+                INICIO.plus(MarcaAtualizacaoLicitacoes.INTERVALO_RELEITURA).plusSeconds(1));
+        marca.atual();
+        cacheManager.getCache(LicitacaoCacheInvalidator.LICITACOES).put(1L, "licitação");
+
+        marca.atual();
+
+        assertThat(cacheManager.getCache(LicitacaoCacheInvalidator.LICITACOES).get(1L)).isNotNull();
+    }
+}
@@ -0,0 +1,98 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.EventoLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.LicitacaoGravada;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class EventoLicitacaoRepositoryTest {
+
+    @Autowired
+    private EventoLicitacaoRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void findUltimaSequencia_SemEventos_DeveRetornarNulo() {
+        assertThat(repository.findUltimaSequencia()).isNull();
+    }
+
+    @Test
+    void findGravadasEntre_DeveTrazerOIntervaloEmOrdemComAsColunasAtuais() {
+        Licitacao primeira = entityManager.persist(new Licitacao(100, "001/2024", "Objeto 1", LocalDate.of(2024, 1, 1),
+                "Pregão Eletrônico", "Endereço"));
+        Licitacao segunda = entityManager.persist(new Licitacao(200, "002/2024", "Objeto 2", LocalDate.of(2024, 1, 2),
+                "Dispensa", "Endereço"));
+        Long s1 = entityManager.persist(new EventoLicitacao(primeira.getId(), EventoLicitacao.Tipo.INSERIDA)).getSequencia();
+        Long s2 = entityManager.persist(new EventoLicitacao(segunda.getId(), EventoLicitacao.Tipo.INSERIDA)).getSequencia();
+        Long s3 = entityManager.persist(new EventoLicitacao(primeira.getId(), EventoLicitacao.Tipo.ALTERADA)).getSequencia();
+        primeira.setObjeto("Objeto 1 retificado");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<LicitacaoGravada> gravadas = repository.findGravadasEntre(s1, s3, PageRequest.of(0, 10));
+
+        assertThat(gravadas).extracting(LicitacaoGravada::sequencia).containsExactly(s2, s3);
+        assertThat(gravadas.get(1).tipo()).isEqualTo(EventoLicitacao.Tipo.ALTERADA);
+        assertThat(gravadas.get(1).objeto()).isEqualTo("Objeto 1 retificado");
+        assertThat(repository.findGravadasEntre(0, Long.MAX_VALUE, PageRequest.of(0, 2)))
+                .extracting(LicitacaoGravada::sequencia).containsExactly(s1, s2);
+        assertThat(repository.findUltimaSequencia()).isEqualTo(s3);
+    }
+
+    @Test
+    void findUltimoRegistro_DeveSeguirASequenciaENaoOHorario() {
+        Licitacao licitacao = entityManager.persist(new Licitacao(100, "001/2024", "Objeto", LocalDate.of(2024, 1, 1),
+                "Pregão Eletrônico", "Endereço"));
+        EventoLicitacao primeiro = entityManager.persist(new EventoLicitacao(licitacao.getId(), EventoLicitacao.Tipo.INSERIDA));
+        EventoLicitacao ultimo = entityManager.persist(new EventoLicitacao(licitacao.getId(), EventoLicitacao.Tipo.ALTERADA));
+        LocalDateTime registro = LocalDateTime.of(2024, 1, 1, 8, 0);
+        // o primeiro evento com horário maior, como um relógio que voltou entre os dois commits
+        carimbar(primeiro, registro.plusHours(1));
+        carimbar(ultimo, registro);
+
+        assertThat(repository.findUltimoRegistro()).isEqualTo(registro);
+    }
+
+    @Test
+    void findUltimoRegistro_SemEventos_DeveRetornarNulo() {
+        assertThat(repository.findUltimoRegistro()).isNull();
+    }
+
+    @Test
+    void apagarRegistradosAntesDe_DeveApagarOsAntigosMenosOUltimo() {
+        Licitacao licitacao = entityManager.persist(new Licitacao(100, "001/2024", "Objeto", LocalDate.of(2024, 1, 1),
+                "Pregão Eletrônico", "Endereço"));
+        EventoLicitacao antigo = entityManager.persist(new EventoLicitacao(licitacao.getId(), EventoLicitacao.Tipo.INSERIDA));
+        EventoLicitacao recente = entityManager.persist(new EventoLicitacao(licitacao.getId(), EventoLicitacao.Tipo.ALTERADA));
+        LocalDateTime limite = LocalDateTime.of(2024, 1, 8, 0, 0);
+        carimbar(antigo, limite.minusDays(2));
+        carimbar(recente, limite.minusDays(1));
+
+        assertThat(repository.apagarRegistradosAntesDe(limite)).isEqualTo(1);
+        assertThat(repository.findPrimeiraSequencia()).isEqualTo(recente.getSequencia());
+        assertThat(repository.findUltimoRegistro()).isEqualTo(limite.minusDays(1));
+    }
+
+    private void carimbar(EventoLicitacao evento, LocalDateTime criadoEm) {
+        entityManager.getEntityManager()
+                .createQuery("UPDATE EventoLicitacao e SET e.criadoEm = :criadoEm WHERE e.sequencia = :sequencia")
+                .setParameter("criadoEm", criadoEm)
+                .setParameter("sequencia", evento.getSequencia())
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,92 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.model.FiltroItem;
+import com.effecti.licitacoes.domain.model.ItemResumo;
+import com.effecti.licitacoes.domain.model.TotalPorUnidade;
+import com.effecti.licitacoes.infrastructure.config.FullTextSearchInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca de itens por termo e plano da junção com as licitações, que dependem do PostgreSQL.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FullTextSearchInitializer.class)
+@Testcontainers(disabledWithoutDocker = true)
+class ItemLicitacaoBuscaTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ItemLicitacaoRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        // 2.000 licitações com 5 itens cada; a UASG 100001 tem 4 licitações
+        jdbcTemplate.update("""
+                INSERT INTO licitacoes (id, codigo_uasg, numero_pregao, objeto, data_abertura, modalidade, endereco,
+                                        criado_em, atualizado_em)
+                SELECT i, 100000 + i % 500, lpad(i::text, 5, '0') || '/2024', 'Objeto ' || i,
+                       DATE '2024-01-01' + i % 365, 'Pregão Eletrônico', 'Endereço', now(), now()
+                  FROM generate_series(1, 2000) AS i
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO item_licitacao (id, licitacao_id, numero_item, descricao, quantidade, unidade_fornecimento)
+                SELECT (l - 1) * 5 + n, l, n,
+                       CASE WHEN n = 1 THEN 'Caneta esferográfica azul' ELSE 'Papel sulfite A4' END,
+                       n * 10, CASE WHEN n = 1 THEN 'UN' ELSE 'CX' END
+                  FROM generate_series(1, 2000) AS l, generate_series(1, 5) AS n
+                """);
+        jdbcTemplate.execute("ANALYZE licitacoes");
+        jdbcTemplate.execute("ANALYZE item_licitacao");
+    }
+
+    @Test
+    void findResumos_ComTermo_DeveIgnorarAcentosEFiltrarPelaDescricao() {
+        FiltroItem filtro = new FiltroItem("esferografica", null, List.of(100001), null, null, null);
+
+        List<ItemResumo> itens = repository.findResumos(filtro, null, 10);
+
+        assertThat(itens).hasSize(4)
+                .allSatisfy(item -> assertThat(item.descricao()).isEqualTo("Caneta esferográfica azul"))
+                .allSatisfy(item -> assertThat(item.codigoUasg()).isEqualTo(100001));
+    }
+
+    @Test
+    void totalizarPorUnidade_ComTermo_DeveAgruparOsItensEncontrados() {
+        FiltroItem filtro = new FiltroItem("papel", null, List.of(100001), null, null, null);
+
+        assertThat(repository.totalizarPorUnidade(filtro))
+                .containsExactly(new TotalPorUnidade("CX", 16, 4, 4 * (20 + 30 + 40 + 50)));
+    }
+
+    @Test
+    void juncaoComLicitacoesFiltradas_DeveUsarIndiceDoLicitacaoId() {
+        jdbcTemplate.execute("SET enable_seqscan = off");
+        List<String> plano = jdbcTemplate.queryForList("""
+                EXPLAIN SELECT i.id FROM item_licitacao i JOIN licitacoes l ON l.id = i.licitacao_id
+                 WHERE l.codigo_uasg IN (100001)
+                """, String.class);
+
+        assertThat(String.join("\n", plano)).contains("uk_item_licitacao_numero");
+    }
+}
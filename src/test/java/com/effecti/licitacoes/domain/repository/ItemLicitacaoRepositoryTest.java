@@ -0,0 +1,108 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.FiltroItem;
+import com.effecti.licitacoes.domain.model.ItemResumo;
+import com.effecti.licitacoes.domain.model.TotalPorUnidade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ItemLicitacaoRepositoryTest {
+
+    private static final String PREGAO = "Pregão Eletrônico";
+
+    @Autowired
+    private ItemLicitacaoRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setup() {
+        salvar(100, "001/2024", PREGAO, LocalDate.of(2024, 1, 10),
+                item(1, "Caneta azul", 100, "UN"), item(2, "Papel A4", 10, "CX"));
+        salvar(200, "002/2024", "Dispensa", LocalDate.of(2024, 1, 20),
+                item(1, "Caneta preta", 50, "UN"));
+        salvar(300, "003/2024", PREGAO, LocalDate.of(2024, 2, 1),
+                item(1, "Papel ofício", 5, "CX"), item(2, "Grampeador", 3, "UN"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findResumos_SemFiltros_DeveTrazerTodosOsItensEmOrdemDeId() {
+        List<ItemResumo> itens = repository.findResumos(FiltroItem.vazio(), null, 10);
+
+        assertThat(itens).extracting(ItemResumo::descricao)
+                .containsExactly("Caneta azul", "Papel A4", "Caneta preta", "Papel ofício", "Grampeador");
+        assertThat(itens.get(2).numeroPregao()).isEqualTo("002/2024");
+        assertThat(itens.get(2).dataAbertura()).isEqualTo(LocalDate.of(2024, 1, 20));
+    }
+
+    @Test
+    void findResumos_DeveCombinarFiltrosDoItemEDaLicitacao() {
+        FiltroItem filtro = new FiltroItem(null, List.of("UN"), null, PREGAO,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+
+        assertThat(repository.findResumos(filtro, null, 10)).extracting(ItemResumo::descricao)
+                .containsExactly("Caneta azul");
+    }
+
+    @Test
+    void findResumos_DeveContinuarDepoisDoUltimoIdEntregue() {
+        FiltroItem filtro = new FiltroItem(null, null, List.of(100, 300), null, null, null);
+
+        List<ItemResumo> primeira = repository.findResumos(filtro, null, 2);
+        List<ItemResumo> segunda = repository.findResumos(filtro, primeira.get(1).id(), 2);
+
+        assertThat(primeira).extracting(ItemResumo::descricao).containsExactly("Caneta azul", "Papel A4");
+        assertThat(segunda).extracting(ItemResumo::descricao).containsExactly("Papel ofício", "Grampeador");
+    }
+
+    @Test
+    void totalizarPorUnidade_DeveAgruparNoBanco() {
+        assertThat(repository.totalizarPorUnidade(FiltroItem.vazio())).containsExactly(
+                new TotalPorUnidade("UN", 3, 3, 153),
+                new TotalPorUnidade("CX", 2, 2, 15));
+    }
+
+    @Test
+    void totalizarPorUnidade_DeveRespeitarOsFiltros() {
+        FiltroItem filtro = new FiltroItem(null, null, null, PREGAO, null, null);
+
+        assertThat(repository.totalizarPorUnidade(filtro)).containsExactly(
+                new TotalPorUnidade("UN", 2, 2, 103),
+                new TotalPorUnidade("CX", 2, 2, 15));
+    }
+
+    private void salvar(int codigoUasg, String numeroPregao, String modalidade, LocalDate dataAbertura,
+                        ItemLicitacao... itens) {
+        Licitacao licitacao = new Licitacao(codigoUasg, numeroPregao, "Objeto " + numeroPregao, dataAbertura,
+                modalidade, "Endereço");
+        for (ItemLicitacao item : itens) {
+            licitacao.addItem(item);
+        }
+        entityManager.persist(licitacao);
+    }
+
+    private static ItemLicitacao item(int numeroItem, String descricao, int quantidade, String unidade) {
+        ItemLicitacao item = new ItemLicitacao();
+        item.setNumeroItem(numeroItem);
+        item.setDescricao(descricao);
+        item.setQuantidade(quantidade);
+        item.setUnidadeFornecimento(unidade);
+        return item;
+    }
+}
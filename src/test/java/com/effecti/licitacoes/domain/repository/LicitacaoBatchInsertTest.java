@@ -0,0 +1,65 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50"
+})
+@ActiveProfiles("test")
+class LicitacaoBatchInsertTest {
+
+    @Autowired
+    private LicitacaoRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveAll_DeveAgruparInsertsEmLotes() {
+        List<Licitacao> licitacoes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Licitacao licitacao = new Licitacao(100000 + i, String.format("%03d/2024", i), "Objeto " + i,
+                    LocalDate.of(2024, 1, 1), "Pregão Eletrônico", "Endereço " + i);
+            for (int j = 1; j <= 10; j++) {
+                ItemLicitacao item = new ItemLicitacao();
+                item.setNumeroItem(j);
+                item.setDescricao("Item " + j);
+                item.setQuantidade(j);
+                item.setUnidadeFornecimento("UN");
+                licitacao.addItem(item);
+            }
+            licitacoes.add(licitacao);
+        }
+
+        repository.saveAll(licitacoes);
+        repository.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1100);
+        // 2 lotes de licitações + 20 lotes de itens + chamadas às sequences (pooled, 50 ids por chamada)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(50);
+    }
+}
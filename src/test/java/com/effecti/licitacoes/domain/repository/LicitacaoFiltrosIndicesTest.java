@@ -0,0 +1,151 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confere, com EXPLAIN no PostgreSQL, que o SQL gerado para cada combinação de filtros usa um índice.
+ * O plano é forçado a genérico ({@code plan_cache_mode = force_generic_plan}), então o índice precisa
+ * servir para qualquer valor dos parâmetros, que é o que um predicado {@code :param IS NULL OR ...} impede.
+ */
+@DataJpaTest(properties = SqlCapturado.PROPRIEDADE)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class LicitacaoFiltrosIndicesTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private LicitacaoRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("""
+                INSERT INTO licitacoes (id, codigo_uasg, numero_pregao, objeto, data_abertura, modalidade, endereco,
+                                        criado_em, atualizado_em)
+                SELECT nextval('licitacoes_seq'), 100000 + i % 500, lpad(i::text, 5, '0') || '/2024', 'Objeto ' || i,
+                       DATE '2024-01-01' + i % 365,
+                       CASE WHEN i % 4 = 0 THEN 'Dispensa' ELSE 'Pregão Eletrônico' END, 'Endereço',
+                       TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute', TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute'
+                  FROM generate_series(1, 20000) AS i
+                """);
+        jdbcTemplate.execute("ANALYZE licitacoes");
+        jdbcTemplate.execute("SET enable_seqscan = off");
+        jdbcTemplate.execute("SET plan_cache_mode = force_generic_plan");
+    }
+
+    @Test
+    void filtroPorUasg_DeveUsarIndiceDaUasg() {
+        assertThat(plano(new FiltroLicitacao(List.of(100001), null, null, null, null, null, null)))
+                .containsAnyOf("uk_licitacao_uasg_pregao", "idx_licitacao_uasg_data_abertura");
+    }
+
+    @Test
+    void filtroPorVariasUasgsEDataAbertura_DeveUsarIndiceComposto() {
+        assertThat(plano(new FiltroLicitacao(List.of(100001, 100002), null, null,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), null, null)))
+                .contains("idx_licitacao_uasg_data_abertura");
+    }
+
+    @Test
+    void filtroPorPregao_DeveUsarIndiceDoPregao() {
+        assertThat(plano(new FiltroLicitacao(null, "00042/2024", null, null, null, null, null)))
+                .containsAnyOf("idx_pregao", "uk_licitacao_uasg_pregao");
+    }
+
+    @Test
+    void filtroPorModalidadeEDataAbertura_DeveUsarIndiceComposto() {
+        assertThat(plano(new FiltroLicitacao(null, null, "Dispensa",
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7), null, null)))
+                .containsAnyOf("idx_licitacao_modalidade_data_abertura", "idx_licitacao_data_abertura");
+    }
+
+    @Test
+    void filtroPorDataAbertura_DeveUsarIndiceDaData() {
+        assertThat(plano(new FiltroLicitacao(null, null, null, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 7),
+                null, null)))
+                .containsAnyOf("idx_licitacao_data_abertura", "idx_licitacao_modalidade_data_abertura",
+                        "idx_licitacao_uasg_data_abertura");
+    }
+
+    @Test
+    void filtroPorJanelaDeCadastro_DeveUsarIndiceDeCriadoEm() {
+        assertThat(plano(new FiltroLicitacao(null, null, null, null, null,
+                LocalDateTime.of(2024, 1, 2, 0, 0), LocalDateTime.of(2024, 1, 3, 0, 0))))
+                .contains("idx_licitacao_criado_em_id");
+    }
+
+    /**
+     * Prepara o SQL que o Hibernate gerou para a contagem da listagem e devolve o EXPLAIN da execução
+     * com os mesmos valores. Falha se o plano ler a tabela inteira.
+     */
+    private String plano(FiltroLicitacao filtro) {
+        SqlCapturado.limpar();
+        // página de um registro: com a página cheia, a listagem conta o total do filtro
+        repository.findIdsByFilters(filtro, PageRequest.of(0, 1));
+        String sql = SqlCapturado.ultimo("select count");
+
+        StringBuilder preparado = new StringBuilder();
+        int parametro = 0;
+        for (char caractere : sql.toCharArray()) {
+            if (caractere == '?') {
+                preparado.append('$').append(++parametro);
+            } else {
+                preparado.append(caractere);
+            }
+        }
+        List<String> valores = valores(filtro);
+        assertThat(valores).hasSize(parametro);
+
+        jdbcTemplate.execute("PREPARE filtro_licitacao AS " + preparado);
+        try {
+            String plano = String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN EXECUTE filtro_licitacao(" + String.join(", ", valores) + ")", String.class));
+            assertThat(plano).doesNotContain("Seq Scan").contains("Index Cond");
+            return plano;
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE filtro_licitacao");
+        }
+    }
+
+    /**
+     * Valores dos parâmetros como literais, na ordem em que {@link LicitacaoSpecifications#porFiltro}
+     * emite os predicados.
+     */
+    private static List<String> valores(FiltroLicitacao filtro) {
+        List<Object> valores = new ArrayList<>(filtro.codigosUasg());
+        valores.add(filtro.numeroPregao());
+        valores.add(filtro.modalidade());
+        valores.add(filtro.dataAberturaDe());
+        valores.add(filtro.dataAberturaAte());
+        valores.add(filtro.criadoEmDe());
+        valores.add(filtro.criadoEmAte());
+        return valores.stream()
+                .filter(valor -> valor != null)
+                .map(valor -> "'" + valor.toString().replace("'", "''") + "'")
+                .collect(Collectors.toList());
+    }
+}
@@ -1,6 +1,8 @@
 package com.effecti.licitacoes.domain.repository;
 
 import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import com.effecti.licitacoes.domain.model.LicitacaoResumo;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -8,7 +10,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -20,47 +25,63 @@ class LicitacaoRepositoryTest {
     private LicitacaoRepository repository;
 
     @Test
-    void findByFilters_ComCodigoUasg_DeveRetornarLicitacoesFiltradas() {
-        Licitacao licitacao1 = new Licitacao(123456, "001/2024", "Objeto 1", "2024-01-01 10:00:00", "PREGAO", "Endereço A");
-        Licitacao licitacao2 = new Licitacao(789012, "002/2024", "Objeto 2", "2024-01-02 11:00:00", "DISPENSA", "Endereço B");
+    void findResumosByFilters_ComCodigoUasg_DeveRetornarLicitacoesFiltradas() {
+        Licitacao licitacao1 = new Licitacao(123456, "001/2024", "Objeto 1", LocalDate.of(2024, 1, 1), "PREGAO", "Endereço A");
+        Licitacao licitacao2 = new Licitacao(789012, "002/2024", "Objeto 2", LocalDate.of(2024, 1, 2), "DISPENSA", "Endereço B");
 
         repository.save(licitacao1);
         repository.save(licitacao2);
 
-        Page<Licitacao> result = repository.findByFilters(123456, null, PageRequest.of(0, 10));
+        Page<LicitacaoResumo> result = repository.findResumosByFilters(
+                new FiltroLicitacao(List.of(123456), null, null, null, null, null, null), PageRequest.of(0, 10));
 
         assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().get(0).getCodigoUasg()).isEqualTo(123456);
+        assertThat(result.getContent().get(0).codigoUasg()).isEqualTo(123456);
     }
 
     @Test
-    void findByFilters_ComNumeroPregao_DeveRetornarLicitacoesFiltradas() {
-        Licitacao licitacao1 = new Licitacao(123456, "001/2024", "Objeto 1", "2024-01-01 10:00:00", "PREGAO", "Endereço A");
-        Licitacao licitacao2 = new Licitacao(123456, "002/2024", "Objeto 2", "2024-01-02 11:00:00", "DISPENSA", "Endereço B");
+    void findResumosByFilters_ComNumeroPregao_DeveRetornarLicitacoesFiltradas() {
+        Licitacao licitacao1 = new Licitacao(123456, "001/2024", "Objeto 1", LocalDate.of(2024, 1, 1), "PREGAO", "Endereço A");
+        Licitacao licitacao2 = new Licitacao(123456, "002/2024", "Objeto 2", LocalDate.of(2024, 1, 2), "DISPENSA", "Endereço B");
 
         repository.save(licitacao1);
         repository.save(licitacao2);
 
-        Page<Licitacao> result = repository.findByFilters(null, "001/2024", PageRequest.of(0, 10));
+        Page<LicitacaoResumo> result = repository.findResumosByFilters(
+                new FiltroLicitacao(null, "001/2024", null, null, null, null, null), PageRequest.of(0, 10));
 
         assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().get(0).getNumeroPregao()).isEqualTo("001/2024");
+        assertThat(result.getContent().get(0).numeroPregao()).isEqualTo("001/2024");
     }
 
     @Test
-    void existsByCodigoUasgAndNumeroPregao_LicitacaoExiste_DeveRetornarTrue() {
-        Licitacao licitacao = new Licitacao(123456, "001/2024", "Objeto teste", "2024-01-01 10:00:00", "PREGAO", "Endereço teste");
-        repository.save(licitacao);
-
-        boolean exists = repository.existsByCodigoUasgAndNumeroPregao(123456, "001/2024");
-
-        assertThat(exists).isTrue();
+    void findIdsByFilters_ComIntervaloDeDataAbertura_DeveIncluirAsDuasPontas() {
+        repository.save(new Licitacao(123456, "001/2024", "Objeto 1", LocalDate.of(2024, 1, 1), "PREGAO", "Endereço A"));
+        Licitacao segunda = repository.save(new Licitacao(123456, "002/2024", "Objeto 2", LocalDate.of(2024, 1, 2), "PREGAO", "Endereço B"));
+        Licitacao terceira = repository.save(new Licitacao(123456, "003/2024", "Objeto 3", LocalDate.of(2024, 1, 3), "PREGAO", "Endereço C"));
+        repository.save(new Licitacao(123456, "004/2024", "Objeto 4", LocalDate.of(2024, 1, 4), "PREGAO", "Endereço D"));
+
+        Page<Long> intervalo = repository.findIdsByFilters(
+                new FiltroLicitacao(null, null, null, LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3), null, null),
+                PageRequest.of(0, 10));
+        Page<Long> aPartirDe = repository.findIdsByFilters(
+                new FiltroLicitacao(null, null, null, LocalDate.of(2024, 1, 3), null, null, null), PageRequest.of(0, 10));
+
+        assertThat(intervalo.getContent()).containsExactlyInAnyOrder(segunda.getId(), terceira.getId());
+        assertThat(intervalo.getTotalElements()).isEqualTo(2);
+        assertThat(aPartirDe.getTotalElements()).isEqualTo(2);
     }
 
     @Test
-    void existsByCodigoUasgAndNumeroPregao_LicitacaoNaoExiste_DeveRetornarFalse() {
-        boolean exists = repository.existsByCodigoUasgAndNumeroPregao(999999, "999/2024");
+    void findCamposByFilters_ComIntervaloDeDataAbertura_DeveFiltrarEContar() {
+        repository.save(new Licitacao(123456, "001/2024", "Objeto 1", LocalDate.of(2024, 1, 1), "PREGAO", "Endereço A"));
+        repository.save(new Licitacao(123456, "002/2024", "Objeto 2", LocalDate.of(2024, 1, 2), "PREGAO", "Endereço B"));
+
+        Page<Map<String, Object>> result = repository.findCamposByFilters(
+                new FiltroLicitacao(null, null, null, null, LocalDate.of(2024, 1, 1), null, null),
+                List.of("numeroPregao", "dataAbertura"), PageRequest.of(0, 10));
 
-        assertThat(exists).isFalse();
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent().get(0)).containsEntry("dataAbertura", LocalDate.of(2024, 1, 1));
     }
-}
\ No newline at end of file
+}
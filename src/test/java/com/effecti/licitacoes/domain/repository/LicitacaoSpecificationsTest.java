@@ -0,0 +1,119 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = SqlCapturado.PROPRIEDADE)
+@ActiveProfiles("test")
+class LicitacaoSpecificationsTest {
+
+    private static final String PREGAO = "Pregão Eletrônico";
+
+    @Autowired
+    private LicitacaoRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long a;
+    private Long b;
+    private Long c;
+    private Long d;
+
+    @BeforeEach
+    void setup() {
+        a = salvar(100, "001/2024", PREGAO, LocalDate.of(2024, 1, 1), LocalDateTime.of(2024, 1, 1, 10, 0));
+        b = salvar(100, "002/2024", "Dispensa", LocalDate.of(2024, 1, 5), LocalDateTime.of(2024, 1, 2, 10, 0));
+        c = salvar(200, "003/2024", PREGAO, LocalDate.of(2024, 1, 10), LocalDateTime.of(2024, 1, 3, 10, 0));
+        d = salvar(300, "004/2024", PREGAO, LocalDate.of(2024, 2, 1), LocalDateTime.of(2024, 1, 4, 10, 0));
+        entityManager.flush();
+        entityManager.clear();
+        SqlCapturado.limpar();
+    }
+
+    @Test
+    void findIdsByFilters_SemFiltros_NaoDeveGerarPredicados() {
+        Page<Long> ids = repository.findIdsByFilters(FiltroLicitacao.vazio(), PageRequest.of(0, 10));
+
+        assertThat(ids.getContent()).containsExactlyInAnyOrder(a, b, c, d);
+        assertThat(SqlCapturado.ultimo("select")).doesNotContainIgnoringCase(" where ");
+    }
+
+    @Test
+    void findIdsByFilters_DeveGerarApenasOsPredicadosInformados() {
+        FiltroLicitacao filtro = new FiltroLicitacao(List.of(100, 200), null, PREGAO,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null, null);
+
+        Page<Long> ids = repository.findIdsByFilters(filtro, PageRequest.of(0, 10));
+
+        assertThat(ids.getContent()).containsExactlyInAnyOrder(a, c);
+        assertThat(SqlCapturado.ultimo("select"))
+                .containsIgnoringCase("codigo_uasg in")
+                .containsIgnoringCase("modalidade")
+                .containsIgnoringCase("data_abertura between")
+                .doesNotContainIgnoringCase("is null")
+                .doesNotContainIgnoringCase("numero_pregao")
+                .doesNotContainIgnoringCase("criado_em");
+    }
+
+    @Test
+    void findIdsByFilters_ComUmaUasg_DeveUsarIgualdade() {
+        FiltroLicitacao filtro = new FiltroLicitacao(List.of(100), null, null, null, null, null, null);
+
+        Page<Long> ids = repository.findIdsByFilters(filtro, PageRequest.of(0, 10));
+
+        assertThat(ids.getContent()).containsExactlyInAnyOrder(a, b);
+        assertThat(SqlCapturado.ultimo("select")).containsIgnoringCase("codigo_uasg=?").doesNotContainIgnoringCase(" in ");
+    }
+
+    @Test
+    void findIdsByFilters_ComJanelaDeCadastro_DeveExcluirOFim() {
+        FiltroLicitacao filtro = new FiltroLicitacao(null, null, null, null, null,
+                LocalDateTime.of(2024, 1, 2, 10, 0), LocalDateTime.of(2024, 1, 4, 10, 0));
+
+        Page<Long> ids = repository.findIdsByFilters(filtro, PageRequest.of(0, 10));
+
+        assertThat(ids.getContent()).containsExactlyInAnyOrder(b, c);
+    }
+
+    @Test
+    void findResumosByFilters_DeveFiltrarEContar() {
+        FiltroLicitacao filtro = new FiltroLicitacao(null, null, PREGAO, LocalDate.of(2024, 1, 2), null, null, null);
+
+        assertThat(repository.findResumosByFilters(filtro, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void findIdsMaisRecentes_DeveContinuarDoCursorMantendoOsFiltros() {
+        FiltroLicitacao filtro = new FiltroLicitacao(null, null, PREGAO, null, null, null, null);
+
+        List<Long> primeira = repository.findIdsMaisRecentes(filtro, null, null, 2);
+        Licitacao ultima = entityManager.find(Licitacao.class, primeira.get(1));
+        List<Long> segunda = repository.findIdsMaisRecentes(filtro, ultima.getCriadoEm(), ultima.getId(), 2);
+
+        assertThat(primeira).containsExactly(d, c);
+        assertThat(segunda).containsExactly(a);
+    }
+
+    private Long salvar(int codigoUasg, String numeroPregao, String modalidade, LocalDate dataAbertura,
+                        LocalDateTime criadoEm) {
+        Licitacao licitacao = new Licitacao(codigoUasg, numeroPregao, "Objeto " + numeroPregao, dataAbertura,
+                modalidade, "Endereço");
+        licitacao.setCriadoEm(criadoEm);
+        return entityManager.persist(licitacao).getId();
+    }
+}
@@ -0,0 +1,41 @@
+package com.effecti.licitacoes.domain.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Guarda o SQL gerado pelo Hibernate para os testes inspecionarem os predicados emitidos. Registrado
+ * com {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlCapturado implements StatementInspector {
+
+    static final String PROPRIEDADE =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.effecti.licitacoes.domain.repository.SqlCapturado";
+
+    private static final List<String> comandos = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        comandos.add(sql);
+        return sql;
+    }
+
+    static void limpar() {
+        comandos.clear();
+    }
+
+    /**
+     * Último comando que começa com o prefixo informado, com os espaços normalizados.
+     */
+    static String ultimo(String prefixo) {
+        for (int i = comandos.size() - 1; i >= 0; i--) {
+            String sql = comandos.get(i).replaceAll("\\s+", " ").trim();
+            if (sql.regionMatches(true, 0, prefixo, 0, prefixo.length())) {
+                return sql;
+            }
+        }
+        throw new AssertionError("Nenhum comando começando com " + prefixo);
+    }
+}
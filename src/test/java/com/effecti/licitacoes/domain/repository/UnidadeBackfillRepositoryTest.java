@@ -0,0 +1,86 @@
+package com.effecti.licitacoes.domain.repository;
+
+import com.effecti.licitacoes.domain.entity.Backfill;
+import com.effecti.licitacoes.domain.entity.UnidadeBackfill;
+import com.effecti.licitacoes.domain.model.ProgressoBackfill;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class UnidadeBackfillRepositoryTest {
+
+    @Autowired
+    private UnidadeBackfillRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Backfill backfill;
+    private UnidadeBackfill primeira;
+
+    @BeforeEach
+    void setup() {
+        backfill = entityManager.persist(new Backfill(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 3), null));
+        primeira = new UnidadeBackfill(backfill, LocalDate.of(2024, 1, 1), null);
+        primeira.registrarPagina(4, 3);
+        primeira.registrarPagina(1, 0);
+        primeira.concluir();
+        entityManager.persist(primeira);
+        entityManager.persist(new UnidadeBackfill(backfill, LocalDate.of(2024, 1, 3), null));
+        entityManager.persist(new UnidadeBackfill(backfill, LocalDate.of(2024, 1, 2), null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findProgresso_DeveSomarUnidadesPorStatus() {
+        List<ProgressoBackfill> progresso = repository.findProgresso(backfill.getId());
+
+        assertThat(progresso).containsExactlyInAnyOrder(
+                new ProgressoBackfill(UnidadeBackfill.Status.CONCLUIDA, 1, 5, 3),
+                new ProgressoBackfill(UnidadeBackfill.Status.PENDENTE, 2, 0, 0));
+    }
+
+    @Test
+    void findIdsByBackfillIdAndStatus_DeveOrdenarPorData() {
+        List<Long> pendentes = repository.findIdsByBackfillIdAndStatus(backfill.getId(), UnidadeBackfill.Status.PENDENTE);
+
+        assertThat(pendentes).extracting(id -> repository.findById(id).orElseThrow().getData())
+                .containsExactly(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3));
+    }
+
+    @Test
+    void trocarStatus_DeveReservarUnidadeUmaUnicaVez() {
+        Long id = repository.findIdsByBackfillIdAndStatus(backfill.getId(), UnidadeBackfill.Status.PENDENTE).get(0);
+
+        assertThat(repository.trocarStatus(id, UnidadeBackfill.Status.PENDENTE, UnidadeBackfill.Status.EM_ANDAMENTO, LocalDateTime.now())).isEqualTo(1);
+        assertThat(repository.trocarStatus(id, UnidadeBackfill.Status.PENDENTE, UnidadeBackfill.Status.EM_ANDAMENTO, LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    void trocarStatusSemProgressoDesde_DeveDevolverApenasAbandonadasParaAFila() {
+        List<Long> pendentes = repository.findIdsByBackfillIdAndStatus(backfill.getId(), UnidadeBackfill.Status.PENDENTE);
+        LocalDateTime agora = LocalDateTime.now();
+        repository.trocarStatus(pendentes.get(0), UnidadeBackfill.Status.PENDENTE, UnidadeBackfill.Status.EM_ANDAMENTO, agora.minusMinutes(30));
+        repository.trocarStatus(pendentes.get(1), UnidadeBackfill.Status.PENDENTE, UnidadeBackfill.Status.EM_ANDAMENTO, agora);
+
+        assertThat(repository.trocarStatusSemProgressoDesde(UnidadeBackfill.Status.EM_ANDAMENTO, UnidadeBackfill.Status.PENDENTE,
+                agora.minusMinutes(10))).isEqualTo(1);
+        assertThat(repository.findBackfillIdsByStatus(UnidadeBackfill.Status.PENDENTE)).containsExactly(backfill.getId());
+        assertThat(repository.countByBackfillIdAndStatusIn(backfill.getId(),
+                List.of(UnidadeBackfill.Status.PENDENTE, UnidadeBackfill.Status.EM_ANDAMENTO))).isEqualTo(2);
+        assertThat(repository.findIdsByBackfillIdAndStatus(backfill.getId(), UnidadeBackfill.Status.PENDENTE))
+                .containsExactly(pendentes.get(0));
+    }
+}
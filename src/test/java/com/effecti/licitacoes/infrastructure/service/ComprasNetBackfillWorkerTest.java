@@ -0,0 +1,176 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.domain.entity.Backfill;
+import com.effecti.licitacoes.domain.entity.UnidadeBackfill;
+import com.effecti.licitacoes.domain.repository.BackfillRepository;
+import com.effecti.licitacoes.domain.repository.UnidadeBackfillRepository;
+import com.effecti.licitacoes.infrastructure.config.BackfillProperties;
+import com.effecti.licitacoes.infrastructure.config.ScrapingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ComprasNetBackfillWorkerTest {
+
+    private static final String BASE_URL = "http://comprasnet.local";
+
+    @Mock
+    private BackfillRepository backfillRepository;
+
+    @Mock
+    private UnidadeBackfillRepository unidadeRepository;
+
+    @Mock
+    private ComprasNetScrapingService scrapingService;
+
+    private Backfill backfill;
+    private UnidadeBackfill unidade;
+
+    @BeforeEach
+    void setup() {
+        backfill = new Backfill(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1), "123456");
+        ReflectionTestUtils.setField(backfill, "id", 1L);
+        unidade = new UnidadeBackfill(backfill, LocalDate.of(2024, 3, 1), 123456);
+        ReflectionTestUtils.setField(unidade, "id", 10L);
+
+        lenient().when(unidadeRepository.trocarStatus(eq(10L), eq(UnidadeBackfill.Status.PENDENTE), eq(UnidadeBackfill.Status.EM_ANDAMENTO), any()))
+                .thenReturn(1);
+        lenient().when(unidadeRepository.findById(10L)).thenReturn(Optional.of(unidade));
+        lenient().when(unidadeRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void processarUnidade_DevePercorrerPaginasAteVirVaziaEGravarCheckpoint() throws Exception {
+        when(scrapingService.capturarListagem(anyString(), any()))
+                .thenReturn(new ResultadoCaptura(5, 5, 6, 5, 0), new ResultadoCaptura(3, 3, 4, 2, 0),
+                        new ResultadoCaptura(0, 0, 1, 0, 0));
+        when(backfillRepository.findById(1L)).thenReturn(Optional.of(backfill));
+        when(backfillRepository.save(backfill)).thenReturn(backfill);
+
+        novoWorker(3).processarUnidade(10L);
+
+        ArgumentCaptor<String> urls = ArgumentCaptor.forClass(String.class);
+        verify(scrapingService, times(3)).capturarListagem(urls.capture(), any());
+        assertEquals(BASE_URL + "/ConsultaLicitacoes/ConsLicitacao_Relacao.asp?dt_publ_ini=01/03/2024"
+                + "&dt_publ_fim=01/03/2024&txtlstUasg=123456&chkModalidade=5&numpag=1", urls.getAllValues().get(0));
+        assertTrue(urls.getAllValues().get(2).endsWith("&numpag=3"));
+
+        // um checkpoint por página mais o status final
+        verify(unidadeRepository, times(4)).save(unidade);
+        assertEquals(UnidadeBackfill.Status.CONCLUIDA, unidade.getStatus());
+        assertEquals(11, unidade.getPaginas());
+        assertEquals(7, unidade.getLicitacoesGravadas());
+        assertEquals(4, unidade.getProximaPagina());
+        assertNotNull(backfill.getConcluidoEm());
+    }
+
+    @Test
+    void processarUnidade_ComPaginaSemPregoes_DeveSeguirParaAProximaPagina() throws Exception {
+        // quatro formulários de outras modalidades, todos descartados pelo parser, e depois pregões
+        when(scrapingService.capturarListagem(anyString(), any()))
+                .thenReturn(new ResultadoCaptura(4, 0, 1, 0, 0), new ResultadoCaptura(3, 3, 4, 3, 0),
+                        new ResultadoCaptura(0, 0, 1, 0, 0));
+        when(backfillRepository.findById(1L)).thenReturn(Optional.of(backfill));
+        when(backfillRepository.save(backfill)).thenReturn(backfill);
+
+        novoWorker(3).processarUnidade(10L);
+
+        verify(scrapingService, times(3)).capturarListagem(anyString(), any());
+        assertEquals(UnidadeBackfill.Status.CONCLUIDA, unidade.getStatus());
+        assertEquals(3, unidade.getLicitacoesGravadas());
+        assertEquals(4, unidade.getProximaPagina());
+    }
+
+    @Test
+    void processarUnidade_ComFalha_DeveVoltarParaFilaAPartirDaPaginaQueFalhou() throws Exception {
+        ReflectionTestUtils.setField(unidade, "proximaPagina", 2);
+        when(scrapingService.capturarListagem(anyString(), any()))
+                .thenReturn(new ResultadoCaptura(5, 5, 6, 5, 0))
+                .thenThrow(new IOException("conexão recusada"))
+                .thenReturn(new ResultadoCaptura(0, 0, 1, 0, 0));
+        when(unidadeRepository.trocarStatus(eq(10L), eq(UnidadeBackfill.Status.PENDENTE), eq(UnidadeBackfill.Status.EM_ANDAMENTO), any()))
+                .thenAnswer(invocation -> {
+                    ReflectionTestUtils.setField(unidade, "status", UnidadeBackfill.Status.EM_ANDAMENTO);
+                    return 1;
+                });
+        when(backfillRepository.findById(1L)).thenReturn(Optional.of(backfill));
+        when(backfillRepository.save(backfill)).thenReturn(backfill);
+
+        novoWorker(3).processarUnidade(10L);
+
+        ArgumentCaptor<String> urls = ArgumentCaptor.forClass(String.class);
+        verify(scrapingService, times(3)).capturarListagem(urls.capture(), any());
+        assertTrue(urls.getAllValues().get(0).endsWith("&numpag=2"));
+        // a segunda execução recomeça da página 3, onde a primeira falhou
+        assertTrue(urls.getAllValues().get(1).endsWith("&numpag=3"));
+        assertTrue(urls.getAllValues().get(2).endsWith("&numpag=3"));
+        assertEquals(UnidadeBackfill.Status.CONCLUIDA, unidade.getStatus());
+        assertEquals(1, unidade.getTentativas());
+    }
+
+    @Test
+    void processarUnidade_SemTentativasRestantes_DeveFicarComFalha() throws Exception {
+        when(scrapingService.capturarListagem(anyString(), any())).thenThrow(new IOException("conexão recusada"));
+        when(unidadeRepository.countByBackfillIdAndStatusIn(eq(1L), anyCollection())).thenReturn(0L);
+        when(backfillRepository.findById(1L)).thenReturn(Optional.of(backfill));
+        when(backfillRepository.save(backfill)).thenReturn(backfill);
+
+        novoWorker(1).processarUnidade(10L);
+
+        assertEquals(UnidadeBackfill.Status.FALHA, unidade.getStatus());
+        assertEquals(1, unidade.getProximaPagina());
+        assertEquals("conexão recusada", unidade.getErro());
+        assertNotNull(backfill.getConcluidoEm());
+    }
+
+    @Test
+    void processarUnidade_JaReservada_NaoDeveBuscarPaginas() throws Exception {
+        when(unidadeRepository.trocarStatus(eq(10L), eq(UnidadeBackfill.Status.PENDENTE), eq(UnidadeBackfill.Status.EM_ANDAMENTO), any()))
+                .thenReturn(0);
+
+        novoWorker(3).processarUnidade(10L);
+
+        verify(scrapingService, never()).capturarListagem(anyString(), any());
+    }
+
+    @Test
+    void distribuirPendentes_DeveEnfileirarCadaUnidadeUmaVezPorReplica() {
+        List<Runnable> fila = new ArrayList<>();
+        when(unidadeRepository.findBackfillIdsByStatus(UnidadeBackfill.Status.PENDENTE)).thenReturn(List.of(1L));
+        when(unidadeRepository.findIdsByBackfillIdAndStatus(1L, UnidadeBackfill.Status.PENDENTE)).thenReturn(List.of(10L, 11L));
+        ComprasNetBackfillWorker worker = novoWorker(3, fila::add);
+
+        worker.distribuirPendentes();
+        worker.distribuirPendentes();
+
+        assertEquals(2, fila.size());
+        verify(unidadeRepository, times(2)).trocarStatusSemProgressoDesde(eq(UnidadeBackfill.Status.EM_ANDAMENTO),
+                eq(UnidadeBackfill.Status.PENDENTE), any());
+    }
+
+    private ComprasNetBackfillWorker novoWorker(int maxTentativas) {
+        return novoWorker(maxTentativas, Runnable::run);
+    }
+
+    private ComprasNetBackfillWorker novoWorker(int maxTentativas, Executor executor) {
+        return new ComprasNetBackfillWorker(backfillRepository, unidadeRepository, scrapingService, executor,
+                new BackfillProperties(1, 1000, 10, maxTentativas, 0, null),
+                new ScrapingProperties(1, 1, 1, BASE_URL));
+    }
+}
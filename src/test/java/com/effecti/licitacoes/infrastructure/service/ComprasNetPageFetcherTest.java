@@ -0,0 +1,212 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.infrastructure.config.HttpClientProperties;
+import com.effecti.licitacoes.infrastructure.config.ResponseCacheProperties;
+import com.effecti.licitacoes.infrastructure.config.RestTemplateConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComprasNetPageFetcherTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    private String baseUrl;
+    private CloseableHttpClient httpClient;
+    private RestTemplateConfig restTemplateConfig;
+
+    private final Set<Integer> conexoes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger tentativas = new AtomicInteger();
+
+    private final AtomicReference<String> conteudo = new AtomicReference<>("<html>listagem</html>");
+    private final AtomicInteger respostas304 = new AtomicInteger();
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/com-etag", exchange -> {
+            String etag = "\"" + conteudo.get().hashCode() + "\"";
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                respostas304.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", etag);
+            responder(exchange, conteudo.get());
+        });
+        server.createContext("/sem-validadores", exchange -> responder(exchange, conteudo.get()));
+        server.createContext("/grande", exchange -> responder(exchange, "x".repeat(600)));
+        server.createContext("/detalhe", exchange -> {
+            conexoes.add(exchange.getRemoteAddress().getPort());
+            responder(exchange, "<html>itens</html>");
+        });
+        server.createContext("/gzip", exchange -> {
+            byte[] comprimido;
+            try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(); GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                gzip.write("<html>comprimida</html>".getBytes(StandardCharsets.ISO_8859_1));
+                gzip.finish();
+                comprimido = bytes.toByteArray();
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, comprimido.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(comprimido);
+            }
+        });
+        server.createContext("/instavel", exchange -> {
+            if (tentativas.incrementAndGet() < 3) {
+                byte[] corpo = "indisponível".getBytes(StandardCharsets.ISO_8859_1);
+                exchange.sendResponseHeaders(503, corpo.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(corpo);
+                }
+                return;
+            }
+            responder(exchange, "<html>ok</html>");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        restTemplateConfig = new RestTemplateConfig();
+        httpClient = restTemplateConfig.httpClient(
+                new HttpClientProperties(null, null, 0, 0, 3, Duration.ofMillis(10), null));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void buscar_DeveReaproveitarConexaoKeepAlive() throws IOException {
+        ComprasNetPageFetcher fetcher = novoFetcher(DataSize.ofMegabytes(1));
+
+        for (int i = 0; i < 10; i++) {
+            try (PaginaBaixada pagina = fetcher.buscar(baseUrl + "/detalhe?numprp=" + i)) {
+                assertEquals("<html>itens</html>", ler(pagina));
+            }
+        }
+
+        assertEquals(1, conexoes.size());
+    }
+
+    @Test
+    void buscar_ComGzip_DeveDescomprimirCorpo() throws IOException {
+        try (PaginaBaixada pagina = novoFetcher(DataSize.ofMegabytes(1)).buscar(baseUrl + "/gzip")) {
+            assertEquals("<html>comprimida</html>", ler(pagina));
+        }
+    }
+
+    @Test
+    void buscar_ComServicoIndisponivel_DeveRepetirComBackoff() throws IOException {
+        try (PaginaBaixada pagina = novoFetcher(DataSize.ofMegabytes(1)).buscar(baseUrl + "/instavel")) {
+            assertEquals("<html>ok</html>", ler(pagina));
+        }
+        assertEquals(3, tentativas.get());
+    }
+
+    @Test
+    void buscar_ComETag_DeveRevalidarEUsarCorpoGuardado() throws IOException {
+        ComprasNetPageFetcher fetcher = novoFetcher(DataSize.ofMegabytes(1));
+
+        try (PaginaBaixada primeira = fetcher.buscar(baseUrl + "/com-etag")) {
+            assertFalse(primeira.inalterada());
+            assertEquals("<html>listagem</html>", ler(primeira));
+        }
+        try (PaginaBaixada segunda = fetcher.buscar(baseUrl + "/com-etag")) {
+            assertTrue(segunda.inalterada());
+            assertEquals("<html>listagem</html>", ler(segunda));
+        }
+
+        assertEquals(1, respostas304.get());
+        ResponseCache.Estatisticas estatisticas = fetcher.estatisticasDoCache();
+        assertEquals(1, estatisticas.acertos());
+        assertEquals(1, estatisticas.falhas());
+    }
+
+    @Test
+    void buscar_SemValidadores_DeveCompararHashDoConteudo() throws IOException {
+        ComprasNetPageFetcher fetcher = novoFetcher(DataSize.ofMegabytes(1));
+        String url = baseUrl + "/sem-validadores";
+
+        try (PaginaBaixada pagina = fetcher.buscar(url)) {
+            assertFalse(pagina.inalterada());
+        }
+        try (PaginaBaixada pagina = fetcher.buscar(url)) {
+            assertTrue(pagina.inalterada());
+        }
+
+        conteudo.set("<html>listagem nova</html>");
+        try (PaginaBaixada pagina = fetcher.buscar(url)) {
+            assertFalse(pagina.inalterada());
+            assertEquals("<html>listagem nova</html>", ler(pagina));
+        }
+    }
+
+    @Test
+    void buscar_AcimaDoLimite_DeveRemoverEntradasMenosUsadas() throws IOException {
+        ComprasNetPageFetcher fetcher = novoFetcher(DataSize.ofBytes(1000));
+
+        for (int i = 0; i < 3; i++) {
+            fetcher.buscar(baseUrl + "/grande?pagina=" + i).close();
+        }
+
+        ResponseCache.Estatisticas estatisticas = fetcher.estatisticasDoCache();
+        assertEquals(1, estatisticas.entradas());
+        assertEquals(2, estatisticas.remocoes());
+        assertEquals(600, estatisticas.bytes());
+    }
+
+    @Test
+    void novoCache_DeveRecarregarEntradasDoDisco() throws IOException {
+        String url = baseUrl + "/com-etag";
+        novoFetcher(DataSize.ofMegabytes(1)).buscar(url).close();
+
+        ComprasNetPageFetcher reiniciado = novoFetcher(DataSize.ofMegabytes(1));
+        try (PaginaBaixada pagina = reiniciado.buscar(url)) {
+            assertTrue(pagina.inalterada());
+        }
+        assertEquals(1, respostas304.get());
+    }
+
+    private ComprasNetPageFetcher novoFetcher(DataSize tamanhoMaximo) {
+        return new ComprasNetPageFetcher(restTemplateConfig.restTemplate(httpClient), new ResponseCache(new ResponseCacheProperties(cacheDir, tamanhoMaximo)));
+    }
+
+    private static String ler(PaginaBaixada pagina) throws IOException {
+        return new String(pagina.corpo().readAllBytes(), StandardCharsets.ISO_8859_1);
+    }
+
+    private static void responder(HttpExchange exchange, String corpo) throws IOException {
+        byte[] bytes = corpo.getBytes(StandardCharsets.ISO_8859_1);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=iso-8859-1");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compara a extração antiga (regex compilada a cada chamada sobre {@code td.html()}) com o
+ * {@link ComprasNetPageParser}, medindo páginas processadas por segundo sobre as fixtures
+ * em {@code src/test/resources/comprasnet}. O parse do DOM fica fora da medição.
+ * <p>
+ * Execução: {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath com.effecti.licitacoes.infrastructure.service.ComprasNetPageParserBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComprasNetPageParserBenchmark {
+
+    private final ComprasNetPageParser parser = new ComprasNetPageParser(new MetricasCaptura(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+    private Document listagem;
+    private Document detalhes;
+
+    @Setup
+    public void setup() throws IOException {
+        // os avisos de registros incompletos iriam para o console e dominariam a medição
+        ((Logger) LoggerFactory.getLogger(ComprasNetPageParser.class)).setLevel(Level.OFF);
+        listagem = ComprasNetPageParserTest.carregarFixture("ConsLicitacaoDia.html");
+        detalhes = ComprasNetPageParserTest.carregarFixture("download_editais_detalhe.html");
+    }
+
+    @Benchmark
+    public List<Licitacao> listagemAntes() {
+        return ExtracaoLegada.parseListagem(listagem);
+    }
+
+    @Benchmark
+    public List<LicitacaoCapturada> listagemDepois() {
+        return parser.parseListagem(listagem);
+    }
+
+    @Benchmark
+    public List<ItemLicitacao> itensAntes() {
+        return ExtracaoLegada.parseItens(detalhes);
+    }
+
+    @Benchmark
+    public List<ItemLicitacao> itensDepois() {
+        return parser.parseItens(detalhes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ComprasNetPageParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * Cópia da extração que existia em ComprasNetScrapingService, sem os logs, usada como linha de base.
+     */
+    static final class ExtracaoLegada {
+
+        static List<Licitacao> parseListagem(Document doc) {
+            List<Licitacao> licitacoes = new ArrayList<>();
+            for (Element form : doc.select("form[name^=Form]")) {
+                Element tdTex3 = form.selectFirst("table.td tr.tex3 td");
+                if (tdTex3 == null) {
+                    continue;
+                }
+                String htmlContent = tdTex3.html();
+                String codigoUasgStr = extractTextByRegex(htmlContent, "C\\u00F3digo da UASG: (\\d+)");
+                String numeroPregao = extractTextByRegex(htmlContent, "Preg\\u00E3o Eletr\\u00F4nico N\\u00BA\\s*(\\d+\\/\\d{4})");
+                String objeto = extractTextByRegex(htmlContent, "<b>Objeto:</b>\\s*.*?\\s*([\\s\\S]*?)(?=<br><b>Edital a partir de:</b>)");
+                String dataAbertura = extractTextByRegex(htmlContent, "Edital a partir de:</b>&nbsp;(\\d{2}\\/\\d{2}\\/\\d{4})");
+                String endereco = extractTextByRegex(htmlContent, "Endere\\u00E7o:</b>\\s*([\\s\\S]*?)(?=<br><b>Telefone:</b>)");
+                if (endereco != null) {
+                    endereco = endereco.trim().replaceAll("\\s{2,}", " ").replace("-", "").trim();
+                }
+
+                Element itensButton = form.selectFirst("input[name=itens]");
+                if (itensButton != null) {
+                    Matcher matcher = Pattern.compile("coduasg=(\\d+)&modprp=(\\d+)&numprp=(\\d+)").matcher(itensButton.attr("onClick"));
+                    matcher.find();
+                }
+
+                if (codigoUasgStr != null && numeroPregao != null && objeto != null && dataAbertura != null && endereco != null) {
+                    licitacoes.add(new Licitacao(Integer.parseInt(codigoUasgStr), numeroPregao, objeto.trim(),
+                            LocalDate.parse(dataAbertura, ComprasNetPageParser.FORMATO_DATA_ABERTURA),
+                            "Pregão Eletrônico", endereco));
+                }
+            }
+            return licitacoes;
+        }
+
+        static List<ItemLicitacao> parseItens(Document itemDoc) {
+            List<ItemLicitacao> itens = new ArrayList<>();
+            for (Element itemCell : itemDoc.select("td.tex3 table[width='100%'] td[width='650']")) {
+                if (itemCell.selectFirst("span.tex3b:contains(Grupos)") != null) {
+                    continue;
+                }
+                String numeroItemDescricao = itemCell.selectFirst("span.tex3b") != null ? itemCell.selectFirst("span.tex3b").text() : null;
+                String descricaoDetalhadaCompleta = itemCell.selectFirst("span.tex3") != null ? itemCell.selectFirst("span.tex3").html() : null;
+
+                Integer numeroItem = null;
+                String descricao = null;
+                Integer quantidade = null;
+                String unidadeFornecimento = null;
+
+                if (numeroItemDescricao != null) {
+                    Matcher matcher = Pattern.compile("(\\d+) - (.*)").matcher(numeroItemDescricao);
+                    if (matcher.find()) {
+                        numeroItem = Integer.parseInt(matcher.group(1));
+                        descricao = matcher.group(2).trim();
+                    }
+                }
+                if (descricaoDetalhadaCompleta != null) {
+                    Matcher quantidadeMatcher = Pattern.compile("Quantidade: (\\d+)").matcher(descricaoDetalhadaCompleta);
+                    if (quantidadeMatcher.find()) {
+                        quantidade = Integer.parseInt(quantidadeMatcher.group(1));
+                    }
+                    Matcher unidadeMatcher = Pattern.compile("Unidade de fornecimento: ([^<]+)").matcher(descricaoDetalhadaCompleta);
+                    if (unidadeMatcher.find()) {
+                        unidadeFornecimento = unidadeMatcher.group(1).trim();
+                    }
+                }
+
+                if (numeroItem != null && descricao != null && quantidade != null && unidadeFornecimento != null) {
+                    ItemLicitacao item = new ItemLicitacao();
+                    item.setNumeroItem(numeroItem);
+                    item.setDescricao(descricao);
+                    item.setQuantidade(quantidade);
+                    item.setUnidadeFornecimento(unidadeFornecimento);
+                    itens.add(item);
+                }
+            }
+            return itens;
+        }
+
+        private static String extractTextByRegex(String html, String regex) {
+            Matcher matcher = Pattern.compile(regex).matcher(html);
+            return matcher.find() ? matcher.group(1).trim() : null;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComprasNetPageParserTest {
+
+    static final String BASE_URI = "http://comprasnet.gov.br/ConsultaLicitacoes/";
+
+    private final ComprasNetPageParser parser = new ComprasNetPageParser(new MetricasCaptura(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+
+    @Test
+    void parseListagem_DeveExtrairLicitacoesCompletas() throws IOException {
+        Document doc = carregarFixture("ConsLicitacaoDia.html");
+
+        List<LicitacaoCapturada> capturadas = parser.parseListagem(doc);
+
+        assertThat(capturadas).hasSize(4);
+
+        LicitacaoCapturada primeira = capturadas.get(0);
+        Licitacao licitacao = primeira.licitacao();
+        assertThat(licitacao.getCodigoUasg()).isEqualTo(153052);
+        assertThat(licitacao.getNumeroPregao()).isEqualTo("90012/2026");
+        assertThat(licitacao.getObjeto()).isEqualTo("Objeto: Pregão Eletrônico - Aquisição de material de consumo para laboratórios de química.");
+        assertThat(licitacao.getDataAbertura()).isEqualTo(LocalDate.of(2026, 10, 17));
+        assertThat(licitacao.getModalidade()).isEqualTo("Pregão Eletrônico");
+        assertThat(licitacao.getEndereco()).isEqualTo("Avenida Esperança, S/n Campus Samambaia Goiânia (GO)");
+        assertThat(primeira.codUasg()).isEqualTo("153052");
+        assertThat(primeira.modPrp()).isEqualTo("5");
+        assertThat(primeira.numPrp()).isEqualTo("900122026");
+    }
+
+    @Test
+    void parseListagem_Streaming_DeveEmitirAsMesmasLicitacoesDoParseCompleto() throws IOException {
+        List<LicitacaoCapturada> completas = parser.parseListagem(carregarFixture("ConsLicitacaoDia.html"));
+
+        List<LicitacaoCapturada> emitidas = new ArrayList<>();
+        int formularios;
+        try (Reader reader = abrirFixture("ConsLicitacaoDia.html")) {
+            formularios = parser.parseListagem(reader, BASE_URI, emitidas::add);
+        }
+
+        // o formulário sem código de UASG conta, mesmo sem ser emitido
+        assertThat(formularios).isEqualTo(5);
+
+        assertThat(emitidas).extracting(LicitacaoCapturada::chave)
+                .containsExactlyElementsOf(completas.stream().map(LicitacaoCapturada::chave).toList());
+        assertThat(emitidas.get(3).licitacao().getObjeto())
+                .isEqualTo(completas.get(3).licitacao().getObjeto());
+    }
+
+    @Test
+    void parseItens_DeveIgnorarGruposEItensIncompletos() throws IOException {
+        Document doc = carregarFixture("download_editais_detalhe.html");
+
+        List<ItemLicitacao> itens = parser.parseItens(doc);
+
+        assertThat(itens).hasSize(3);
+        assertThat(itens.get(0).getNumeroItem()).isEqualTo(1);
+        assertThat(itens.get(0).getDescricao()).isEqualTo("CADEIRA");
+        assertThat(itens.get(0).getQuantidade()).isEqualTo(120);
+        assertThat(itens.get(0).getUnidadeFornecimento()).isEqualTo("Unidade");
+        assertThat(itens.get(2).getUnidadeFornecimento()).isEqualTo("Peça");
+    }
+
+    @Test
+    void parse_DeveRegistrarTempoPorElementoERegistrosDescartados() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ComprasNetPageParser parserComMetricas = new ComprasNetPageParser(new MetricasCaptura(registry, ObservationRegistry.NOOP));
+
+        parserComMetricas.parseListagem(carregarFixture("ConsLicitacaoDia.html"));
+        parserComMetricas.parseItens(carregarFixture("download_editais_detalhe.html"));
+
+        assertThat(registry.get(MetricasCaptura.PARSE).tag("elemento", "formulario").timer().count()).isEqualTo(5);
+        assertThat(registry.get(MetricasCaptura.PARSE).tag("elemento", "item").timer().count()).isEqualTo(5);
+        assertThat(registry.get(MetricasCaptura.REGISTROS_DESCARTADOS).tag("elemento", "item").tag("motivo", "incompleto")
+                .counter().count()).isEqualTo(1);
+        // a fixture da listagem tem um formulário sem código de UASG
+        assertThat(registry.get(MetricasCaptura.REGISTROS_DESCARTADOS).tag("elemento", "formulario").tag("motivo", "incompleto")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get(MetricasCaptura.REGISTROS_DESCARTADOS).tag("motivo", "erro").counters())
+                .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    }
+
+    @Test
+    void parseListagem_ComDataDeAberturaInexistente_DeveDescartarFormulario() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ComprasNetPageParser parserComMetricas = new ComprasNetPageParser(new MetricasCaptura(registry, ObservationRegistry.NOOP));
+        String html = carregarFixture("ConsLicitacaoDia.html").html()
+                .replaceFirst("Edital a partir de:</b>&nbsp;17/10/2026", "Edital a partir de:</b>&nbsp;31/02/2026");
+
+        List<LicitacaoCapturada> capturadas = parserComMetricas.parseListagem(Jsoup.parse(html, BASE_URI));
+
+        assertThat(capturadas).hasSize(3);
+        assertThat(capturadas).extracting(capturada -> capturada.licitacao().getCodigoUasg()).doesNotContain(153052);
+        assertThat(registry.get(MetricasCaptura.REGISTROS_DESCARTADOS).tag("elemento", "formulario").tag("motivo", "erro")
+                .counter().count()).isEqualTo(1);
+    }
+
+    static Document carregarFixture(String nome) throws IOException {
+        try (InputStream in = ComprasNetPageParserTest.class.getResourceAsStream("/comprasnet/" + nome)) {
+            return Jsoup.parse(in, "iso-8859-1", BASE_URI);
+        }
+    }
+
+    static Reader abrirFixture(String nome) {
+        return new InputStreamReader(ComprasNetPageParserTest.class.getResourceAsStream("/comprasnet/" + nome),
+                StandardCharsets.ISO_8859_1);
+    }
+}
@@ -1,47 +1,210 @@
 package com.effecti.licitacoes.infrastructure.service;
 
-import com.effecti.licitacoes.domain.repository.LicitacaoRepository;
+import com.effecti.licitacoes.application.service.LicitacaoCacheInvalidator;
+import com.effecti.licitacoes.application.service.LoteGravado;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.infrastructure.config.HttpClientProperties;
+import com.effecti.licitacoes.infrastructure.config.ResponseCacheProperties;
+import com.effecti.licitacoes.infrastructure.config.RestTemplateConfig;
+import com.effecti.licitacoes.infrastructure.config.ScrapingProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ComprasNetScrapingServiceTest {
 
+    private static final int CONEXOES_POR_HOST = 2;
+
+    @Mock
+    private LicitacaoBatchWriter batchWriter;
+
     @Mock
-    private LicitacaoRepository repository;
+    private LicitacaoCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final Set<Integer> conexoes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requisicoes = new AtomicInteger();
+    /** Anexado à listagem para que ela mude entre duas capturas sem mudar nenhuma licitação. */
+    private volatile String sufixoListagem = "";
+
+    private ExecutorService executor;
+    private CloseableHttpClient httpClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MetricasCaptura metricas;
 
-    @InjectMocks
     private ComprasNetScrapingService service;
 
     @BeforeEach
-    void setup() {
+    void setup() throws IOException {
         Logger serviceLogger = (Logger) LoggerFactory.getLogger(ComprasNetScrapingService.class.getPackage().getName());
         serviceLogger.setLevel(Level.TRACE);
+
+        // ComprasNet simulado servindo as fixtures de src/test/resources/comprasnet
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.createContext("/ConsultaLicitacoes/ConsLicitacaoDia.asp", exchange -> responder(exchange, "ConsLicitacaoDia.html", sufixoListagem));
+        server.createContext("/ConsultaLicitacoes/download/download_editais_detalhe.asp",
+                exchange -> responder(exchange, "download_editais_detalhe.html", ""));
+        server.start();
+
+        ScrapingProperties properties = new ScrapingProperties(4, CONEXOES_POR_HOST, 10,
+                "http://127.0.0.1:" + server.getAddress().getPort());
+        RestTemplateConfig restTemplateConfig = new RestTemplateConfig();
+        httpClient = restTemplateConfig.httpClient(
+                new HttpClientProperties(null, null, 0, CONEXOES_POR_HOST, 0, null, null));
+        executor = Executors.newFixedThreadPool(properties.maxConcurrency());
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        metricas = new MetricasCaptura(meterRegistry, observationRegistry);
+        service = new ComprasNetScrapingService(executor, new HostConcurrencyLimiter(properties),
+                new ComprasNetPageParser(metricas),
+                new ComprasNetPageFetcher(restTemplateConfig.restTemplate(httpClient),
+                        new ResponseCache(new ResponseCacheProperties(cacheDir, null))),
+                batchWriter, cacheInvalidator, eventos, metricas, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        executor.shutdownNow();
+        httpClient.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
     }
 
     @Test
     void capturarLicitacoes_DeveProcessarSemErros() {
-        when(repository.existsByCodigoUasgAndNumeroPregao(anyInt(), anyString()))
-                .thenReturn(false);
-        when(repository.saveAll(anyList())).thenReturn(List.of());
+        when(batchWriter.gravarLote(anyList())).thenReturn(new LicitacaoBatchWriter.Resultado(List.of(), List.of()));
 
         // verifica se o método executa sem lançar exceções
         service.capturarLicitacoes();
 
-        verify(repository, atLeastOnce()).existsByCodigoUasgAndNumeroPregao(anyInt(), anyString());
+        verify(batchWriter, atLeastOnce()).gravarLote(anyList());
+    }
+
+    @Test
+    void capturarLicitacoes_SemAlteracoes_NaoDeveInvalidarCaches() {
+        when(batchWriter.gravarLote(anyList())).thenReturn(new LicitacaoBatchWriter.Resultado(List.of(), List.of()));
+
+        service.capturarLicitacoes();
+
+        verify(cacheInvalidator, never()).licitacoesGravadas(anyList());
+        verify(eventos, never()).publishEvent(any(LoteGravado.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void capturarLicitacoes_DeveReaproveitarConexoesNasBuscasDeItens() {
+        ArgumentCaptor<List<Licitacao>> lotes = ArgumentCaptor.forClass(List.class);
+        when(batchWriter.gravarLote(lotes.capture())).thenReturn(new LicitacaoBatchWriter.Resultado(List.of(1L, 2L), List.of(3L)));
+
+        service.capturarLicitacoes();
+
+        List<Licitacao> gravadas = new ArrayList<>();
+        lotes.getAllValues().forEach(gravadas::addAll);
+        assertEquals(4, gravadas.size());
+        gravadas.forEach(licitacao -> assertEquals(3, licitacao.getItens().size()));
+        verify(cacheInvalidator, times(lotes.getAllValues().size())).licitacoesGravadas(List.of(1L, 2L, 3L));
+        verify(eventos, times(lotes.getAllValues().size())).publishEvent(new LoteGravado(List.of(1L, 2L, 3L)));
+
+        // a listagem e as 4 páginas de itens passam por no máximo uma conexão por permissão do host
+        assertEquals(5, requisicoes.get());
+        assertTrue(conexoes.size() <= CONEXOES_POR_HOST,
+                () -> "esperado no máximo " + CONEXOES_POR_HOST + " conexões, abertas " + conexoes.size());
+    }
+
+    @Test
+    void capturarLicitacoes_DeveRegistrarMetricasDeCadaEtapa() {
+        when(batchWriter.gravarLote(anyList())).thenReturn(new LicitacaoBatchWriter.Resultado(List.of(1L, 2L), List.of(3L)));
+
+        service.capturarLicitacoes();
+
+        assertEquals(1, meterRegistry.get(MetricasCaptura.CAPTURA).tag("resultado", "sucesso").timer().count());
+        assertEquals(1, meterRegistry.get(MetricasCaptura.PAGINA_BUSCA).tag("tipo", "listagem").timer().count());
+        assertEquals(4, meterRegistry.get(MetricasCaptura.PAGINA_BUSCA).tag("tipo", "itens").tag("resultado", "baixada").timer().count());
+        assertEquals(1, meterRegistry.get(MetricasCaptura.GRAVACAO_LOTE).timer().count());
+        assertEquals(2, meterRegistry.get(MetricasCaptura.LICITACOES).tag("resultado", "inserida").counter().count());
+        assertEquals(1, meterRegistry.get(MetricasCaptura.LICITACOES).tag("resultado", "alterada").counter().count());
+        assertEquals(1, meterRegistry.get(MetricasCaptura.LICITACOES).tag("resultado", "inalterada").counter().count());
+        assertTrue(meterRegistry.get(MetricasCaptura.CAPTURA + ".ultimo.sucesso").gauge().value() > 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void capturarLicitacoes_ComItensECabecalhosInalterados_NaoDeveRegravar() {
+        ArgumentCaptor<List<Licitacao>> lotes = ArgumentCaptor.forClass(List.class);
+        when(batchWriter.gravarLote(lotes.capture())).thenReturn(new LicitacaoBatchWriter.Resultado(List.of(1L, 2L), List.of()));
+        service.capturarLicitacoes();
+        int lotesNaPrimeira = lotes.getAllValues().size();
+
+        sufixoListagem = "<!-- atualizada -->";
+        service.capturarLicitacoes();
+
+        // a listagem mudou e foi lida de novo, mas nenhuma licitação voltou a ser gravada
+        verify(batchWriter, times(lotesNaPrimeira)).gravarLote(anyList());
+        assertEquals(2, meterRegistry.get(MetricasCaptura.PAGINA_BUSCA).tag("tipo", "listagem").timer().count());
+        assertEquals(4, meterRegistry.get(MetricasCaptura.PAGINA_BUSCA).tag("tipo", "itens").tag("resultado", "inalterada").timer().count());
+        assertEquals(2 + 4, meterRegistry.get(MetricasCaptura.LICITACOES).tag("resultado", "inalterada").counter().count());
+    }
+
+    private void responder(HttpExchange exchange, String fixture, String sufixo) throws IOException {
+        requisicoes.incrementAndGet();
+        conexoes.add(exchange.getRemoteAddress().getPort());
+
+        byte[] corpo;
+        try (InputStream in = getClass().getResourceAsStream("/comprasnet/" + fixture)) {
+            ByteArrayOutputStream conteudo = new ByteArrayOutputStream();
+            in.transferTo(conteudo);
+            conteudo.write(sufixo.getBytes(StandardCharsets.ISO_8859_1));
+            corpo = conteudo.toByteArray();
+        }
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=iso-8859-1");
+        exchange.sendResponseHeaders(200, corpo.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(corpo);
+        }
     }
 }
@@ -0,0 +1,156 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O upsert usa {@code ON CONFLICT} e arrays do PostgreSQL, então roda contra um PostgreSQL de verdade.
+ * Cada lote é gravado na própria transação, como na captura.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LicitacaoBatchWriter.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LicitacaoBatchWriterTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private LicitacaoBatchWriter batchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM eventos_licitacao");
+        jdbcTemplate.update("DELETE FROM item_licitacao");
+        jdbcTemplate.update("DELETE FROM licitacoes");
+    }
+
+    @Test
+    void gravarLote_DeveInserirNovasEIgnorarInalteradas() {
+        LicitacaoBatchWriter.Resultado primeira = batchWriter.gravarLote(List.of(
+                licitacao(100001, "001/2024", "Objeto 1", "Caneta"),
+                licitacao(100002, "002/2024", "Objeto 2", "Papel")));
+
+        assertThat(primeira.inseridas()).hasSize(2);
+        assertThat(primeira.atualizadas()).isEmpty();
+        assertThat(contar("item_licitacao")).isEqualTo(4);
+
+        LicitacaoBatchWriter.Resultado repetida = batchWriter.gravarLote(List.of(
+                licitacao(100001, "001/2024", "Objeto 1", "Caneta"),
+                licitacao(100002, "002/2024", "Objeto 2", "Papel")));
+
+        assertThat(repetida.gravadas()).isZero();
+        assertThat(contar("licitacoes")).isEqualTo(2);
+        assertThat(contar("item_licitacao")).isEqualTo(4);
+    }
+
+    @Test
+    void gravarLote_ComRetificacao_DeveAtualizarLinhaEItens() {
+        Long id = batchWriter.gravarLote(List.of(licitacao(100001, "001/2024", "Objeto 1", "Caneta"))).inseridas().get(0);
+        LocalDateTime criadoEm = jdbcTemplate.queryForObject("SELECT criado_em FROM licitacoes WHERE id = ?",
+                LocalDateTime.class, id);
+
+        LicitacaoBatchWriter.Resultado retificada = batchWriter.gravarLote(List.of(
+                licitacao(100001, "001/2024", "Objeto 1", "Caneta azul"),
+                licitacao(100003, "003/2024", "Objeto 3", "Grampo")));
+
+        assertThat(retificada.atualizadas()).containsExactly(id);
+        assertThat(retificada.inseridas()).hasSize(1);
+        assertThat(jdbcTemplate.queryForList("SELECT descricao FROM item_licitacao WHERE licitacao_id = ? ORDER BY numero_item",
+                String.class, id)).containsExactly("Caneta azul 1", "Caneta azul 2");
+        assertThat(jdbcTemplate.queryForObject("SELECT criado_em FROM licitacoes WHERE id = ?", LocalDateTime.class, id))
+                .isEqualTo(criadoEm);
+        assertThat(contar("item_licitacao")).isEqualTo(4);
+    }
+
+    @Test
+    void gravarLote_ComItensRetificados_DeveManterIdsERemoverSoOsQueSumiram() {
+        Long id = batchWriter.gravarLote(List.of(licitacao(100001, "001/2024", "Objeto 1", "Caneta"))).inseridas().get(0);
+        Long idItem1 = idDoItem(id, 1);
+
+        Licitacao retificada = new Licitacao(100001, "001/2024", "Objeto 1", LocalDate.of(2024, 1, 1),
+                "Pregão Eletrônico", "Endereço");
+        retificada.addItem(item(1, "Caneta azul 1"));
+        retificada.addItem(item(3, "Grampo 3"));
+        batchWriter.gravarLote(List.of(retificada));
+
+        assertThat(jdbcTemplate.queryForList("SELECT numero_item || ':' || descricao FROM item_licitacao "
+                + "WHERE licitacao_id = ? ORDER BY numero_item", String.class, id))
+                .containsExactly("1:Caneta azul 1", "3:Grampo 3");
+        assertThat(idDoItem(id, 1)).isEqualTo(idItem1);
+        assertThat(idDoItem(id, 3)).isGreaterThan(idItem1);
+    }
+
+    @Test
+    void gravarLote_DeveRegistrarEventosSoDasLicitacoesGravadas() {
+        Long id = batchWriter.gravarLote(List.of(licitacao(100001, "001/2024", "Objeto 1", "Caneta"))).inseridas().get(0);
+        batchWriter.gravarLote(List.of(licitacao(100001, "001/2024", "Objeto 1", "Caneta")));
+        Long outra = batchWriter.gravarLote(List.of(
+                licitacao(100001, "001/2024", "Objeto 1", "Caneta azul"),
+                licitacao(100002, "002/2024", "Objeto 2", "Papel"))).inseridas().get(0);
+
+        assertThat(jdbcTemplate.queryForList("SELECT licitacao_id || ':' || tipo FROM eventos_licitacao ORDER BY sequencia",
+                String.class)).containsExactly(id + ":INSERIDA", outra + ":INSERIDA", id + ":ALTERADA");
+    }
+
+    @Test
+    void gravarLote_ComChaveRepetida_DeveGravarUltimaOcorrencia() {
+        LicitacaoBatchWriter.Resultado resultado = batchWriter.gravarLote(List.of(
+                licitacao(100001, "001/2024", "Objeto antigo", "Caneta"),
+                licitacao(100001, "001/2024", "Objeto novo", "Caneta")));
+
+        assertThat(resultado.inseridas()).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT objeto FROM licitacoes", String.class)).isEqualTo("Objeto novo");
+    }
+
+    private Long idDoItem(Long licitacaoId, int numeroItem) {
+        return jdbcTemplate.queryForObject("SELECT id FROM item_licitacao WHERE licitacao_id = ? AND numero_item = ?",
+                Long.class, licitacaoId, numeroItem);
+    }
+
+    private long contar(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + tabela, Long.class);
+    }
+
+    private static Licitacao licitacao(int codigoUasg, String numeroPregao, String objeto, String item) {
+        Licitacao licitacao = new Licitacao(codigoUasg, numeroPregao, objeto, LocalDate.of(2024, 1, 1), "Pregão Eletrônico", "Endereço");
+        for (int i = 1; i <= 2; i++) {
+            licitacao.addItem(item(i, item + " " + i));
+        }
+        return licitacao;
+    }
+
+    private static ItemLicitacao item(int numero, String descricao) {
+        ItemLicitacao item = new ItemLicitacao();
+        item.setNumeroItem(numero);
+        item.setDescricao(descricao);
+        item.setQuantidade(numero * 10);
+        item.setUnidadeFornecimento("UN");
+        return item;
+    }
+}
@@ -0,0 +1,144 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a memória retida ao processar uma listagem grande (a fixture repetida até milhares de
+ * formulários) com o DOM completo e com o parser em streaming. No meio da listagem é feita uma
+ * coleta completa e medido o heap ainda ocupado em relação ao início da chamada; o resultado é
+ * impresso ao fim de cada benchmark. O tempo medido inclui essas duas coletas nos dois casos.
+ * <p>
+ * Execução: {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath com.effecti.licitacoes.infrastructure.service.ListagemStreamingBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m", "-XX:+UseSerialGC"})
+public class ListagemStreamingBenchmark {
+
+    @Param({"10000"})
+    public int formularios;
+
+    private static final long MB = 1024 * 1024;
+
+    private final ComprasNetPageParser parser = new ComprasNetPageParser(new MetricasCaptura(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+    private Path pagina;
+
+    private final List<Long> picos = new ArrayList<>();
+    private long heapInicial;
+
+    @Setup(Level.Invocation)
+    public void medirHeapInicial() {
+        heapInicial = heapVivo();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        ((Logger) LoggerFactory.getLogger(ComprasNetPageParser.class)).setLevel(ch.qos.logback.classic.Level.OFF);
+
+        String fixture;
+        try (InputStream in = getClass().getResourceAsStream("/comprasnet/ConsLicitacaoDia.html")) {
+            fixture = new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+        }
+        String cabecalho = fixture.substring(0, fixture.indexOf("<form"));
+        String forms = fixture.substring(fixture.indexOf("<form"), fixture.lastIndexOf("</form>") + "</form>".length());
+        String rodape = fixture.substring(fixture.lastIndexOf("</form>") + "</form>".length());
+
+        pagina = Files.createTempFile("ConsLicitacaoDia", ".html");
+        try (Writer writer = Files.newBufferedWriter(pagina, StandardCharsets.ISO_8859_1)) {
+            writer.write(cabecalho);
+            for (int i = 0; i < formularios / 5; i++) {
+                writer.write(forms);
+            }
+            writer.write(rodape);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        long maximo = picos.stream().mapToLong(Long::longValue).max().orElse(0);
+        double media = picos.stream().mapToLong(Long::longValue).average().orElse(0);
+        System.out.printf("%n[%d formulários] heap retido no meio do parse: média %.1f MB, máximo %.1f MB%n",
+                formularios, media / MB, maximo / (double) MB);
+        Files.deleteIfExists(pagina);
+    }
+
+    @Benchmark
+    public List<LicitacaoCapturada> domCompleto() throws IOException {
+        Document doc = Jsoup.parse(pagina.toFile(), "iso-8859-1", ComprasNetPageParserTest.BASE_URI);
+        List<LicitacaoCapturada> capturadas = new ArrayList<>();
+        for (LicitacaoCapturada capturada : parser.parseListagem(doc)) {
+            capturadas.add(capturada);
+            registrarPicoNoMeio(capturadas);
+        }
+        Reference.reachabilityFence(doc);
+        return capturadas;
+    }
+
+    @Benchmark
+    public List<LicitacaoCapturada> streaming() throws IOException {
+        List<LicitacaoCapturada> capturadas = new ArrayList<>();
+        try (Reader reader = Files.newBufferedReader(pagina, StandardCharsets.ISO_8859_1)) {
+            parser.parseListagem(reader, ComprasNetPageParserTest.BASE_URI, capturada -> {
+                capturadas.add(capturada);
+                registrarPicoNoMeio(capturadas);
+            });
+        }
+        return capturadas;
+    }
+
+    private void registrarPicoNoMeio(List<LicitacaoCapturada> capturadas) {
+        // 4 de cada 5 formulários da fixture são válidos
+        if (capturadas.size() == formularios * 4 / 5 / 2) {
+            picos.add(heapVivo() - heapInicial);
+        }
+    }
+
+    private static long heapVivo() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListagemStreamingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,20 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Os mesmos cenários de {@link TravaDeAgendamentoTest} no PostgreSQL, onde a disputa pela inserção
+ * da trava é decidida pelo {@code ON CONFLICT} na chave primária sob o isolamento de produção.
+ */
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TravaDeAgendamentoPostgresTest extends TravaDeAgendamentoTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+}
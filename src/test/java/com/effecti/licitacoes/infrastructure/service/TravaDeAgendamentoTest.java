@@ -0,0 +1,169 @@
+package com.effecti.licitacoes.infrastructure.service;
+
+import com.effecti.licitacoes.domain.repository.TravaAgendamentoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cada chamada ao repositório roda na própria transação, como nas réplicas: sem a transação do
+ * teste em volta, uma réplica enxerga o que a outra gravou. O H2 roda no modo PostgreSQL, que aceita
+ * o {@code ON CONFLICT DO NOTHING} da criação da trava.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:travas;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TravaDeAgendamentoTest {
+
+    private static final String TAREFA = "captura-comprasnet";
+    private static final Duration TRAVA_MAXIMA = Duration.ofMinutes(30);
+    private static final Duration TRAVA_MINIMA = Duration.ofMinutes(25);
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    @Autowired
+    private TravaAgendamentoRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void executar_ComTravaDeOutraReplica_NaoDeveExecutar() {
+        AtomicInteger execucoes = new AtomicInteger();
+
+        boolean executou = replica("a", INICIO).executar(TAREFA, TRAVA_MAXIMA, TRAVA_MINIMA, () -> {
+            execucoes.incrementAndGet();
+            assertThat(replica("b", INICIO.plusMinutes(1)).executar(TAREFA, TRAVA_MAXIMA, TRAVA_MINIMA,
+                    execucoes::incrementAndGet)).isFalse();
+        });
+
+        assertThat(executou).isTrue();
+        assertThat(execucoes).hasValue(1);
+    }
+
+    @Test
+    void executar_DepoisDeTerminar_DeveSegurarTravaAteTravaMinima() {
+        replica("a", INICIO).executar(TAREFA, TRAVA_MAXIMA, TRAVA_MINIMA, () -> { });
+
+        assertThat(replica("b", INICIO.plusMinutes(10)).executar(TAREFA, TRAVA_MAXIMA, TRAVA_MINIMA, () -> { })).isFalse();
+        assertThat(replica("b", INICIO.plus(TRAVA_MINIMA)).executar(TAREFA, TRAVA_MAXIMA, TRAVA_MINIMA, () -> { })).isTrue();
+        assertThat(repository.findById(TAREFA).orElseThrow().getDono()).isEqualTo("b");
+    }
+
+    @Test
+    void executar_ComFalhaNaTarefa_DeveLiberarTrava() {
+        assertThatThrownBy(() -> replica("a", INICIO).executar(TAREFA, TRAVA_MAXIMA, Duration.ZERO, () -> {
+            throw new IllegalStateException("falhou");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(replica("b", INICIO).executar(TAREFA, TRAVA_MAXIMA, TRAVA_MINIMA, () -> { })).isTrue();
+    }
+
+    @Test
+    void executar_ComReplicaDonaFora_DeveAssumirQuandoTravaMaximaVencer() {
+        // a réplica "a" caiu no meio da captura e não liberou a trava
+        repository.criar(TAREFA, "a", INICIO, INICIO.plus(TRAVA_MAXIMA));
+
+        assertThat(replica("b", INICIO.plusMinutes(29)).executar(TAREFA, TRAVA_MAXIMA, TRAVA_MINIMA, () -> { })).isFalse();
+        assertThat(replica("b", INICIO.plusMinutes(30)).executar(TAREFA, TRAVA_MAXIMA, TRAVA_MINIMA, () -> { })).isTrue();
+    }
+
+    @Test
+    void criar_ComTravaJaExistente_DeveRetornarZeroSemFalhar() {
+        repository.criar(TAREFA, "a", INICIO, INICIO.plus(TRAVA_MAXIMA));
+
+        assertThat(repository.criar(TAREFA, "b", INICIO, INICIO.plus(TRAVA_MAXIMA))).isZero();
+        assertThat(repository.findById(TAREFA).orElseThrow().getDono()).isEqualTo("a");
+    }
+
+    @Test
+    void executar_ComTarefaMaisLongaQueTravaMaxima_DeveRenovarEContinuarRecusandoOutraReplica() {
+        // relógio real e prazo curto: a renovação roda a cada terço do prazo enquanto a tarefa dorme
+        Duration travaMaxima = Duration.ofMillis(600);
+        TravaDeAgendamento a = new TravaDeAgendamento(repository, Clock.systemDefaultZone(), "a");
+        TravaDeAgendamento b = new TravaDeAgendamento(repository, Clock.systemDefaultZone(), "b");
+        AtomicInteger execucoesDeB = new AtomicInteger();
+        try {
+            boolean executou = a.executar(TAREFA, travaMaxima, Duration.ZERO, () -> {
+                dormir(travaMaxima.multipliedBy(3));
+                assertThat(b.executar(TAREFA, travaMaxima, Duration.ZERO, execucoesDeB::incrementAndGet)).isFalse();
+            });
+
+            assertThat(executou).isTrue();
+            assertThat(execucoesDeB).hasValue(0);
+            assertThat(b.executar(TAREFA, travaMaxima, Duration.ZERO, execucoesDeB::incrementAndGet)).isTrue();
+        } finally {
+            a.encerrar();
+            b.encerrar();
+        }
+    }
+
+    @Test
+    void executar_EmVariasReplicasAoMesmoTempo_DeveExecutarUmaVez() throws Exception {
+        int replicas = 8;
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(replicas);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int i = 0; i < replicas; i++) {
+                TravaDeAgendamento trava = replica("replica-" + i, INICIO);
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return trava.executar(TAREFA, TRAVA_MAXIMA, TRAVA_MINIMA, execucoes::incrementAndGet);
+                }));
+            }
+            largada.countDown();
+
+            int vencedoras = 0;
+            for (Future<Boolean> resultado : resultados) {
+                vencedoras += resultado.get() ? 1 : 0;
+            }
+            assertThat(vencedoras).isEqualTo(1);
+            assertThat(execucoes).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void dormir(Duration duracao) {
+        try {
+            Thread.sleep(duracao.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TravaDeAgendamento replica(String dono, LocalDateTime agora) {
+        ZoneId zona = ZoneId.systemDefault();
+        return new TravaDeAgendamento(repository, Clock.fixed(agora.atZone(zona).toInstant(), zona), dono);
+    }
+}
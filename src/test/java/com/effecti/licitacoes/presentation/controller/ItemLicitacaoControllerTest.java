@@ -0,0 +1,85 @@
+package com.effecti.licitacoes.presentation.controller;
+
+import com.effecti.licitacoes.application.dto.CursorPageResponseDTO;
+import com.effecti.licitacoes.application.dto.ItemResumoDTO;
+import com.effecti.licitacoes.application.dto.TotalPorUnidadeDTO;
+import com.effecti.licitacoes.application.service.ItemLicitacaoService;
+import com.effecti.licitacoes.domain.model.FiltroItem;
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ItemLicitacaoController.class)
+class ItemLicitacaoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemLicitacaoService service;
+
+    @Test
+    void buscar_DeveRepassarOsFiltrosERetornarPaginaPorCursor() throws Exception {
+        FiltroItem filtro = new FiltroItem("caneta", List.of("UN", "CX"), List.of(123456), "Pregão Eletrônico",
+                LocalDate.of(2024, 1, 1), null);
+        ItemResumoDTO item = new ItemResumoDTO(7L, 1, "Caneta azul", 100, "UN", 1L, 123456, "001/2024",
+                "Pregão Eletrônico", LocalDate.of(2024, 1, 15));
+        when(service.buscar(eq(filtro), isNull(), eq(20)))
+                .thenReturn(CursorPageResponseDTO.of(List.of(item), 20, "Nw"));
+
+        mockMvc.perform(get("/api/itens")
+                        .param("q", "caneta")
+                        .param("unidadeFornecimento", "UN,CX")
+                        .param("codigoUasg", "123456")
+                        .param("modalidade", "Pregão Eletrônico")
+                        .param("dataAberturaDe", "2024-01-01")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].descricao").value("Caneta azul"))
+                .andExpect(jsonPath("$.content[0].licitacaoId").value(1))
+                .andExpect(jsonPath("$.content[0].dataAbertura").value("2024-01-15"))
+                .andExpect(jsonPath("$.nextCursor").value("Nw"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void buscar_ComCursorInvalido_DeveRetornar400() throws Exception {
+        when(service.buscar(eq(FiltroItem.vazio()), eq("invalido"), eq(20)))
+                .thenThrow(new BadRequestException("Cursor inválido"));
+
+        mockMvc.perform(get("/api/itens")
+                        .param("cursor", "invalido")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+    }
+
+    @Test
+    void totalizarPorUnidade_DeveRetornarTotais() throws Exception {
+        FiltroItem filtro = new FiltroItem(null, null, null, "Pregão Eletrônico", null, null);
+        when(service.totalizarPorUnidade(filtro))
+                .thenReturn(List.of(new TotalPorUnidadeDTO("UN", 3, 2, 153)));
+
+        mockMvc.perform(get("/api/itens/totais-por-unidade")
+                        .param("modalidade", "Pregão Eletrônico")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].unidadeFornecimento").value("UN"))
+                .andExpect(jsonPath("$[0].itens").value(3))
+                .andExpect(jsonPath("$[0].licitacoes").value(2))
+                .andExpect(jsonPath("$[0].quantidadeTotal").value(153));
+    }
+}
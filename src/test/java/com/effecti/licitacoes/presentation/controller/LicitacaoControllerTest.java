@@ -1,21 +1,42 @@
 package com.effecti.licitacoes.presentation.controller;
 
+import com.effecti.licitacoes.application.dto.CursorPageResponseDTO;
 import com.effecti.licitacoes.application.dto.LicitacaoDTO;
+import com.effecti.licitacoes.application.dto.LicitacaoResumoDTO;
 import com.effecti.licitacoes.application.dto.PageResponseDTO;
+import com.effecti.licitacoes.application.service.FeedLicitacoes;
 import com.effecti.licitacoes.application.service.LicitacaoService;
+import com.effecti.licitacoes.application.service.MarcaAtualizacaoLicitacoes;
+import com.effecti.licitacoes.domain.model.FiltroLicitacao;
+import com.effecti.licitacoes.infrastructure.exception.BadRequestException;
 import com.effecti.licitacoes.infrastructure.exception.ResourceNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,14 +50,27 @@ class LicitacaoControllerTest {
     @MockBean
     private LicitacaoService service;
 
+    @MockBean
+    private MarcaAtualizacaoLicitacoes marcaAtualizacao;
+
+    @MockBean
+    private FeedLicitacoes feed;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    private static final Instant MARCA = Instant.parse("2024-01-01T12:00:00.123Z");
+
+    @BeforeEach
+    void setup() {
+        when(marcaAtualizacao.atual()).thenReturn(MARCA);
+    }
+
     @Test
     void listarLicitacoes_DeveRetornarListaPaginada() throws Exception {
         LicitacaoDTO dto = new LicitacaoDTO(
                 1L, 123456, "001/2024", "Objeto teste",
-                "2024-01-01 10:00:00", "Pregão", "FORNECEDOR TESTE", List.of(),
+                LocalDate.of(2024, 1, 1), "Pregão", "FORNECEDOR TESTE", List.of(),
                 LocalDateTime.now(), LocalDateTime.now()
         );
 
@@ -44,7 +78,7 @@ class LicitacaoControllerTest {
                 List.of(dto), 0, 20, 1, 1, true, true, false
         );
 
-        when(service.findAll(isNull(), isNull(), eq(0), eq(20), isNull()))
+        when(service.findAll(eq(FiltroLicitacao.vazio()), eq(0), eq(20), isNull()))
                 .thenReturn(pageResponse);
 
         mockMvc.perform(get("/api/licitacoes")
@@ -55,11 +89,83 @@ class LicitacaoControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
 
+    @Test
+    void listarLicitacoes_DeveEnviarValidadoresDaColecao() throws Exception {
+        when(service.findAll(eq(FiltroLicitacao.vazio()), eq(0), eq(20), isNull()))
+                .thenReturn(new PageResponseDTO<>(List.of(), 0, 20, 0, 0, true, true, true));
+
+        mockMvc.perform(get("/api/licitacoes"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"" + MARCA.toEpochMilli() + "\""))
+                .andExpect(header().exists("Last-Modified"));
+    }
+
+    @Test
+    void listarLicitacoes_ComETagAtual_DeveRetornar304SemConsultarServico() throws Exception {
+        mockMvc.perform(get("/api/licitacoes")
+                        .header("If-None-Match", "W/\"" + MARCA.toEpochMilli() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(service, never()).findAll(any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void listarLicitacoes_ComETagAntiga_DeveRetornarListagem() throws Exception {
+        when(service.findAll(eq(FiltroLicitacao.vazio()), eq(0), eq(20), isNull()))
+                .thenReturn(new PageResponseDTO<>(List.of(), 0, 20, 0, 0, true, true, true));
+
+        mockMvc.perform(get("/api/licitacoes")
+                        .header("If-None-Match", "W/\"1\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listarLicitacoesPorCursor_ComIfModifiedSince_DeveRetornar304() throws Exception {
+        mockMvc.perform(get("/api/licitacoes")
+                        .param("cursor", "")
+                        .header("If-Modified-Since", "Mon, 01 Jan 2024 12:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).findAllPorCursor(any(), any(), anyInt());
+    }
+
+    @Test
+    void listarLicitacoes_SemItens_DeveUsarProjecao() throws Exception {
+        LicitacaoResumoDTO resumo = new LicitacaoResumoDTO(1L, 123456, "001/2024", "Objeto teste",
+                LocalDate.of(2024, 1, 1), "Pregão", "FORNECEDOR TESTE", LocalDateTime.now(), LocalDateTime.now());
+        when(service.findAllSemItens(eq(FiltroLicitacao.vazio()), eq(0), eq(20), isNull()))
+                .thenReturn(new PageResponseDTO<>(List.of(resumo), 0, 20, 1, 1, true, true, false));
+
+        mockMvc.perform(get("/api/licitacoes")
+                        .param("includeItens", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].objeto").value("Objeto teste"))
+                .andExpect(jsonPath("$.content[0].itens").doesNotExist());
+    }
+
+    @Test
+    void listarLicitacoes_ComFields_DeveRepassarCamposSemItensQuandoExcluidos() throws Exception {
+        Map<String, Object> linha = new LinkedHashMap<>();
+        linha.put("id", 1L);
+        linha.put("objeto", "Objeto teste");
+        when(service.findAllComCampos(eq(FiltroLicitacao.vazio()), eq(0), eq(20), isNull(), eq(List.of("id", "objeto"))))
+                .thenReturn(new PageResponseDTO<>(List.of(linha), 0, 20, 1, 1, true, true, false));
+
+        mockMvc.perform(get("/api/licitacoes")
+                        .param("fields", "id, objeto,itens")
+                        .param("includeItens", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].objeto").value("Objeto teste"))
+                .andExpect(jsonPath("$.content[0].numeroPregao").doesNotExist());
+    }
+
     @Test
     void listarLicitacoes_ComFiltros_DeveRetornarListaFiltrada() throws Exception {
         LicitacaoDTO dto = new LicitacaoDTO(
                 1L, 123456, "001/2024", "Objeto teste",
-                "2024-01-01 10:00:00", "Pregão", "FORNECEDOR TESTE", List.of(),
+                LocalDate.of(2024, 1, 1), "Pregão", "FORNECEDOR TESTE", List.of(),
                 LocalDateTime.now(), LocalDateTime.now()
         );
 
@@ -67,7 +173,8 @@ class LicitacaoControllerTest {
                 List.of(dto), 0, 20, 1, 1, true, true, false
         );
 
-        when(service.findAll(eq(123456), eq("001/2024"), eq(0), eq(20), isNull()))
+        FiltroLicitacao filtro = new FiltroLicitacao(List.of(123456), "001/2024", null, null, null, null, null);
+        when(service.findAll(eq(filtro), eq(0), eq(20), isNull()))
                 .thenReturn(pageResponse);
 
         mockMvc.perform(get("/api/licitacoes")
@@ -79,11 +186,182 @@ class LicitacaoControllerTest {
                 .andExpect(jsonPath("$.content[0].numeroPregao").value("001/2024"));
     }
 
+    @Test
+    void listarLicitacoes_ComIntervaloDeDataAbertura_DeveRepassarFiltro() throws Exception {
+        FiltroLicitacao filtro = new FiltroLicitacao(null, null, null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7),
+                null, null);
+        when(service.findAll(eq(filtro), eq(0), eq(20), isNull()))
+                .thenReturn(new PageResponseDTO<>(List.of(licitacao(1L)), 0, 20, 1, 1, true, true, false));
+
+        mockMvc.perform(get("/api/licitacoes")
+                        .param("dataAberturaDe", "2024-01-01")
+                        .param("dataAberturaAte", "2024-01-07"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].dataAbertura").value("2024-01-01"));
+    }
+
+    @Test
+    void listarLicitacoes_ComVariasUasgsModalidadeEJanelaDeCadastro_DeveRepassarFiltro() throws Exception {
+        FiltroLicitacao filtro = new FiltroLicitacao(List.of(123456, 654321), null, "Pregão Eletrônico", null, null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+        when(service.findAll(eq(filtro), eq(0), eq(20), isNull()))
+                .thenReturn(new PageResponseDTO<>(List.of(licitacao(1L)), 0, 20, 1, 1, true, true, false));
+
+        mockMvc.perform(get("/api/licitacoes")
+                        .param("codigoUasg", "123456,654321")
+                        .param("modalidade", "Pregão Eletrônico")
+                        .param("criadoEmDe", "2024-01-01T00:00:00")
+                        .param("criadoEmAte", "2024-02-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    @Test
+    void listarLicitacoes_ComCursor_DeveRetornarPaginaPorCursor() throws Exception {
+        LicitacaoDTO dto = new LicitacaoDTO(
+                1L, 123456, "001/2024", "Objeto teste",
+                LocalDate.of(2024, 1, 1), "Pregão", "FORNECEDOR TESTE", List.of(),
+                LocalDateTime.now(), LocalDateTime.now()
+        );
+
+        when(service.findAllPorCursor(eq(FiltroLicitacao.vazio()), eq(""), eq(20)))
+                .thenReturn(CursorPageResponseDTO.of(List.of(dto), 20, "abc"));
+
+        mockMvc.perform(get("/api/licitacoes")
+                        .param("cursor", "")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("abc"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void listarLicitacoes_ComCursorInvalido_DeveRetornar400() throws Exception {
+        when(service.findAllPorCursor(eq(FiltroLicitacao.vazio()), eq("invalido"), eq(20)))
+                .thenThrow(new BadRequestException("Cursor inválido"));
+
+        mockMvc.perform(get("/api/licitacoes")
+                        .param("cursor", "invalido")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+    }
+
+    @Test
+    void listarLicitacoes_ComCampoDeOrdenacaoNaoPermitido_DeveRetornar400() throws Exception {
+        when(service.findAll(eq(FiltroLicitacao.vazio()), eq(0), eq(20), eq("objeto,asc")))
+                .thenThrow(new BadRequestException("Campo de ordenação inválido: objeto"));
+
+        mockMvc.perform(get("/api/licitacoes")
+                        .param("sort", "objeto,asc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Campo de ordenação inválido: objeto"));
+    }
+
+    @Test
+    void acompanhar_ComLastEventId_DeveInscreverRetomandoDaSequencia() throws Exception {
+        when(feed.inscrever(41L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/licitacoes/stream")
+                        .header("Last-Event-ID", "41")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(feed).inscrever(41L);
+    }
+
+    @Test
+    void acompanhar_ComLastEventIdInvalido_DeveRetornar400() throws Exception {
+        mockMvc.perform(get("/api/licitacoes/stream")
+                        .header("Last-Event-ID", "abc"))
+                .andExpect(status().isBadRequest());
+
+        verify(feed, never()).inscrever(any());
+    }
+
+    @Test
+    void buscarPorTexto_DeveRetornarResultadosPaginados() throws Exception {
+        LicitacaoDTO dto = new LicitacaoDTO(
+                1L, 123456, "001/2024", "Aquisição de material de escritório",
+                LocalDate.of(2024, 1, 1), "Pregão", "FORNECEDOR TESTE", List.of(),
+                LocalDateTime.now(), LocalDateTime.now()
+        );
+
+        when(service.buscarPorTexto(eq("escritorio"), eq(0), eq(20)))
+                .thenReturn(new PageResponseDTO<>(List.of(dto), 0, 20, 1, 1, true, true, false));
+
+        mockMvc.perform(get("/api/licitacoes/busca")
+                        .param("q", "escritorio")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].objeto").value("Aquisição de material de escritório"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportar_DeveEscreverUmaLicitacaoPorLinha() throws Exception {
+        when(service.exportar(eq(LocalDateTime.of(2024, 1, 1, 0, 0)), any())).thenAnswer(invocation -> {
+            Consumer<LicitacaoDTO> destino = invocation.getArgument(1);
+            destino.accept(licitacao(1L));
+            destino.accept(licitacao(2L));
+            return 2L;
+        });
+
+        String corpo = mockMvc.perform(get("/api/licitacoes/export")
+                        .param("since", "2024-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] linhas = corpo.split("\n");
+        assertThat(linhas).hasSize(2);
+        assertThat(objectMapper.readTree(linhas[0]).get("id").asLong()).isEqualTo(1L);
+        assertThat(objectMapper.readTree(linhas[1]).get("id").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportar_ComAcceptEncodingGzip_DeveComprimirResposta() throws Exception {
+        when(service.exportar(isNull(), any())).thenAnswer(invocation -> {
+            ((Consumer<LicitacaoDTO>) invocation.getArgument(1)).accept(licitacao(1L));
+            return 1L;
+        });
+
+        byte[] corpo = mockMvc.perform(get("/api/licitacoes/export")
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(objectMapper.readTree(descomprimir(corpo)).get("objeto").asText()).isEqualTo("Objeto teste");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportar_ComGzipRecusadoPorQZero_NaoDeveComprimir() throws Exception {
+        when(service.exportar(isNull(), any())).thenAnswer(invocation -> {
+            ((Consumer<LicitacaoDTO>) invocation.getArgument(1)).accept(licitacao(1L));
+            return 1L;
+        });
+
+        String corpo = mockMvc.perform(get("/api/licitacoes/export")
+                        .header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(objectMapper.readTree(corpo).get("objeto").asText()).isEqualTo("Objeto teste");
+    }
+
     @Test
     void buscarPorId_DeveRetornarLicitacao() throws Exception {
         LicitacaoDTO dto = new LicitacaoDTO(
                 1L, 123456, "001/2024", "Objeto teste",
-                "2024-01-01 10:00:00", "Pregão", "FORNECEDOR TESTE", List.of(),
+                LocalDate.of(2024, 1, 1), "Pregão", "FORNECEDOR TESTE", List.of(),
                 LocalDateTime.now(), LocalDateTime.now()
         );
 
@@ -96,6 +374,22 @@ class LicitacaoControllerTest {
                 .andExpect(jsonPath("$.codigoUasg").value(123456));
     }
 
+    @Test
+    void buscarPorId_DeveEnviarETagForteDoIdEAtualizacao() throws Exception {
+        LicitacaoDTO dto = licitacao(1L);
+        long atualizadoEm = dto.atualizadoEm().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        when(service.findById(1L)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/licitacoes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-" + atualizadoEm + "\""));
+
+        mockMvc.perform(get("/api/licitacoes/1")
+                        .header("If-None-Match", "\"1-" + atualizadoEm + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void buscarPorId_LicitacaoNaoExiste_DeveRetornar404() throws Exception {
         when(service.findById(999L))
@@ -106,4 +400,18 @@ class LicitacaoControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Licitação não encontrada"));
     }
+
+    private static LicitacaoDTO licitacao(Long id) {
+        return new LicitacaoDTO(
+                id, 123456, "001/2024", "Objeto teste",
+                LocalDate.of(2024, 1, 1), "Pregão", "FORNECEDOR TESTE", List.of(),
+                LocalDateTime.now(), LocalDateTime.now()
+        );
+    }
+
+    private static String descomprimir(byte[] corpo) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(corpo))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
 }
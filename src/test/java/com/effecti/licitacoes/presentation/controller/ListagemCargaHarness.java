@@ -0,0 +1,184 @@
+package com.effecti.licitacoes.presentation.controller;
+
+import com.effecti.licitacoes.application.service.LicitacaoService;
+import com.effecti.licitacoes.application.service.MarcaAtualizacaoLicitacoes;
+import com.effecti.licitacoes.domain.entity.ItemLicitacao;
+import com.effecti.licitacoes.domain.entity.Licitacao;
+import com.effecti.licitacoes.domain.repository.LicitacaoRepository;
+import com.effecti.licitacoes.infrastructure.exception.GlobalExceptionHandler;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDate;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga de {@code GET /api/licitacoes}: sobe a API em H2 com threads de plataforma e depois
+ * com o profile {@code virtual-threads}, dispara a mesma carga contra cada uma e imprime vazão e
+ * latências p50/p99. Em Java 17 o profile não tem efeito e as duas execuções usam threads de
+ * plataforma; rode com um JDK 21+ para comparar de fato.
+ * <p>
+ * Ajustes por propriedade de sistema: {@code carga.concorrencia} (400), {@code carga.segundos} (20),
+ * {@code carga.licitacoes} (2000) e {@code carga.datasource.url} para usar outro banco no lugar do H2.
+ * <p>
+ * Execução: {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath com.effecti.licitacoes.presentation.controller.ListagemCargaHarness"}
+ */
+public class ListagemCargaHarness {
+
+    private static final int CONCORRENCIA = Integer.getInteger("carga.concorrencia", 400);
+    private static final int SEGUNDOS = Integer.getInteger("carga.segundos", 20);
+    private static final int LICITACOES = Integer.getInteger("carga.licitacoes", 2000);
+    private static final int TAMANHO_PAGINA = 20;
+    private static final int AQUECIMENTO_SEGUNDOS = 5;
+
+    public static void main(String[] args) throws Exception {
+        List<String> resultados = new ArrayList<>();
+        resultados.add(executar("plataforma"));
+        resultados.add(executar("virtual-threads"));
+
+        System.out.printf("%n%-16s %-10s %12s %10s %10s %8s%n", "profile", "threads", "req/s", "p50 ms", "p99 ms", "erros");
+        resultados.forEach(System.out::println);
+    }
+
+    private static String executar(String profile) throws Exception {
+        String url = System.getProperty("carga.datasource.url", "jdbc:h2:mem:carga-" + profile + ";DB_CLOSE_DELAY=-1");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Contexto.class)
+                .profiles(profile)
+                .logStartupInfo(false)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.driver-class-name=" + (url.startsWith("jdbc:h2") ? "org.h2.Driver" : "org.postgresql.Driver"),
+                        "--spring.datasource.username=" + System.getProperty("carga.datasource.username", "sa"),
+                        "--spring.datasource.password=" + System.getProperty("carga.datasource.password", ""),
+                        "--spring.jpa.properties.hibernate.dialect=" + (url.startsWith("jdbc:h2")
+                                ? "org.hibernate.dialect.H2Dialect" : "org.hibernate.dialect.PostgreSQLDialect"),
+                        "--logging.level.root=WARN")) {
+            popular(context.getBean(LicitacaoRepository.class));
+            int porta = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String threads = Threading.VIRTUAL.isActive(context.getEnvironment()) ? "virtuais" : "plataforma";
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            disparar(client, porta, AQUECIMENTO_SEGUNDOS);
+            Medicao medicao = disparar(client, porta, SEGUNDOS);
+            return String.format("%-16s %-10s %12.1f %10.1f %10.1f %8d", profile, threads,
+                    medicao.latencias().length / (double) SEGUNDOS,
+                    percentil(medicao.latencias(), 0.50), percentil(medicao.latencias(), 0.99), medicao.erros());
+        }
+    }
+
+    private static Medicao disparar(HttpClient client, int porta, int segundos) throws Exception {
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        AtomicLong erros = new AtomicLong();
+        ExecutorService clientes = Executors.newFixedThreadPool(CONCORRENCIA);
+        try {
+            List<Future<List<Long>>> futuros = new ArrayList<>();
+            for (int i = 0; i < CONCORRENCIA; i++) {
+                futuros.add(clientes.submit(() -> {
+                    List<Long> latencias = new ArrayList<>();
+                    while (System.nanoTime() < fim) {
+                        int pagina = ThreadLocalRandom.current().nextInt(LICITACOES / TAMANHO_PAGINA);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + porta
+                                + "/api/licitacoes?size=" + TAMANHO_PAGINA + "&page=" + pagina)).build();
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                latencias.add(System.nanoTime() - inicio);
+                            } else {
+                                erros.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                    }
+                    return latencias;
+                }));
+            }
+
+            List<Long> todas = new ArrayList<>();
+            for (Future<List<Long>> futuro : futuros) {
+                todas.addAll(futuro.get());
+            }
+            long[] latencias = todas.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(latencias);
+            return new Medicao(latencias, erros.get());
+        } finally {
+            clientes.shutdownNow();
+        }
+    }
+
+    private static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1_000_000.0;
+    }
+
+    private static void popular(LicitacaoRepository repository) {
+        if (repository.count() > 0) {
+            return;
+        }
+        List<Licitacao> lote = new ArrayList<>();
+        for (int i = 0; i < LICITACOES; i++) {
+            Licitacao licitacao = new Licitacao(100000 + i, String.format("%05d/2024", i),
+                    "Aquisição de materiais diversos, lote " + i, LocalDate.of(2024, 1, 1), "Pregão Eletrônico", "Endereço " + i);
+            for (int j = 1; j <= 10; j++) {
+                ItemLicitacao item = new ItemLicitacao();
+                item.setNumeroItem(j);
+                item.setDescricao("Item " + j + " do lote " + i);
+                item.setQuantidade(j);
+                item.setUnidadeFornecimento("UNIDADE");
+                licitacao.addItem(item);
+            }
+            lote.add(licitacao);
+            if (lote.size() == 100) {
+                repository.saveAll(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    private record Medicao(long[] latencias, long erros) {
+    }
+
+    /**
+     * API de licitações sem a captura agendada e sem cache ({@link NoOpCacheManager}), para que toda
+     * requisição chegue ao banco. Sem {@code @Configuration} para não ser encontrado pela varredura dos
+     * testes.
+     */
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Licitacao.class)
+    @EnableJpaRepositories(basePackageClasses = LicitacaoRepository.class)
+    @Import({LicitacaoController.class, LicitacaoService.class, MarcaAtualizacaoLicitacoes.class,
+            GlobalExceptionHandler.class})
+    static class Contexto {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new NoOpCacheManager();
+        }
+    }
+}